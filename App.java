@@ -8,13 +8,15 @@ import javafx.stage.Stage;
  */
 public class App extends Application {
 
+    private PaneOrganizer paneOrganizer; // Organizes the layout and owns the game
+
     @Override
     public void start(Stage stage) {
         // Create the PaneOrganizer to manage the layout
-        PaneOrganizer paneOrganizer = new PaneOrganizer();
+        this.paneOrganizer = new PaneOrganizer();
 
         // Create a scene with the root from PaneOrganizer and set the size from constants
-        Scene scene = new Scene(paneOrganizer.getRoot(), Constants.SCREEN_WIDTH, Constants.SCREEN_HEIGHT);
+        Scene scene = new Scene(this.paneOrganizer.getRoot(), Constants.SCREEN_WIDTH, Constants.SCREEN_HEIGHT);
 
         // Set the scene to the stage (window) and configure the title
         stage.setScene(scene);
@@ -24,6 +26,12 @@ public class App extends Application {
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        // Save the game when the window is closed
+        if (this.paneOrganizer != null) this.paneOrganizer.shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args); // Launch the application
     }
@@ -0,0 +1,158 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+// The AutoPlayer class is a bot that plays the game by itself, for attract-loop demos and soak tests. It plays on a
+// BoardState on a background thread, following the rules of the game: new tiles appear at random after each move,
+// and the bot follows a GameSolver solution for as long as the new tiles are the ones the solver expected, searching
+// again when they are not. When no solution is found it plays a few random moves and tries again.
+//
+// Simulation and rendering are decoupled. The bot plays GameSettings.AUTOPLAY_RATE actions per second, or as fast as it
+// can when the rate is 0, and publishes every position it reaches. The screen only picks up the newest position once
+// per frame, so positions played between two frames are skipped and no animation is ever queued behind another.
+
+public class AutoPlayer {
+
+    // A position reached by the bot
+    public static class Frame {
+        private final long game; // Id of the game the position belongs to
+        private final BoardState state; // The tiles
+        private final int removeCounter; // Removes left
+        private final int moves; // Moves played since the game started
+        private final boolean isFinished; // Whether the bot has stopped playing this game
+
+        private Frame(long game, BoardState state, int removeCounter, int moves, boolean isFinished) {
+            this.game = game;
+            this.state = state;
+            this.removeCounter = removeCounter;
+            this.moves = moves;
+            this.isFinished = isFinished;
+        }
+
+        // Important getters
+        public BoardState getState() {return this.state;}
+        public int getRemoveCounter() {return this.removeCounter;}
+        public int getMoves() {return this.moves;}
+        public boolean isFinished() {return this.isFinished;}
+    }
+
+    // Instance variables
+    private final ExecutorService simulator; // Background thread playing the games
+    private final AtomicReference<Frame> latestFrame; // Newest position not shown yet, or null
+    private final GameLoop.Updatable renderer; // Shows the newest position once per frame while a game is played
+    private volatile long currentGame; // Id of the game being played, any other game stops
+    private boolean isPlaying; // Whether a game is being played and shown (JavaFX thread only)
+
+    // Constructor: Creates a bot that shows its positions through the given consumer, on the JavaFX thread
+    public AutoPlayer(Consumer<Frame> frameRenderer) {
+        this.latestFrame = new AtomicReference<>();
+        this.simulator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autoplay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.renderer = new GameLoop.Updatable() {
+            @Override
+            public boolean update() {return true;}
+
+            @Override
+            public void render(double alpha) {
+                Frame frame = AutoPlayer.this.latestFrame.getAndSet(null);
+                if (frame == null || frame.game != AutoPlayer.this.currentGame) return;
+                if (frame.isFinished) AutoPlayer.this.stop();
+                frameRenderer.accept(frame);
+            }
+        };
+    }
+
+    // Whether a game is being played
+    public boolean isPlaying() {return this.isPlaying;}
+
+    // Starts playing a game from the given position, stopping the game being played, if any
+    public void start(BoardState state, int removeCounter, String targetWord, long seed) {
+        this.stop();
+        long game = this.currentGame;
+        this.isPlaying = true;
+        this.simulator.submit(() -> this.play(game, new BoardState(state), removeCounter, targetWord, seed));
+        GameLoop.get().add(this.renderer);
+    }
+
+    // Stops playing, leaving the tiles on screen where they are
+    public void stop() {
+        this.currentGame++;
+        this.isPlaying = false;
+        this.latestFrame.set(null);
+        GameLoop.get().remove(this.renderer);
+    }
+
+    // Plays a game until it is won, no move can change the board any more or the bot has played too long
+    private void play(long game, BoardState state, int removeCounter, String targetWord, long seed) {
+        Random random = new Random(seed); // Chooses the new tiles, like Board does
+        GameSolver solver = new GameSolver(targetWord, state.getRows(), state.getCols());
+        BooleanSupplier isCancelled = () -> this.currentGame != game;
+        long period = GameSettings.AUTOPLAY_RATE > 0 ? (long) (1e9 / GameSettings.AUTOPLAY_RATE) : 0;
+        long nextTime = System.nanoTime();
+
+        List<Integer> plan = Collections.emptyList(); // Actions of the solution being followed
+        List<SolveGame.TileInfo> planTiles = Collections.emptyList(); // New tiles the solution expects
+        int nextAction = 0; // Index of the next action of the plan
+        int randomMoves = 0; // Random moves left to play before searching again
+        int moves = 0;
+
+        for (int actions = 0; ; actions++) {
+            boolean isFinished = state.checkForWin(targetWord) || state.isDeadlocked()
+                    || actions >= GameSettings.AUTOPLAY_MAX_ACTIONS;
+            this.latestFrame.set(new Frame(game, new BoardState(state), removeCounter, moves, isFinished));
+            if (isFinished) return;
+
+            // Keep to the rate, dropping the time lost to a slow search instead of catching up with it
+            if (period > 0) {
+                nextTime += period;
+                long wait = nextTime - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                else nextTime = System.nanoTime();
+            }
+            if (isCancelled.getAsBoolean()) return;
+
+            // Search for a solution once the last one is used up or stopped matching the board
+            if (nextAction >= plan.size() && randomMoves == 0) {
+                GameSolver.Solution solution = solver.solve(state, removeCounter, isCancelled);
+                if (solution == null) return;
+                plan = solution.isFound() ? solution.getActions() : Collections.emptyList();
+                planTiles = solution.getNewTiles();
+                nextAction = 0;
+                if (!solution.isFound()) randomMoves = GameSettings.AUTOPLAY_RANDOM_MOVES;
+            }
+
+            int action;
+            SolveGame.TileInfo plannedTile = null;
+            if (nextAction < plan.size()) {
+                action = plan.get(nextAction);
+                plannedTile = planTiles.get(nextAction);
+                nextAction++;
+            } else {
+                action = SolverAction.move(Directions.values()[random.nextInt(Directions.INVALID.ordinal())]);
+                randomMoves--;
+            }
+
+            if (!SolverAction.isMove(action)) {
+                GameSolver.applyTool(state, action);
+                if (SolverAction.getType(action) == SolverAction.REMOVE) removeCounter--;
+                continue;
+            }
+            moves++;
+            if (state.move(SolverAction.getDirection(action), targetWord)) {
+                int cell = state.spawnRandomTile(random);
+                boolean isExpected = plannedTile != null && cell == state.index(plannedTile.row, plannedTile.col)
+                        && state.getLetter(cell) == plannedTile.letter;
+                if (!isExpected) nextAction = plan.size(); // The board has left the solution, search again
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+// The BatchKernel interface applies the game rules to every board of a BoardBatch at once. ScalarBatchKernel works
+// through the boards one by one, VectorBatchKernel through many boards per instruction; BoardBatch picks the fastest
+// one the machine supports, and both give exactly the same results as BoardState. Result arrays must hold at least
+// the batch capacity, since vector kernels write whole groups of boards.
+
+public interface BatchKernel {
+
+    // Plays a full player move (see BoardState.move) on every board and sets, for each board, whether a new tile
+    // should be spawned afterwards
+    void move(BoardBatch batch, Directions direction, String targetWord, boolean[] spawnNeeded);
+
+    // Sets, for each board, whether the target word is in one of its rows (left to right) or columns (top to bottom)
+    void checkForWin(BoardBatch batch, String targetWord, boolean[] wins);
+
+    // Name of the kernel, for reports
+    String getName();
+
+    // Whether the kernel can run efficiently on this machine
+    default boolean isSupported() {return true;}
+}
@@ -1,17 +1,22 @@
-import javafx.animation.PauseTransition;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
-import javafx.util.Duration;
 
 // The BlankTile class represents a blank tile in the game that can be interacted with by the player
 // to change its letter. It listens for key events to allow the player to input a letter,
 // and disables key press handling after a short pause.
 public class BlankTile extends Tile {
 
+    private Runnable onLetterChanged; // Callback run whenever the player types a new letter
+
     // Constructor: Initializes the BlankTile's position and appearance.
     public BlankTile(Pane gamePane, int rowY, int colX, int row, int col) {
-        super(gamePane, rowY + 10, colX, row, col); // Inherit positioning logic from the Tile class
+        this(gamePane, rowY, colX, row, col, false);
+    }
+
+    // Constructor: Initializes the BlankTile's position and appearance, see Tile for restored tiles
+    public BlankTile(Pane gamePane, int rowY, int colX, int row, int col, boolean isRestored) {
+        super(gamePane, rowY + 10, colX, row, col, isRestored); // Inherit positioning logic from the Tile class
 
         // Set the appearance for the blank tile
         this.tileColor = Constants.BLANK_TILE_COLOR;
@@ -22,17 +27,17 @@ public class BlankTile extends Tile {
 
     // Changes the letter of the tile by allowing the user to press a key.
     //After a 3-second pause, it disables further key presses.
-    public void changeLetter() {
+    public void changeLetter(Runnable onLetterChanged) {
+        this.onLetterChanged = onLetterChanged;
+
         // Set the key press event handler to allow user input
         this.getTile().setOnKeyPressed(this::handleKeyPress);
 
         // Request focus to ensure the tile can capture key presses
         this.getTile().requestFocus();
 
-        // Create a pause for 3 seconds before disabling key events
-        PauseTransition pause = new PauseTransition(Duration.seconds(3));
-        pause.setOnFinished(event -> this.getTile().setOnKeyPressed(null));
-        pause.play();
+        // Disable key events again after a 3-second pause
+        GameLoop.get().schedule(Constants.BLANK_TILE_TYPING_TIME * 1000, () -> this.getTile().setOnKeyPressed(null));
     }
 
     // Handles key press events to update the letter on the tile
@@ -43,6 +48,7 @@ public class BlankTile extends Tile {
         if (!keyText.isEmpty() && Character.isLetter(keyText.charAt(0))) {
             char keyChar = keyText.toUpperCase().charAt(0);  // Convert the letter to uppercase
             this.setLetter(keyChar);  // Update the tile's letter
+            if (this.onLetterChanged != null) this.onLetterChanged.run();
         }
     }
 
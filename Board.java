@@ -1,11 +1,11 @@
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.scene.Node;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
-import javafx.util.Duration;
 import javafx.util.Pair;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Random;
 
 // The Board class manages the game grid, handling tile generation, movement, and merging. It updates the game
@@ -17,31 +17,108 @@ public class Board {
     private final Tile[][] board; // 2D array representing the game grid of tiles
     private final Pane gamePane; // The pane that holds and displays the game content
     private final HashMap<Tile, Integer> movingTiles; // Mapping of tiles to their movement targets during animations
-    public Timeline updateTimeline; // Timeline for periodic game updates (e.g., animations, checks)
-    private Timeline move; // Timeline for handling tile movement animations
+    private final GameLoop.Updatable letterUpdater; // Colors the tiles holding target letters on every step
+    private Slide slide; // Tile slide in progress, or null
     private String targetWord; // The target word that needs to be formed or reached in the game
     private boolean isAllowedToMove; // Flag indicating whether tile movement is currently allowed
-
-    // Constructor: Initializes the game board, target word, and game state
+    private final TrackedRandom random; // Random number generator used for starting and new tiles
+    private long zobristHash; // Zobrist hash of the tiles on the board (see Zobrist), updated by every change
+    private final GameMetrics metrics; // Counters and timings published for monitoring
+    private MoveTrace.Animation animation; // Flight recorder event timing the current tile animation
+    private GameRecorder recorder; // Recorder notified of merges and new tiles, if any
+    private double animationRate; // Speed of the tile slides, 1 for normal speed
+    private final LineKernel kernel; // Slide and merge traversal shared with BoardState
+    private final char[] letters; // Letter of each cell as read by the kernel, '\0' for an empty cell
+    private final Locks[] locks; // Lock status of each cell as read by the kernel
+    private final int[] changes; // Moves or merges worked out by the kernel, before they are applied to the tiles
+
+    // Constructor: Initializes the game board, target word, and game state. The target letters are only colored once
+    // the caller starts the updates (see startUpdates).
     public Board(Pane gamePane, Tile[][] board, String targetWord) {
         this.gamePane = gamePane;
         this.board = board;
         this.targetWord = targetWord;
         this.movingTiles = new HashMap<>();
         this.isAllowedToMove = true;
-        this.checkForTargetLetters();
+        this.animationRate = 1;
+        this.random = new TrackedRandom(new Random().nextLong());
+        this.zobristHash = Zobrist.hash(BoardState.fromTiles(board));
+        this.metrics = GameMetrics.get();
+        this.kernel = LineKernel.of(GameSettings.NUMBER_OF_ROWS, GameSettings.NUMBER_OF_COLUMNS);
+        this.letters = new char[GameSettings.NUMBER_OF_ROWS * GameSettings.NUMBER_OF_COLUMNS];
+        this.locks = new Locks[GameSettings.NUMBER_OF_ROWS * GameSettings.NUMBER_OF_COLUMNS];
+        this.changes = this.kernel.newBuffer();
+        this.letterUpdater = () -> {
+            this.checkForTargetLetters();
+            return true;
+        };
     }
 
     // Sets the target word for the game
     public void setTargetWord(String targetWord) {this.targetWord = targetWord;}
 
+    // Seeds the random number generator so the tiles of a game can be reproduced
+    public void setSeed(long seed) {this.random.setSeed(seed);}
+
+    // State of the random number generator, saved with an undo step so that undoing a move cannot change its new tile
+    public long getRandomState() {return this.random.getState();}
+    public void setRandomState(long state) {this.random.setState(state);}
+
+    // Zobrist hash of the tiles on the board, kept up to date by every move, merge, new tile and tool action
+    public long getZobristHash() {return this.zobristHash;}
+
+    // Recomputes the hash from scratch, after another Board (such as the solver's) changed the same tiles
+    public void rehash() {this.zobristHash = Zobrist.hash(BoardState.fromTiles(this.board));}
+
+    // Changes the lock status of the tile on the given cell
+    public void setLock(int row, int col, Locks lock) {
+        Tile tile = this.board[row][col];
+        this.zobristHash ^= tileKey(row, col, tile);
+        tile.setLock(lock);
+        this.zobristHash ^= tileKey(row, col, tile);
+    }
+
+    // Updates the hash after the player typed a new letter on the blank tile of the given cell
+    public void letterChanged(int row, int col, char previousLetter) {
+        Tile tile = this.board[row][col];
+        this.zobristHash ^= Zobrist.tileKey(cellOf(row, col), previousLetter, tile.getLockStatus(), true)
+                ^ tileKey(row, col, tile);
+    }
+
+    // Takes the tile off the given cell, once its visuals have been removed
+    public void clearCell(int row, int col) {
+        this.zobristHash ^= tileKey(row, col, this.board[row][col]);
+        this.board[row][col] = null;
+    }
+
+    // Updates the hash for a tile that moved from one cell to another
+    private void rehashMove(Tile tile, int fromRow, int fromCol, int toRow, int toCol) {
+        this.zobristHash ^= tileKey(fromRow, fromCol, tile) ^ tileKey(toRow, toCol, tile);
+    }
+
+    // Zobrist key of a tile on a cell, 0 for an empty cell
+    private static long tileKey(int row, int col, Tile tile) {
+        if (tile == null) return 0;
+        return Zobrist.tileKey(cellOf(row, col), tile.getLetter(), tile.getLockStatus(), tile instanceof BlankTile);
+    }
+
+    // Index of a cell, the same as in BoardState
+    private static int cellOf(int row, int col) {return row * GameSettings.NUMBER_OF_COLUMNS + col;}
+
+    // Sets the recorder that logs merges and new tiles
+    public void setRecorder(GameRecorder recorder) {this.recorder = recorder;}
+
+    // Sets the speed of the tile slides, including the one playing, where 1 is normal speed
+    public void setAnimationRate(double rate) {this.animationRate = rate;}
+
+    // Returns whether the tiles have finished their last movement and can move again
+    public boolean isAllowedToMove() {return this.isAllowedToMove;}
+
     // Initializes the starting tiles on the board
     public void generateStartingTiles() {
-        Random random = new Random();
-
         // Generate the first random tile with the letter 'A'
-        int tileRow = random.nextInt(Constants.NUMBER_OF_ROWS);
-        int tileCol = random.nextInt(Constants.NUMBER_OF_COLUMNS);
+        int tileRow = this.random.nextInt(GameSettings.NUMBER_OF_ROWS);
+        int tileCol = this.random.nextInt(GameSettings.NUMBER_OF_COLUMNS);
 
         // Calculate the position of the tile on the board (in pixels)
         int rowY = tileRow * Constants.TILE_HEIGHT;
@@ -51,12 +128,13 @@ public class Board {
         Tile tile = new Tile(this.gamePane, rowY, colX, tileRow, tileCol);
         this.board[tileRow][tileCol] = tile;
         tile.setLetter('A');
+        this.zobristHash ^= tileKey(tileRow, tileCol, tile);
 
         // Generate one random blank tile, ensuring it does not overlap with the starting tile
         int row, col;
         do {
-            row = random.nextInt(Constants.NUMBER_OF_ROWS);
-            col = random.nextInt(Constants.NUMBER_OF_COLUMNS);
+            row = this.random.nextInt(GameSettings.NUMBER_OF_ROWS);
+            col = this.random.nextInt(GameSettings.NUMBER_OF_COLUMNS);
         } while (row == tileRow && col == tileCol);  // Ensure the blank tile isn't at the same position
 
         // Calculate the position of the blank tile on the board (in pixels)
@@ -67,61 +145,104 @@ public class Board {
         BlankTile blankTile = new BlankTile(this.gamePane, blankTileRowY, blankTileColX, row, col);
         this.board[row][col] = blankTile;
         blankTile.setLetter('A');
+        this.zobristHash ^= tileKey(row, col, blankTile);
     }
 
     // Generates a new tile on the board with a random letter
-    public SolveGame.TileInfo generateNewTile(Tile[][] board, boolean isSimulation) {
-        Random random = new Random();
-
+    public SolveGame.TileInfo generateNewTile() {
         // Randomly choose a tile letter ('A' 90% of the time, 'B' 10% of the time)
-        char tileLetter = random.nextInt(100) < 90 ? 'A' : 'B';
+        char tileLetter = this.random.nextInt(100) < 90 ? 'A' : 'B';
 
         // Find a random, unoccupied position on the board
         int tileRow, tileCol;
         do {
-            tileRow = random.nextInt(Constants.NUMBER_OF_ROWS);
-            tileCol = random.nextInt(Constants.NUMBER_OF_COLUMNS);
-        } while (board[tileRow][tileCol] != null);  // Ensure the tile position is empty
+            tileRow = this.random.nextInt(GameSettings.NUMBER_OF_ROWS);
+            tileCol = this.random.nextInt(GameSettings.NUMBER_OF_COLUMNS);
+        } while (this.board[tileRow][tileCol] != null);  // Ensure the tile position is empty
 
         // Check if there are any blank tiles on the board
-        boolean hasBlankTile = false;
-        outerLoop:
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
-                if (board[row][col] != null &&
-                        board[row][col].getTileColor().equals(Constants.BLANK_TILE_COLOR)) {
-                    hasBlankTile = true;
-                    break outerLoop;  // Exit both loops once a blank tile is found
-                }
-            }
-        }
+        boolean hasBlankTile = this.hasBlankTile(this.board);
 
         // Calculate the position for the new tile
         int rowY = tileRow * Constants.TILE_HEIGHT;
         int colX = tileCol * Constants.TILE_WIDTH;
 
-        if (!isSimulation) {
-            // Create and place the new tile based on the presence of a blank tile
-            if (hasBlankTile) {
-                Tile newTile = new Tile(this.gamePane, rowY, colX, tileRow, tileCol);
-                newTile.setLetter(tileLetter);
-                board[tileRow][tileCol] = newTile;
-            } else {
-                BlankTile blankTile = new BlankTile(this.gamePane, rowY - 10, colX, tileRow, tileCol);
-                blankTile.setLetter(tileLetter);
-                board[tileRow][tileCol] = blankTile;
-            }
-        }
-        else{
-            // Create a new tile and place it on the board
-            Tile newTile = new Tile(tileRow, tileCol);
+        // Create and place the new tile based on the presence of a blank tile
+        if (hasBlankTile) {
+            Tile newTile = new Tile(this.gamePane, rowY, colX, tileRow, tileCol);
             newTile.setLetter(tileLetter);
-            board[tileRow][tileCol] = newTile;
+            this.board[tileRow][tileCol] = newTile;
+        } else {
+            BlankTile blankTile = new BlankTile(this.gamePane, rowY - 10, colX, tileRow, tileCol);
+            blankTile.setLetter(tileLetter);
+            this.board[tileRow][tileCol] = blankTile;
         }
+        if (this.recorder != null) this.recorder.recordSpawn(tileRow, tileCol, tileLetter, !hasBlankTile);
+        this.metrics.spawned();
+        MoveTrace.spawned(tileRow, tileCol, tileLetter);
+        this.zobristHash ^= tileKey(tileRow, tileCol, this.board[tileRow][tileCol]);
         // Return the tile information for tracking
         return new SolveGame.TileInfo(tileRow, tileCol, tileLetter);
     }
 
+    // Rebuilds the tiles of a saved board, adding all of their visuals to the game pane in one batch
+    public void restoreTiles(BoardState state) {
+        List<Node> tileNodes = new ArrayList<>();
+        for (int row = 0; row < state.getRows(); row++) {
+            for (int col = 0; col < state.getCols(); col++) {
+                if (state.isEmpty(row, col)) continue;
+
+                // Calculate the position of the tile on the board (in pixels)
+                int rowY = row * Constants.TILE_HEIGHT;
+                int colX = col * Constants.TILE_WIDTH;
+
+                Tile tile = state.isBlank(row, col)
+                        ? new BlankTile(this.gamePane, rowY - 10, colX, row, col, true)
+                        : new Tile(this.gamePane, rowY, colX, row, col, true);
+                tile.setLetter(state.getLetter(row, col));
+                tile.setLock(state.getLock(row, col));
+                this.board[row][col] = tile;
+                this.zobristHash ^= tileKey(row, col, tile);
+                tileNodes.add(tile.getTile());
+            }
+        }
+        this.gamePane.getChildren().addAll(tileNodes);
+    }
+
+    // Changes the tiles on the board to match the given state. Tiles that are already right are kept as they are, and
+    // tiles that only differ in letter or lock are updated in place, so only the cells that gained, lost or swapped a
+    // tile create or remove nodes.
+    public void applyState(BoardState state) {
+        List<Node> tileNodes = new ArrayList<>();
+        for (int row = 0; row < state.getRows(); row++) {
+            for (int col = 0; col < state.getCols(); col++) {
+                Tile tile = this.board[row][col];
+                this.zobristHash ^= tileKey(row, col, tile) ^ Zobrist.cellKey(state.index(row, col),
+                        state.getPackedCell(state.index(row, col)));
+                if (state.isEmpty(row, col)) {
+                    if (tile != null) tile.remove();
+                    this.board[row][col] = null;
+                    continue;
+                }
+
+                // Replace the tile when the cell was empty or the tile must change between blank and normal
+                if (tile == null || (tile instanceof BlankTile) != state.isBlank(row, col)) {
+                    if (tile != null) tile.remove();
+                    int rowY = row * Constants.TILE_HEIGHT;
+                    int colX = col * Constants.TILE_WIDTH;
+                    tile = state.isBlank(row, col)
+                            ? new BlankTile(this.gamePane, rowY - 10, colX, row, col, true)
+                            : new Tile(this.gamePane, rowY, colX, row, col, true);
+                    this.board[row][col] = tile;
+                    tileNodes.add(tile.getTile());
+                }
+                if (tile.getLetter() != state.getLetter(row, col)) tile.setLetter(state.getLetter(row, col));
+                if (tile.getLockStatus() != state.getLock(row, col)) tile.setLock(state.getLock(row, col));
+            }
+        }
+        this.gamePane.getChildren().addAll(tileNodes);
+    }
+
     // Generates a specific tile at the given row and column with the specified letter
     public void generateSpecificTile(int tileRow, int tileCol, char tileLetter) {
         // Ensure the row index is valid before proceeding
@@ -130,70 +251,85 @@ public class Board {
             int posY = tileRow * Constants.TILE_HEIGHT;
             int posX = tileCol * Constants.TILE_WIDTH;
 
-            // Create a new tile and assign its letter
-            Tile newTile = new Tile(this.gamePane, posY, posX, tileRow, tileCol);
+            // Create a new tile and assign its letter, as a blank tile if the board has none (like generateNewTile)
+            boolean isBlank = !this.hasBlankTile(this.board);
+            Tile newTile = isBlank ? new BlankTile(this.gamePane, posY - 10, posX, tileRow, tileCol)
+                    : new Tile(this.gamePane, posY, posX, tileRow, tileCol);
             newTile.setLetter(tileLetter);
 
             // Place the new tile on the game board
             this.board[tileRow][tileCol] = newTile;
+            this.zobristHash ^= tileKey(tileRow, tileCol, newTile);
+            if (this.recorder != null) this.recorder.recordSpawn(tileRow, tileCol, tileLetter, isBlank);
+            MoveTrace.spawned(tileRow, tileCol, tileLetter);
         }
     }
 
-    // Checks for a win by identifying a matching 3-letter word in rows or columns
-    public Pair<Boolean, Tile[]> checkForWin(Tile[][] board, String targetWord) {
-        // Check each row for a 3-letter word match
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int startCol = 0; startCol <= Constants.NUMBER_OF_COLUMNS - 3; startCol++) { // Sliding window of size 3
-                if (this.checkWordInLine(row, startCol, board, true, targetWord).getKey())
-                    return this.checkWordInLine(row, startCol, board, true, targetWord); // Exit if a winning word is found
+    // Checks if there are any blank tiles on the board
+    private boolean hasBlankTile(Tile[][] board) {
+        for (int row = 0; row < GameSettings.NUMBER_OF_ROWS; row++) {
+            for (int col = 0; col < GameSettings.NUMBER_OF_COLUMNS; col++) {
+                if (board[row][col] != null && board[row][col].getTileColor().equals(Constants.BLANK_TILE_COLOR)) {
+                    return true;
+                }
             }
         }
+        return false;
+    }
 
-        // Check each column for a 3-letter word match
-        for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
-            for (int startRow = 0; startRow <= Constants.NUMBER_OF_ROWS - 3; startRow++) { // Sliding window of size 3
-                if (this.checkWordInLine(startRow, col, board, false, targetWord).getKey())
-                    return this.checkWordInLine(startRow, col, board, false, targetWord); // Exit if a winning word is found
-            }
+    // Checks for a win by scanning every row (left to right) and column (top to bottom) once for the target word
+    public Pair<Boolean, Tile[]> checkForWin(Tile[][] board, String targetWord) {
+        int[] failureTable = BoardState.buildFailureTable(targetWord);
+
+        // Check each row for the target word
+        for (int row = 0; row < GameSettings.NUMBER_OF_ROWS; row++) {
+            Tile[] winningTiles = this.findWordInLine(row, board, true, targetWord, failureTable);
+            if (winningTiles != null) return new Pair<>(true, winningTiles); // Exit if a winning word is found
+        }
+
+        // Check each column for the target word
+        for (int col = 0; col < GameSettings.NUMBER_OF_COLUMNS; col++) {
+            Tile[] winningTiles = this.findWordInLine(col, board, false, targetWord, failureTable);
+            if (winningTiles != null) return new Pair<>(true, winningTiles); // Exit if a winning word is found
         }
         return new Pair<>(false, null);
     }
 
-    // Checks a 3-letter sequence in a row or column for a match with the target word
-    private Pair<Boolean, Tile[]> checkWordInLine(int startRow, int startCol, Tile[][] board, boolean isRowCheck, String targetWord) {
-        StringBuilder currentWord = new StringBuilder();
-        Tile[] winningTiles = new Tile[3];
-        boolean allTilesPresent = true;
-
-        // Build the 3-letter word
-        for (int offset = 0; offset < 3; offset++) {
-            int row = isRowCheck ? startRow : startRow + offset;
-            int col = isRowCheck ? startCol + offset : startCol;
-            Tile currentTile = board[row][col];
+    // Scans a row or column in a single pass for the target word and returns its tiles, or null if it isn't there
+    private Tile[] findWordInLine(int line, Tile[][] board, boolean isRowCheck, String targetWord, int[] failureTable) {
+        int lineLength = isRowCheck ? GameSettings.NUMBER_OF_COLUMNS : GameSettings.NUMBER_OF_ROWS;
+        int matched = 0; // Number of letters of the target word matched so far
 
+        for (int position = 0; position < lineLength; position++) {
+            Tile currentTile = isRowCheck ? board[line][position] : board[position][line];
             if (currentTile == null) {
-                allTilesPresent = false; // Stop if a tile is missing
-                break;
+                matched = 0; // Stop if a tile is missing
+                continue;
             }
-            currentWord.append(currentTile.getLetter());
-            winningTiles[offset] = currentTile;
-        }
 
-        // Check for a match with the target word
-        if (allTilesPresent && currentWord.toString().equals(targetWord)) {
-            //this.gameIsWon(winningTiles);
-            return new Pair<>(true, winningTiles); // Winning word found
-        }
+            // Fall back to the longest partial match the current letter can extend
+            char letter = currentTile.getLetter();
+            while (matched > 0 && targetWord.charAt(matched) != letter) matched = failureTable[matched - 1];
+            if (targetWord.charAt(matched) == letter) matched++;
 
-        return new Pair<>(false, null); // No match found
+            if (matched == targetWord.length()) {
+                Tile[] winningTiles = new Tile[matched];
+                for (int offset = 0; offset < matched; offset++) {
+                    int index = position - matched + 1 + offset;
+                    winningTiles[offset] = isRowCheck ? board[line][index] : board[index][line];
+                }
+                return winningTiles; // Winning word found
+            }
+        }
+        return null; // No match found
     }
 
     // Checks if the game is lost
     public boolean checkForLoss(Tile[][] board, int removeCounter) {
 
         // Check if all tiles are occupied
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
+        for (int row = 0; row < GameSettings.NUMBER_OF_ROWS; row++) {
+            for (int col = 0; col < GameSettings.NUMBER_OF_COLUMNS; col++) {
                 if (board[row][col] == null) {
                     return false;  // Found an empty tile, game is not over
                 }
@@ -201,20 +337,20 @@ public class Board {
         }
 
         // Check if no tiles can merge (no adjacent same tiles)
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
+        for (int row = 0; row < GameSettings.NUMBER_OF_ROWS; row++) {
+            for (int col = 0; col < GameSettings.NUMBER_OF_COLUMNS; col++) {
                 Tile currentTile = board[row][col];
 
                 if (currentTile != null) {
                     // Check if the tile can merge with its right neighbor
-                    if (col < Constants.NUMBER_OF_COLUMNS - 1 && board[row][col + 1] != null && currentTile.getLetter()
-                            == board[row][col + 1].getLetter()) {
+                    if (col < GameSettings.NUMBER_OF_COLUMNS - 1 && board[row][col + 1] != null
+                            && currentTile.getLetter() == board[row][col + 1].getLetter()) {
                         return false;  // Found a merge-able pair horizontally
                     }
 
                     // Check if the tile can merge with its bottom neighbor
-                    if (row < Constants.NUMBER_OF_ROWS - 1 && board[row + 1][col] != null && currentTile.getLetter() ==
-                            board[row + 1][col].getLetter()) {
+                    if (row < GameSettings.NUMBER_OF_ROWS - 1 && board[row + 1][col] != null
+                            && currentTile.getLetter() == board[row + 1][col].getLetter()) {
                         return false;  // Found a merge-able pair vertically
                     }
                 }
@@ -226,459 +362,212 @@ public class Board {
     }
 
 
+    // Starts coloring the tiles holding target letters on every step of the game loop
+    public void startUpdates() {GameLoop.get().add(this.letterUpdater);}
+
+    // Stops coloring the tiles, e.g. once the game is over
+    public void stopUpdates() {GameLoop.get().remove(this.letterUpdater);}
+
     // Checks each tile to see if it contains a target letter and updates its color accordingly
     private void checkForTargetLetters() {
-        // Check for target letters in the tiles at regular intervals
-        this.updateTimeline = new Timeline(new KeyFrame(Duration.millis(Constants.UPDATE_SPEED), event -> {
-            char[] targetLetters = this.targetWord.toCharArray();
-            for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-                for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
-                    if (this.board[row][col] != null) {
-                        boolean isTargetLetter = false;
-                        for (char letter : targetLetters) {
-                            if (this.board[row][col].getLetter() == letter) {
-                                isTargetLetter = true;
-                                break; // Exit the loop once a match is found
-                            }
-                        }
-
-                        // Update the tile's color based on whether it contains a target letter
-                        if (this.board[row][col].getTileColor().equals(Constants.TILE_COLOR)) {
-                            if (isTargetLetter) this.board[row][col].setColor(Color.web(Constants.TARGET_LETTER_COLOR));
-                            else this.board[row][col].setColor(Color.web(Constants.TILE_COLOR));
+        char[] targetLetters = this.targetWord.toCharArray();
+        for (int row = 0; row < GameSettings.NUMBER_OF_ROWS; row++) {
+            for (int col = 0; col < GameSettings.NUMBER_OF_COLUMNS; col++) {
+                if (this.board[row][col] != null) {
+                    boolean isTargetLetter = false;
+                    for (char letter : targetLetters) {
+                        if (this.board[row][col].getLetter() == letter) {
+                            isTargetLetter = true;
+                            break; // Exit the loop once a match is found
                         }
                     }
-                }
-            }
-        }));
-        this.updateTimeline.setCycleCount(Timeline.INDEFINITE);
-        this.updateTimeline.play();
-    }
-
-    // Moves tiles to the left where possible
-    public void moveLeft(Tile[][] board, boolean gameIsWon, boolean gameIsLost, boolean isSimulation) {
-        // Prevent movement if not allowed or game is over
-        if (!this.isAllowedToMove || gameIsWon || gameIsLost) return;
 
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            // Start from the second column (index 1) and move left
-            for (int col = 1; col < Constants.NUMBER_OF_COLUMNS; col++) {
-                Tile currentTile = board[row][col];
-                if (currentTile != null && currentTile.getLockStatus() != Locks.DOUBLELOCKED) {
-                    int targetCol = col;
-
-                    // Find the farthest unoccupied column to the left
-                    while (targetCol > 0 && board[row][targetCol - 1] == null) targetCol--;
-
-                    // If a move is possible
-                    if (targetCol != col) {
-                        board[row][targetCol] = currentTile;  // Update the board's state
-                        board[row][col] = null;              // Clear the previous position
-                        currentTile.setCol(targetCol);            // Update the tile's column
-                        if (!isSimulation) {
-                            int targetX = currentTile.getX() - (Math.abs(col - targetCol) * Constants.TILE_WIDTH);
-                            this.movingTiles.put(currentTile, targetX);
-                        }
+                    // Update the tile's color based on whether it contains a target letter
+                    if (this.board[row][col].getTileColor().equals(Constants.TILE_COLOR)) {
+                        if (isTargetLetter) this.board[row][col].setColor(Color.web(Constants.TARGET_LETTER_COLOR));
+                        else this.board[row][col].setColor(Color.web(Constants.TILE_COLOR));
                     }
                 }
             }
         }
     }
 
-    // Moves tiles to the right where possible
-    public void moveRight(Tile[][] board, boolean gameIsWon, boolean gameIsLost, boolean isSimulation) {
+    // Moves tiles as far as possible in the given direction
+    public void move(Directions direction, boolean gameIsWon, boolean gameIsLost, boolean isSimulation) {
         // Prevent movement if not allowed or game is over
         if (!this.isAllowedToMove || gameIsWon || gameIsLost) return;
 
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int col = Constants.NUMBER_OF_COLUMNS - 2; col >= 0; col--) {
-                Tile currentTile = board[row][col];
-                if (currentTile != null && currentTile.getLockStatus() != Locks.DOUBLELOCKED) {
-                    int targetCol = col;
-
-                    // Find the rightmost unoccupied position for the current tile
-                    while (targetCol + 1 < Constants.NUMBER_OF_COLUMNS && board[row][targetCol + 1] == null)
-                        targetCol++;
-
-                    // If a move is possible
-                    if (targetCol != col) {
-                        board[row][targetCol] = currentTile;  // Update the board's state
-                        board[row][col] = null;              // Clear the previous position
-                        currentTile.setCol(targetCol);            // Update the tile's column
-                        if (!isSimulation) {
-                            int targetX = currentTile.getX() + (Math.abs(col - targetCol) * Constants.TILE_WIDTH);
-                            this.movingTiles.put(currentTile, targetX);
-                        }
-                    }
-                }
-            }
-        }
-    }
-    // Moves tiles upwards where possible
-    public void moveUp(Tile[][] board, boolean gameIsWon, boolean gameIsLost, boolean isSimulation) {
-        // Prevent movement if the game state doesn't allow it
-        if (!this.isAllowedToMove || gameIsWon || gameIsLost) return;
-
-        for (int row = 1; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
-                Tile currentTile = board[row][col];
-                if (currentTile != null && currentTile.getLockStatus() != Locks.DOUBLELOCKED) {
-                    int targetRow = row;
-
-                    // Find the highest unoccupied position for the current tile
-                    while (targetRow > 0 && board[targetRow - 1][col] == null) targetRow--;
-
-                    // If the tile can move, update its position
-                    if (targetRow != row) {
-                        board[targetRow][col] = currentTile;
-                        board[row][col] = null;
-                        currentTile.setRow(targetRow);
-                        if (!isSimulation){
-                            int targetY = currentTile.getY() - (Math.abs(row - targetRow) * Constants.TILE_HEIGHT);
-                            this.movingTiles.put(currentTile, targetY);
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    // Moves tiles downwards where possible
-    public void moveDown(Tile[][] board, boolean gameIsWon, boolean gameIsLost, boolean isSimulation) {
-        // Prevent movement if the game state doesn't allow it
-        if (!this.isAllowedToMove || gameIsWon || gameIsLost) return;
-
-        for (int row = Constants.NUMBER_OF_ROWS - 2; row >= 0; row--) {
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
-                Tile currentTile = board[row][col];
-                if (currentTile != null && currentTile.getLockStatus() != Locks.DOUBLELOCKED) {
-                    int targetRow = row;
-
-                    // Find the furthest available row to move the tile downward
-                    while (targetRow + 1 < Constants.NUMBER_OF_ROWS && board[targetRow + 1][col] == null)
-                        targetRow++;
-
-                    // Update the board and prepare animation if the tile moves
-                    if (targetRow != row) {
-                        board[targetRow][col] = currentTile;
-                        board[row][col] = null;
-                        currentTile.setRow(targetRow);
-                        if (!isSimulation){
-                            int targetY = currentTile.getY() + (Math.abs(row - targetRow) * Constants.TILE_HEIGHT);
-                            this.movingTiles.put(currentTile, targetY);
-                        }
-                    }
-                }
+        this.readCells();
+        int count = this.kernel.slide(direction, this.letters, this.locks, this.changes);
+        for (int i = 0; i < 2 * count; i += 2) {
+            int fromRow = this.changes[i] / GameSettings.NUMBER_OF_COLUMNS;
+            int fromCol = this.changes[i] % GameSettings.NUMBER_OF_COLUMNS;
+            int toRow = this.changes[i + 1] / GameSettings.NUMBER_OF_COLUMNS;
+            int toCol = this.changes[i + 1] % GameSettings.NUMBER_OF_COLUMNS;
+            Tile currentTile = this.board[fromRow][fromCol];
+
+            this.board[toRow][toCol] = currentTile;  // Update the board's state
+            this.board[fromRow][fromCol] = null;     // Clear the previous position
+            this.rehashMove(currentTile, fromRow, fromCol, toRow, toCol);
+            currentTile.setRow(toRow);
+            currentTile.setCol(toCol);
+            if (!isSimulation) {
+                int target = LineKernel.isHorizontal(direction)
+                        ? currentTile.getX() + (toCol - fromCol) * Constants.TILE_WIDTH
+                        : currentTile.getY() + (toRow - fromRow) * Constants.TILE_HEIGHT;
+                this.movingTiles.put(currentTile, target);
             }
         }
+        MoveTrace.modelUpdated();
     }
 
-    // Visually moves all tiles horizontally towards their target positions
-    public void animateHorizontalTileMovement(Directions direction, boolean hasMerged, boolean gameIsWon, boolean gameIsLost) {
-        int increment = (direction == Directions.LEFT) ? -1 : 1;
-        this.isAllowedToMove = false;
-
-        // Create a timeline to animate tile movements
-        this.move = new Timeline(new KeyFrame(Duration.millis(Constants.MOVE_SPEED), event -> {
-            boolean allTilesSnapped = true; // Flag to track if all tiles have finished moving
-
-            // Iterate over the tiles and move them towards their target positions
-            for (Tile tile : this.movingTiles.keySet()) {
-                int targetX = this.movingTiles.get(tile);
-
-                // Move tile closer to its target X position
-                if (Math.abs(tile.getX() - targetX) > Math.abs(increment)) {
-                    tile.getTile().setLayoutX(tile.getTile().getLayoutX() + increment);
-                    allTilesSnapped = false; // At least one tile is still moving
-                } else tile.getTile().setLayoutX(targetX);
-            }
-
-            // Stop the animation when all tiles have reached their target positions
-            if (allTilesSnapped) {
-                this.isAllowedToMove = true;
-                this.movingTiles.clear();
-                this.move.stop();
-
-                // Merge tiles if needed, otherwise generate a new tile
-                if (!hasMerged && !gameIsWon) this.mergeTiles(direction, false, -1, -1, '\0');
-
-                else if (!gameIsWon && !gameIsLost) this.generateNewTile(this.board,false);
-            }
-        }));
-
-        this.move.setCycleCount(Timeline.INDEFINITE);
-        this.move.play();
+    // Visually moves all tiles towards their target positions
+    public void animateTileMovement(Directions direction, boolean hasMerged, boolean gameIsWon, boolean gameIsLost) {
+        this.slide(LineKernel.isHorizontal(direction), () -> {
+            // Merge tiles if needed, otherwise generate a new tile
+            if (!hasMerged && !gameIsWon) this.mergeTiles(direction, false, -1, -1, '\0');
+            else if (!gameIsWon && !gameIsLost) this.generateNewTile();
+        });
     }
 
-    // Visually moves all tiles horizontally towards their target positions in a simulation
-    public void animateHorizontalTileMovement(Directions direction, boolean hasMerged, int row, int col, char letter) {
-        int increment = (direction == Directions.LEFT) ? -1 : 1;
-        this.isAllowedToMove = false;
-
-        // Create a timeline to animate tile movements
-        this.move = new Timeline(new KeyFrame(Duration.millis(Constants.MOVE_SPEED), event -> {
-            boolean allTilesSnapped = true; // Flag to track if all tiles have finished moving
-
-            // Iterate over the tiles and move them towards their target positions
-            for (Tile tile : this.movingTiles.keySet()) {
-                int targetX = this.movingTiles.get(tile);
-
-                // Move tile closer to its target X position
-                if (Math.abs(tile.getX() - targetX) > Math.abs(increment)) {
-                    tile.getTile().setLayoutX(tile.getTile().getLayoutX() + increment);
-                    allTilesSnapped = false; // At least one tile is still moving
-                } else tile.getTile().setLayoutX(targetX);
-            }
-
-            // Stop the animation when all tiles have reached their target positions
-            if (allTilesSnapped) {
-                this.isAllowedToMove = true;
-                this.movingTiles.clear();
-                this.move.stop();
-
-                // Merge tiles if needed, otherwise generate a new tile
-                if (!hasMerged) this.mergeTiles(direction, true, row, col, letter);
-                else if (row != -1) this.generateSpecificTile(row, col, letter);
-
-            }
-        }));
-
-        this.move.setCycleCount(Timeline.INDEFINITE);
-        this.move.play();
+    // Visually moves all tiles towards their target positions in a simulation
+    public void animateTileMovement(Directions direction, boolean hasMerged, int row, int col, char letter) {
+        this.slide(LineKernel.isHorizontal(direction), () -> {
+            // Merge tiles if needed, otherwise generate a new tile
+            if (!hasMerged) this.mergeTiles(direction, true, row, col, letter);
+            else if (row != -1) this.generateSpecificTile(row, col, letter);
+        });
     }
 
-    // Visually moves all tiles vertically towards their target positions
-    public void animateVerticalTileMovement(Directions direction, boolean hasMerged, boolean gameIsWon, boolean gameIsLost) {
-        // Determine the vertical movement increment based on the direction (UP or DOWN)
-        int increment = (direction == Directions.UP) ? -1 : 1;
+    // Slides the moving tiles to their targets on the game loop, then runs the given action. Keys pressed while the
+    // tiles are still sliding find the board not allowed to move, so their slide is ignored.
+    private void slide(boolean isHorizontal, Runnable onSnapped) {
+        if (this.slide != null) return;
         this.isAllowedToMove = false;
-
-        // Create a timeline for the tile movement animation
-        this.move = new Timeline(
-            new KeyFrame(Duration.millis(Constants.MOVE_SPEED), event -> {
-                boolean allTilesSnapped = true; // Flag to track if all tiles have finished moving
-
-                // Move tile closer to its target Y position
-                for (Tile tile : this.movingTiles.keySet()) {
-                    int targetY = this.movingTiles.get(tile);
-                    if (Math.abs(tile.getY() - targetY) > Math.abs(increment)) {
-                        tile.getTile().setLayoutY(tile.getTile().getLayoutY() + increment);
-                        allTilesSnapped = false; // At least one tile is still moving
-                    } else tile.getTile().setLayoutY(targetY);
-
-                }
-
-                // Stop the animation when all tiles have reached their target positions
-                if (allTilesSnapped) {
-                    this.isAllowedToMove = true;
-                    this.movingTiles.clear();
-                    this.move.stop();
-
-                    // Merge tiles if needed, otherwise generate a new tile
-                    if (!hasMerged && !gameIsWon) this.mergeTiles(direction, false, -1, -1, '\0');
-                    else if (!gameIsWon && !gameIsLost) this.generateNewTile(this.board, false);
-                }
-            })
-        );
-
-        this.move.setCycleCount(Timeline.INDEFINITE);
-        this.move.play();
+        this.metrics.animationStarted();
+        this.animation = MoveTrace.animationStarted();
+        this.slide = new Slide(isHorizontal, onSnapped);
+        GameLoop.get().add(this.slide);
     }
 
-    // Visually moves all tiles vertically towards their target positions in a simulation
-    public void animateVerticalTileMovement(Directions direction, boolean hasMerged, int row, int col, char letter) {
-        // Determine the vertical movement increment based on the direction (UP or DOWN)
-        int increment = (direction == Directions.UP) ? -1 : 1;
-        this.isAllowedToMove = false;
-
-        // Create a timeline for the tile movement animation
-        this.move = new Timeline(
-                new KeyFrame(Duration.millis(Constants.MOVE_SPEED), event -> {
-                    boolean allTilesSnapped = true; // Flag to track if all tiles have finished moving
-
-                    // Move tile closer to its target Y position
-                    for (Tile tile : this.movingTiles.keySet()) {
-                        int targetY = this.movingTiles.get(tile);
-                        if (Math.abs(tile.getY() - targetY) > Math.abs(increment)) {
-                            tile.getTile().setLayoutY(tile.getTile().getLayoutY() + increment);
-                            allTilesSnapped = false; // At least one tile is still moving
-                        } else tile.getTile().setLayoutY(targetY);
-
-                    }
-
-                    // Stop the animation when all tiles have reached their target positions
-                    if (allTilesSnapped) {
-                        this.isAllowedToMove = true;
-                        this.movingTiles.clear(); // Clear the moving tiles map
-                        this.move.stop(); // Stop the timeline animation
-
-                        // Merge tiles if needed, otherwise generate a new tile
-                        if (!hasMerged) this.mergeTiles(direction, true, row, col, letter);
-                        else if (row != -1) this.generateSpecificTile(row, col, letter);
-
-                    }
-                })
-        );
-
-        this.move.setCycleCount(Timeline.INDEFINITE);
-        this.move.play();
+    // Stops the slide in progress, if any, leaving the tiles where they are drawn. The board can move again at once.
+    public void stopSlide() {
+        if (this.slide == null) return;
+        GameLoop.get().remove(this.slide);
+        this.slide = null;
+        this.movingTiles.clear();
+        this.isAllowedToMove = true;
     }
 
-    // Merges adjacent tiles of the same letter based on the specified direction
+    // Merges adjacent tiles of the same letter in the specified direction
     private void mergeTiles(Directions direction, boolean isSimulation, int tileRow, int tileCol, char tileLetter) {
         if (this.checkForWin(this.board, this.targetWord).getKey()) return;
-        switch (direction) {
-            case LEFT:
-                this.mergeLeft(isSimulation, tileRow, tileCol, tileLetter);
-                break;
-            case RIGHT:
-                this.mergeRight(isSimulation, tileRow, tileCol, tileLetter);
-                break;
-            case UP:
-                this.mergeUp(isSimulation, tileRow, tileCol, tileLetter);
-                break;
-            case DOWN:
-                this.mergeDown(isSimulation, tileRow, tileCol, tileLetter);
-                break;
-            default:
-                throw new IllegalArgumentException("Invalid direction: " + direction);
+        if (this.recorder != null) this.recorder.recordMerge(direction);
+
+        this.readCells();
+        int count = this.kernel.merge(direction, this.letters, this.locks, this.changes);
+        for (int i = 0; i < 2 * count; i += 2) {
+            int row = this.changes[i] / GameSettings.NUMBER_OF_COLUMNS;
+            int col = this.changes[i] % GameSettings.NUMBER_OF_COLUMNS;
+            int nextRow = this.changes[i + 1] / GameSettings.NUMBER_OF_COLUMNS;
+            int nextCol = this.changes[i + 1] % GameSettings.NUMBER_OF_COLUMNS;
+            Tile currentTile = this.board[row][col];
+            Tile nextTile = this.board[nextRow][nextCol];
+
+            long before = tileKey(row, col, currentTile);
+            currentTile.merge();
+            nextTile.remove();
+            this.board[nextRow][nextCol] = null;
+            this.zobristHash ^= before ^ tileKey(row, col, currentTile) ^ tileKey(nextRow, nextCol, nextTile);
+            this.metrics.merged();
         }
-    }
 
-    // Merges tiles leftward if they have the same letter
-    private void mergeLeft(boolean isSimulation, int tileRow, int tileCol, char tileLetter) {
-        boolean hasMerged = false;
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS - 1; col++) {
-                if (this.board[row][col] != null) {
-                    Tile currentTile = this.board[row][col];
-                    Tile nextTile = this.board[row][col + 1];
-
-                    if (nextTile != null && currentTile.getLetter() == nextTile.getLetter() && currentTile.isLocked()
-                        && nextTile.isLocked()) {
-                        hasMerged = true;
-                        currentTile.merge();
-                        nextTile.remove();
-                        this.board[row][col + 1] = null;
-                    }
-                }
-            }
-        }
-        if (!hasMerged && !isSimulation) this.generateNewTile(this.board, false);
-        else if (hasMerged && !isSimulation) this.moveAfterMerge(Directions.LEFT, false, -1, -1, '\0');
+        boolean hasMerged = count > 0;
+        MoveTrace.merged(hasMerged);
+        if (!hasMerged && !isSimulation) this.generateNewTile();
+        else if (hasMerged && !isSimulation) this.moveAfterMerge(direction, false, -1, -1, '\0');
         else if (!hasMerged) this.generateSpecificTile(tileRow, tileCol, tileLetter);
-        else this.moveAfterMerge(Directions.LEFT, true, tileRow, tileCol, tileLetter);
+        else this.moveAfterMerge(direction, true, tileRow, tileCol, tileLetter);
     }
 
-    // Merges tiles rightward if they have the same letter
-    private void mergeRight(boolean isSimulation, int tileRow, int tileCol, char tileLetter) {
-        boolean hasMerged = false;
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int col = Constants.NUMBER_OF_COLUMNS - 1; col > 0; col--) {
-                if (this.board[row][col] != null) {
-                    Tile currentTile = this.board[row][col];
-                    Tile nextTile = this.board[row][col - 1];
-
-                    if (nextTile != null && currentTile.getLetter() == nextTile.getLetter() && currentTile.isLocked()
-                            && nextTile.isLocked()) {
-                        hasMerged = true;
-                        currentTile.merge();
-                        nextTile.remove();
-                        this.board[row][col - 1] = null;
-                    }
-                }
-            }
-        }
-        if (!hasMerged && !isSimulation) this.generateNewTile(this.board, false);
-        else if (hasMerged && !isSimulation) this.moveAfterMerge(Directions.RIGHT, false, -1, -1, '\0');
-        else if (!hasMerged) this.generateSpecificTile(tileRow, tileCol, tileLetter);
-        else this.moveAfterMerge(Directions.RIGHT, true, tileRow, tileCol, tileLetter);
+    // Moves all tiles after merging has occurred to fill in gaps
+    private void moveAfterMerge(Directions direction, boolean isSimulation, int row, int col, char letter) {
+        this.move(direction, false, false, false);
+        if (isSimulation) this.animateTileMovement(direction, true, row, col, letter);
+        else this.animateTileMovement(direction, true, false, false);
     }
 
-    // Merges tiles upward if they have the same letter
-    private void mergeUp(boolean isSimulation, int tileRow, int tileCol, char tileLetter) {
-        boolean hasMerged = false;
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS - 1; row++) {
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
-                if (this.board[row][col] != null) {
-                    Tile currentTile = this.board[row][col];
-                    Tile nextTile = this.board[row + 1][col];
-
-                    if (nextTile != null && currentTile.getLetter() == nextTile.getLetter() && currentTile.isLocked()
-                            && nextTile.isLocked()) {
-                        hasMerged = true;
-                        currentTile.merge();
-                        nextTile.remove();
-                        this.board[row + 1][col] = null;
-                    }
-                }
+    // Copies the letters and lock statuses of the tiles into the flat cells read by the line kernel
+    private void readCells() {
+        for (int row = 0; row < GameSettings.NUMBER_OF_ROWS; row++) {
+            for (int col = 0; col < GameSettings.NUMBER_OF_COLUMNS; col++) {
+                Tile tile = this.board[row][col];
+                int cell = cellOf(row, col);
+                this.letters[cell] = tile == null ? '\0' : tile.getLetter();
+                this.locks[cell] = tile == null ? Locks.UNLOCKED : tile.getLockStatus();
             }
         }
-        if (!hasMerged && !isSimulation) this.generateNewTile(this.board, false);
-        else if (hasMerged && !isSimulation) this.moveAfterMerge(Directions.UP, false, -1, -1, '\0');
-        else if (!hasMerged) this.generateSpecificTile(tileRow, tileCol, tileLetter);
-        else this.moveAfterMerge(Directions.UP, true, tileRow, tileCol, tileLetter);
     }
 
-    // Merges tiles downward if they have the same letter
-    private void mergeDown(boolean isSimulation, int tileRow, int tileCol, char tileLetter) {
-        boolean hasMerged = false;
-        for (int row = Constants.NUMBER_OF_ROWS - 1; row > 0; row--) {
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
-                if (this.board[row][col] != null) {
-                    Tile currentTile = this.board[row][col];
-                    Tile nextTile = this.board[row - 1][col];
-
-                    if (nextTile != null && currentTile.getLetter() == nextTile.getLetter() && currentTile.isLocked()
-                            && nextTile.isLocked()) {
-                        hasMerged = true;
-                        currentTile.merge();
-                        nextTile.remove();
-                        this.board[row - 1][col] = null;
-                    }
-                }
+    // A slide of the moving tiles along one axis. Every step of the game loop moves each tile Constants.GAME_STEP /
+    // Constants.MOVE_SPEED pixels closer to its target, faster at a higher animation rate, and frames draw the tiles
+    // between their last two positions.
+    private class Slide implements GameLoop.Updatable {
+        private final boolean isHorizontal; // Whether the tiles move along rows rather than columns
+        private final Runnable onSnapped; // Run once every tile has reached its target
+        private final Tile[] tiles; // The moving tiles
+        private final double[] previous, current, target; // Positions of the tiles before and after the last step
+
+        private Slide(boolean isHorizontal, Runnable onSnapped) {
+            this.isHorizontal = isHorizontal;
+            this.onSnapped = onSnapped;
+            this.tiles = Board.this.movingTiles.keySet().toArray(new Tile[0]);
+            this.previous = new double[this.tiles.length];
+            this.current = new double[this.tiles.length];
+            this.target = new double[this.tiles.length];
+            for (int i = 0; i < this.tiles.length; i++) {
+                this.current[i] = this.isHorizontal ? this.tiles[i].getX() : this.tiles[i].getY();
+                this.previous[i] = this.current[i];
+                this.target[i] = Board.this.movingTiles.get(this.tiles[i]);
             }
         }
-        if (!hasMerged && !isSimulation) this.generateNewTile(this.board, false);
-        else if (hasMerged && !isSimulation) this.moveAfterMerge(Directions.DOWN, false, -1, -1, '\0');
-        else if (!hasMerged) this.generateSpecificTile(tileRow, tileCol, tileLetter);
-        else this.moveAfterMerge(Directions.DOWN, true, tileRow, tileCol, tileLetter);
-
-    }
 
-    // Moves all tiles after merging has occurred to fill in gaps
-    private void moveAfterMerge(Directions direction, boolean isSimulation, int row, int col, char letter) {
-        // Perform the initial tile movement in the specified direction
-        switch (direction){
-            case LEFT:
-                this.moveLeft(this.board,false, false, false);
-                break;
-            case RIGHT:
-                this.moveRight(this.board, false, false, false);
-                break;
-            case UP:
-                this.moveUp(this.board, false, false, false);
-                break;
-            case DOWN:
-                this.moveDown(this.board, false, false, false);
-                break;
-            default:
-                throw new IllegalArgumentException("Invalid direction: " + direction);
+        @Override
+        public boolean update() {
+            double distance = Constants.GAME_STEP / Constants.MOVE_SPEED * Board.this.animationRate;
+            boolean allTilesSnapped = true; // Flag to track if all tiles have finished moving
+            for (int i = 0; i < this.tiles.length; i++) {
+                this.previous[i] = this.current[i];
+                double gap = this.target[i] - this.current[i];
+                if (Math.abs(gap) > distance) {
+                    this.current[i] += Math.signum(gap) * distance;
+                    allTilesSnapped = false; // At least one tile is still moving
+                } else this.current[i] = this.target[i];
+            }
+            if (!allTilesSnapped) return true;
+
+            // Snap the tiles into place and let the board move again
+            for (int i = 0; i < this.tiles.length; i++) this.draw(this.tiles[i], this.target[i]);
+            Board.this.slide = null;
+            Board.this.isAllowedToMove = true;
+            Board.this.movingTiles.clear();
+            Board.this.animation.commit();
+            this.onSnapped.run();
+            return false;
         }
 
-        if (isSimulation){
-            // Determine whether to animate horizontal or vertical movement
-            if (direction == Directions.LEFT || direction == Directions.RIGHT) {
-                this.animateHorizontalTileMovement(direction, true, row, col, letter);
-            } else this.animateVerticalTileMovement(direction, true, row, col, letter);
-
+        @Override
+        public void render(double alpha) {
+            Board.this.metrics.animationFrame();
+            Board.this.animation.frames++;
+            for (int i = 0; i < this.tiles.length; i++) {
+                this.draw(this.tiles[i], this.previous[i] + (this.current[i] - this.previous[i]) * alpha);
+            }
         }
-        else {
-            // Determine whether to animate horizontal or vertical movement
-            if (direction == Directions.LEFT || direction == Directions.RIGHT) {
-                this.animateHorizontalTileMovement(direction, true, false, false);
-            } else this.animateVerticalTileMovement(direction, true, false, false);
 
+        private void draw(Tile tile, double position) {
+            if (this.isHorizontal) tile.getTile().setLayoutX(position);
+            else tile.getTile().setLayoutY(position);
         }
     }
 }
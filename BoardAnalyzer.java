@@ -0,0 +1,76 @@
+import java.util.Arrays;
+
+// The BoardAnalyzer class proves cheaply, without searching, that a target word cannot be formed within some number
+// of actions (moves and tool uses). It relies on invariants of the game rules:
+// - Counting an 'A' as 1, a 'B' as 2, a 'C' as 4 and so on, a merge keeps the total value of the board (two tiles
+//   of one letter become one tile of the next), a new tile adds at most 2 and removing a tile only lowers it. So the
+//   value still missing for the letters of the word needs at least that much divided by 2 moves.
+// - Letters only go up, so a normal tile with a letter above the highest letter of the word can never be part of
+//   it. Such dead tiles can only merge with each other, which leaves at least one tile per set bit of their total
+//   value, and they must fit next to the word or be removed.
+// - A full board without merges can only change through removes or a blank tile's letter.
+// Blank tiles can take any letter, so each one can stand in for a letter of the word at the cost of typing it.
+// Letters wrap from 'Z' back to 'A' after a merge, so a board holding a 'Z' tile is not analyzed.
+
+public final class BoardAnalyzer {
+
+    // Lower bound returned when the word can never be formed
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private BoardAnalyzer() {}
+
+    // Returns a lower bound on the number of actions needed to form the target word, or UNREACHABLE if it can never
+    // be formed
+    public static int minActionsToWin(BoardState state, String targetWord, int removeCounter) {
+        if (state.checkForWin(targetWord)) return 0;
+
+        char highestLetter = 'A';
+        for (int i = 0; i < targetWord.length(); i++) highestLetter = (char) Math.max(highestLetter, targetWord.charAt(i));
+
+        // Add up the value of the tiles that can still grow into letters of the word, and of the dead ones
+        long usefulValue = 0;
+        long deadValue = 0;
+        int blanks = 0;
+        for (int cell = 0; cell < state.getCellCount(); cell++) {
+            char letter = state.getLetter(cell);
+            if (letter == '\0') continue;
+            if (letter == 'Z' && highestLetter < 'Z') return 1; // Can wrap around to 'A', so nothing is proven
+            if (state.isBlank(cell)) blanks++;
+            if (letter <= highestLetter) usefulValue += 1L << (letter - 'A');
+            else if (!state.isBlank(cell)) deadValue += 1L << (letter - 'A');
+        }
+
+        // A full board without merges stays as it is without removes or a blank tile
+        if (state.isDeadlocked() && removeCounter == 0 && blanks == 0) return UNREACHABLE;
+
+        // The dead tiles that cannot be merged away or removed must leave room for the word
+        int deadTiles = Math.max(0, Long.bitCount(deadValue) - removeCounter);
+        if (state.getCellCount() - deadTiles < targetWord.length()) return UNREACHABLE;
+
+        // Let blank tiles stand in for the most valuable letters, one typed letter each; a new blank tile appears
+        // whenever there is none on the board
+        long[] letterValues = new long[targetWord.length()];
+        long requiredValue = 0;
+        for (int i = 0; i < targetWord.length(); i++) {
+            letterValues[i] = 1L << (targetWord.charAt(i) - 'A');
+            requiredValue += letterValues[i];
+        }
+        Arrays.sort(letterValues);
+
+        int best = UNREACHABLE;
+        int wildcards = Math.min(Math.max(blanks, 1), targetWord.length());
+        for (int typed = 0; typed <= wildcards; typed++) {
+            if (typed > 0) requiredValue -= letterValues[letterValues.length - typed];
+            long missingValue = requiredValue - usefulValue;
+            int moves = missingValue > 0 ? (int) ((missingValue + 1) / 2) : 0;
+            best = Math.min(best, typed + moves);
+        }
+        return Math.max(1, best); // The word is not on the board yet, so at least one action is needed
+    }
+
+    // Checks whether the target word can be proven unreachable within the given number of actions
+    public static boolean isUnreachable(BoardState state, String targetWord, int removeCounter, int maxActions) {
+        int bound = minActionsToWin(state, targetWord, removeCounter);
+        return bound == UNREACHABLE || bound > maxActions;
+    }
+}
@@ -0,0 +1,193 @@
+import java.util.Arrays;
+import java.util.Random;
+
+// The BoardBatch class holds many boards of the same size in a structure-of-arrays layout: the packed cells (see
+// BoardState.getPackedCell) are stored cell by cell, so the same cell of every board sits side by side in memory.
+// This lets a BatchKernel apply a move to a whole batch with one vector instruction per cell and step instead of
+// one pass per board. Searches and simulations that play the same move on many independent boards load them into a
+// batch, move them together and read the results back.
+//
+// The kernel is chosen once: VectorBatchKernel when it has been compiled (it lives in the "vector" directory, outside
+// the game's sources), the jdk.incubator.vector module is available (run with --add-modules jdk.incubator.vector)
+// and the CPU has SIMD registers of at least 128 bits, ScalarBatchKernel otherwise or when -Dwordy.vector=false.
+//
+// Usage: java [--add-modules jdk.incubator.vector] BoardBatch [boards] [moves]   times random playouts with the
+// scalar and the selected kernel
+
+public class BoardBatch {
+
+    // Boards are stored in groups of this many so that a vector of any supported size never reads past the end
+    public static final int LANE_ALIGNMENT = 64;
+
+    private static final BatchKernel KERNEL = selectKernel(); // Kernel used by every batch
+
+    // Instance variables
+    private final int rows; // Number of rows of every board
+    private final int cols; // Number of columns of every board
+    private final int capacity; // Number of boards the batch can hold, a multiple of LANE_ALIGNMENT
+    private final byte[] cells; // Packed cells, the cells of every board for cell 0 first, then cell 1 and so on
+    private final int[][][] lines; // Cells of each line for each direction, from the leading edge back
+    private int size; // Number of boards in the batch
+
+    // Constructor: Creates an empty batch for boards of the given size
+    public BoardBatch(int rows, int cols, int capacity) {
+        this.rows = rows;
+        this.cols = cols;
+        this.capacity = (capacity + LANE_ALIGNMENT - 1) / LANE_ALIGNMENT * LANE_ALIGNMENT;
+        this.cells = new byte[rows * cols * this.capacity];
+        this.lines = new int[Directions.values().length][][];
+        for (Directions direction : Directions.values()) {
+            if (direction != Directions.INVALID) this.lines[direction.ordinal()] = this.buildLines(direction);
+        }
+    }
+
+    public static void main(String[] args) {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        BatchKernel[] kernels = KERNEL instanceof ScalarBatchKernel ? new BatchKernel[] {KERNEL}
+                : new BatchKernel[] {new ScalarBatchKernel(), KERNEL};
+        for (BatchKernel kernel : kernels) {
+            for (int round = 0; round < 3; round++) { // The first rounds warm up the JIT compiler
+                long startTime = System.nanoTime();
+                int wins = playRandomGames(kernel, boards, moves, new Random(round));
+                double seconds = (System.nanoTime() - startTime) / 1e9;
+                System.out.printf("%s kernel: %d boards x %d moves in %.3f s, %.0f moves/s, %d wins%n",
+                        kernel.getName(), boards, moves, seconds, boards * (double) moves / seconds, wins);
+            }
+        }
+    }
+
+    // Plays random moves on a batch of new games, spawning tiles as the game does, and returns how many were won
+    private static int playRandomGames(BatchKernel kernel, int boards, int moves, Random random) {
+        BoardBatch batch = new BoardBatch(GameSettings.NUMBER_OF_ROWS, GameSettings.NUMBER_OF_COLUMNS, boards);
+        String targetWord = GameSettings.pickTargetWord(random);
+        for (int i = 0; i < boards; i++) {
+            BoardState state = new BoardState(batch.rows, batch.cols);
+            state.placeStartingTiles(random);
+            batch.add(state);
+        }
+
+        boolean[] spawnNeeded = new boolean[batch.capacity];
+        boolean[] wins = new boolean[batch.capacity];
+        Directions[] directions = {Directions.LEFT, Directions.RIGHT, Directions.UP, Directions.DOWN};
+        for (int move = 0; move < moves; move++) {
+            kernel.move(batch, directions[random.nextInt(directions.length)], targetWord, spawnNeeded);
+            for (int board = 0; board < boards; board++) {
+                if (spawnNeeded[board]) batch.spawnRandomTile(board, random);
+            }
+        }
+        kernel.checkForWin(batch, targetWord, wins);
+        int won = 0;
+        for (int board = 0; board < boards; board++) if (wins[board]) won++;
+        return won;
+    }
+
+    // Chooses the vector kernel when it can run here, loading it by name so that the scalar kernel still works
+    // without the incubator module or the compiled vector kernel
+    private static BatchKernel selectKernel() {
+        if (GameSettings.BATCH_USE_VECTOR && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                BatchKernel kernel = (BatchKernel) Class.forName("VectorBatchKernel").getDeclaredConstructor()
+                        .newInstance();
+                if (kernel.isSupported()) return kernel;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.err.println("Vector kernel unavailable, using the scalar kernel: " + e);
+            }
+        }
+        return new ScalarBatchKernel();
+    }
+
+    // Lists the cells of each line that slides in the given direction, from its leading edge back
+    private int[][] buildLines(Directions direction) {
+        boolean isHorizontal = direction == Directions.LEFT || direction == Directions.RIGHT;
+        boolean isReversed = direction == Directions.RIGHT || direction == Directions.DOWN;
+        int lineCount = isHorizontal ? this.rows : this.cols;
+        int length = isHorizontal ? this.cols : this.rows;
+        int[][] lines = new int[lineCount][length];
+        for (int line = 0; line < lineCount; line++) {
+            for (int position = 0; position < length; position++) {
+                int along = isReversed ? length - 1 - position : position;
+                lines[line][position] = isHorizontal ? line * this.cols + along : along * this.cols + line;
+            }
+        }
+        return lines;
+    }
+
+    // Adds a copy of a board to the batch and returns its position
+    public int add(BoardState state) {
+        if (this.size == this.capacity) throw new IllegalStateException("Batch is full");
+        this.set(this.size, state);
+        return this.size++;
+    }
+
+    // Replaces the board at the given position with a copy of the given board
+    public void set(int board, BoardState state) {
+        for (int cell = 0; cell < this.getCellCount(); cell++) {
+            this.cells[cell * this.capacity + board] = (byte) state.getPackedCell(cell);
+        }
+    }
+
+    // Returns a copy of the board at the given position
+    public BoardState get(int board) {
+        BoardState state = new BoardState(this.rows, this.cols);
+        for (int cell = 0; cell < this.getCellCount(); cell++) {
+            state.setPackedCell(cell, this.cells[cell * this.capacity + board] & 0xFF);
+        }
+        return state;
+    }
+
+    // Copies every board of another batch of the same size and capacity
+    public void copyFrom(BoardBatch other) {
+        System.arraycopy(other.cells, 0, this.cells, 0, this.cells.length);
+        this.size = other.size;
+    }
+
+    // Empties the batch
+    public void clear() {
+        Arrays.fill(this.cells, (byte) 0);
+        this.size = 0;
+    }
+
+    // Spawns a random tile on one board the same way BoardState.spawnRandomTile does and returns its cell, or -1 if
+    // the board is full
+    public int spawnRandomTile(int board, Random random) {
+        boolean isFull = true;
+        boolean hasBlankTile = false;
+        for (int cell = 0; cell < this.getCellCount(); cell++) {
+            int packed = this.cells[cell * this.capacity + board];
+            if ((packed & 0x1F) == 0) isFull = false;
+            else if ((packed & 0x80) != 0) hasBlankTile = true;
+        }
+        if (isFull) return -1;
+
+        char tileLetter = random.nextInt(100) < 90 ? 'A' : 'B';
+        int cell;
+        do {
+            cell = random.nextInt(this.rows) * this.cols + random.nextInt(this.cols);
+        } while ((this.cells[cell * this.capacity + board] & 0x1F) != 0);
+        this.cells[cell * this.capacity + board] = (byte) ((tileLetter - 'A' + 1) | (hasBlankTile ? 0 : 0x80));
+        return cell;
+    }
+
+    // Moves every board with the selected kernel (see BatchKernel.move)
+    public void move(Directions direction, String targetWord, boolean[] spawnNeeded) {
+        KERNEL.move(this, direction, targetWord, spawnNeeded);
+    }
+
+    // Checks every board for the target word with the selected kernel
+    public void checkForWin(String targetWord, boolean[] wins) {
+        KERNEL.checkForWin(this, targetWord, wins);
+    }
+
+    // Name of the kernel every batch uses
+    public static String getKernelName() {return KERNEL.getName();}
+
+    // Important getters, used by the kernels
+    public int getRows() {return this.rows;}
+    public int getCols() {return this.cols;}
+    public int getCellCount() {return this.rows * this.cols;}
+    public int getCapacity() {return this.capacity;}
+    public int getSize() {return this.size;}
+    public byte[] getCells() {return this.cells;}
+    public int[][] getLines(Directions direction) {return this.lines[direction.ordinal()];}
+}
@@ -0,0 +1,301 @@
+import java.util.Arrays;
+import java.util.Random;
+
+// The BoardState class is a compact, JavaFX-free model of the game board. Every cell is stored as a letter, a lock
+// status and a blank-tile flag in flat arrays, and the spawn, win and loss rules mirror the ones in the Board class,
+// which slides and merges its tiles through the same LineKernel. It lets headless tools (such as the replayer) run the
+// game rules at full speed without creating any Tile or scene-graph objects.
+
+public class BoardState {
+
+    private static final Locks[] LOCKS = Locks.values(); // Lock statuses by ordinal, without copying values()
+
+    // Instance variables
+    private final int rows; // Number of rows on the board
+    private final int cols; // Number of columns on the board
+    private final char[] letters; // Letter held by each cell, or '\0' if the cell is empty
+    private final Locks[] locks; // Lock status of each cell
+    private final boolean[] blanks; // Flags marking the cells that hold a blank tile
+    private long hash; // Zobrist hash of the board (see Zobrist), updated by every change to a cell
+    private final LineKernel kernel; // Slide and merge traversal shared with Board
+    private int[] changes; // Moves or merges worked out by the kernel, before they are applied
+
+    // Constructor: Creates an empty board with the given dimensions
+    public BoardState(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.letters = new char[rows * cols];
+        this.locks = new Locks[rows * cols];
+        this.blanks = new boolean[rows * cols];
+        this.kernel = LineKernel.of(rows, cols);
+        Arrays.fill(this.locks, Locks.UNLOCKED);
+    }
+
+    // Creates a new BoardState by copying the state of another BoardState
+    public BoardState(BoardState other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.letters = other.letters.clone();
+        this.locks = other.locks.clone();
+        this.blanks = other.blanks.clone();
+        this.hash = other.hash;
+        this.kernel = other.kernel;
+    }
+
+    // Captures the current contents of a Tile grid
+    public static BoardState fromTiles(Tile[][] board) {
+        BoardState state = new BoardState(board.length, board[0].length);
+        for (int row = 0; row < state.rows; row++) {
+            for (int col = 0; col < state.cols; col++) {
+                Tile tile = board[row][col];
+                if (tile != null) {
+                    state.placeTile(row, col, tile.getLetter(), tile instanceof BlankTile);
+                    state.setLock(row, col, tile.getLockStatus());
+                }
+            }
+        }
+        return state;
+    }
+
+    // Places a new unlocked tile on the given cell
+    public void placeTile(int row, int col, char letter, boolean isBlank) {
+        int cell = this.index(row, col);
+        int before = this.getPackedCell(cell);
+        this.letters[cell] = letter;
+        this.locks[cell] = Locks.UNLOCKED;
+        this.blanks[cell] = isBlank;
+        this.rehash(cell, before);
+    }
+
+    // Removes the tile on the given cell
+    public void removeTile(int row, int col) {this.clearCell(this.index(row, col));}
+
+    // Places the starting tiles of a new game: one 'A' tile and one blank 'A' tile on two different random cells
+    public void placeStartingTiles(Random random) {
+        int first = random.nextInt(this.getCellCount());
+        int second;
+        do second = random.nextInt(this.getCellCount()); while (second == first);
+        this.placeTile(first / this.cols, first % this.cols, 'A', false);
+        this.placeTile(second / this.cols, second % this.cols, 'A', true);
+    }
+
+    // Spawns a random tile the same way Board.generateNewTile does and returns its cell index, or -1 if the board
+    // is full
+    public int spawnRandomTile(Random random) {
+        if (this.isFull()) return -1;
+
+        // Randomly choose a tile letter ('A' 90% of the time, 'B' 10% of the time)
+        char tileLetter = random.nextInt(100) < 90 ? 'A' : 'B';
+
+        // Find a random, unoccupied position on the board
+        int tileRow, tileCol;
+        do {
+            tileRow = random.nextInt(this.rows);
+            tileCol = random.nextInt(this.cols);
+        } while (!this.isEmpty(tileRow, tileCol));
+
+        // A blank tile is spawned whenever the board has none left
+        this.placeTile(tileRow, tileCol, tileLetter, !this.hasBlankTile());
+        return this.index(tileRow, tileCol);
+    }
+
+    // Slides every tile that is not double locked as far as possible in the given direction
+    public void slide(Directions direction) {
+        int[] moves = this.getChanges();
+        int count = this.kernel.slide(direction, this.letters, this.locks, moves);
+        for (int i = 0; i < 2 * count; i += 2) this.moveCell(moves[i], moves[i + 1]);
+    }
+
+    // Merges adjacent unlocked tiles with the same letter in the given direction and returns whether any merged
+    public boolean merge(Directions direction) {
+        int[] merges = this.getChanges();
+        int count = this.kernel.merge(direction, this.letters, this.locks, merges);
+        for (int i = 0; i < 2 * count; i += 2) {
+            int current = merges[i];
+            // Increment the letter, wrapping around to 'A' after 'Z'
+            int before = this.getPackedCell(current);
+            this.letters[current] = (this.letters[current] == 'Z') ? 'A' : (char) (this.letters[current] + 1);
+            this.rehash(current, before);
+            this.clearCell(merges[i + 1]);
+        }
+        return count > 0;
+    }
+
+    // Plays a full player move: slide, then merge and slide again unless the slide already formed the target word.
+    // Returns whether a new tile should be spawned afterwards.
+    public boolean move(Directions direction, String targetWord) {
+        this.slide(direction);
+        if (this.checkForWin(targetWord)) return false;
+        if (this.merge(direction)) this.slide(direction);
+        return true;
+    }
+
+    // Checks for a win by scanning every row (left to right) and column (top to bottom) once for the target word
+    public boolean checkForWin(String targetWord) {
+        int[] failureTable = buildFailureTable(targetWord);
+        for (int row = 0; row < this.rows; row++) {
+            if (this.isWordInLine(this.index(row, 0), 1, this.cols, targetWord, failureTable)) return true;
+        }
+        for (int col = 0; col < this.cols; col++) {
+            if (this.isWordInLine(col, this.cols, this.rows, targetWord, failureTable)) return true;
+        }
+        return false;
+    }
+
+    // Checks if the game is lost, using the same conditions as Board.checkForLoss
+    public boolean checkForLoss(int removeCounter) {
+        return this.isDeadlocked() && removeCounter > 0;
+    }
+
+    // Checks whether the board is full and no tile can merge with its right or bottom neighbor, so no move can
+    // change it any more
+    public boolean isDeadlocked() {
+        if (!this.isFull()) return false;
+        for (int row = 0; row < this.rows; row++) {
+            for (int col = 0; col < this.cols; col++) {
+                char letter = this.letters[this.index(row, col)];
+                if (col < this.cols - 1 && letter == this.letters[this.index(row, col + 1)]) return false;
+                if (row < this.rows - 1 && letter == this.letters[this.index(row + 1, col)]) return false;
+            }
+        }
+        return true;
+    }
+
+    // Scans one line in a single pass for the target word, using its failure table to avoid re-reading letters
+    private boolean isWordInLine(int start, int stride, int length, String targetWord, int[] failureTable) {
+        int matched = 0; // Number of letters of the target word matched so far
+        for (int position = 0; position < length; position++) {
+            char letter = this.letters[start + position * stride];
+            while (matched > 0 && targetWord.charAt(matched) != letter) matched = failureTable[matched - 1];
+            if (targetWord.charAt(matched) == letter) matched++;
+            if (matched == targetWord.length()) return true;
+        }
+        return false;
+    }
+
+    // Builds the failure table used to scan a line for a word in one pass (Knuth-Morris-Pratt): for each prefix of
+    // the word, the length of its longest proper prefix that is also a suffix
+    public static int[] buildFailureTable(String word) {
+        int[] failureTable = new int[word.length()];
+        int matched = 0;
+        for (int i = 1; i < word.length(); i++) {
+            while (matched > 0 && word.charAt(i) != word.charAt(matched)) matched = failureTable[matched - 1];
+            if (word.charAt(i) == word.charAt(matched)) matched++;
+            failureTable[i] = matched;
+        }
+        return failureTable;
+    }
+
+    // Moves the tile on one cell to another, empty cell
+    private void moveCell(int from, int to) {
+        int before = this.getPackedCell(to);
+        this.letters[to] = this.letters[from];
+        this.locks[to] = this.locks[from];
+        this.blanks[to] = this.blanks[from];
+        this.rehash(to, before);
+        this.clearCell(from);
+    }
+
+    // Empties a single cell
+    private void clearCell(int cell) {
+        this.hash ^= Zobrist.cellKey(cell, this.getPackedCell(cell));
+        this.letters[cell] = '\0';
+        this.locks[cell] = Locks.UNLOCKED;
+        this.blanks[cell] = false;
+    }
+
+    // Buffer receiving the changes worked out by the line kernel, created on the first move
+    private int[] getChanges() {
+        if (this.changes == null) this.changes = this.kernel.newBuffer();
+        return this.changes;
+    }
+
+    // Packs a cell into one byte: letter code (1-26) in the low 5 bits, lock status in bits 5-6, blank flag in bit 7
+    public int getPackedCell(int cell) {
+        if (this.letters[cell] == '\0') return 0;
+        return (this.letters[cell] - 'A' + 1) | (this.locks[cell].ordinal() << 5) | (this.blanks[cell] ? 0x80 : 0);
+    }
+
+    // Restores a cell from its packed one-byte form
+    public void setPackedCell(int cell, int packed) {
+        if ((packed & 0x1F) == 0) {
+            this.clearCell(cell);
+            return;
+        }
+        int before = this.getPackedCell(cell);
+        this.letters[cell] = (char) ('A' + (packed & 0x1F) - 1);
+        this.locks[cell] = LOCKS[(packed >> 5) & 0x3];
+        this.blanks[cell] = (packed & 0x80) != 0;
+        this.rehash(cell, before);
+    }
+
+    // Updates the hash after a cell changed, XORing out the key of what it held before and XORing in the new one
+    private void rehash(int cell, int packedBefore) {
+        this.hash ^= Zobrist.cellKey(cell, packedBefore) ^ Zobrist.cellKey(cell, this.getPackedCell(cell));
+    }
+
+    // Important setters and getters
+    public void setLetter(int row, int col, char letter) {
+        int cell = this.index(row, col);
+        int before = this.getPackedCell(cell);
+        this.letters[cell] = letter;
+        this.rehash(cell, before);
+    }
+    public void setLock(int row, int col, Locks lock) {
+        int cell = this.index(row, col);
+        int before = this.getPackedCell(cell);
+        this.locks[cell] = lock;
+        this.rehash(cell, before);
+    }
+    public long getZobristHash() {return this.hash;}
+    public int index(int row, int col) {return row * this.cols + col;}
+    public int getRows() {return this.rows;}
+    public int getCols() {return this.cols;}
+    public int getCellCount() {return this.letters.length;}
+    public char getLetter(int row, int col) {return this.letters[this.index(row, col)];}
+    public char getLetter(int cell) {return this.letters[cell];}
+    public Locks getLock(int row, int col) {return this.locks[this.index(row, col)];}
+    public boolean isBlank(int row, int col) {return this.blanks[this.index(row, col)];}
+    public boolean isBlank(int cell) {return this.blanks[cell];}
+    public boolean isEmpty(int row, int col) {return this.letters[this.index(row, col)] == '\0';}
+
+    // Checks whether there is a blank tile anywhere on the board
+    public boolean hasBlankTile() {
+        for (int cell = 0; cell < this.blanks.length; cell++) {
+            if (this.blanks[cell] && this.letters[cell] != '\0') return true;
+        }
+        return false;
+    }
+
+    // Checks whether every cell holds a tile
+    public boolean isFull() {
+        for (char letter : this.letters) {
+            if (letter == '\0') return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof BoardState)) return false;
+        BoardState state = (BoardState) other;
+        return this.rows == state.rows && this.cols == state.cols && Arrays.equals(this.letters, state.letters)
+                && Arrays.equals(this.locks, state.locks) && Arrays.equals(this.blanks, state.blanks);
+    }
+
+    @Override
+    public int hashCode() {return Long.hashCode(this.hash);}
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < this.rows; row++) {
+            for (int col = 0; col < this.cols; col++) {
+                char letter = this.letters[this.index(row, col)];
+                text.append(letter == '\0' ? '.' : letter);
+            }
+            if (row < this.rows - 1) text.append('/');
+        }
+        return text.toString();
+    }
+}
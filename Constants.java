@@ -1,17 +1,11 @@
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
-import java.util.ArrayList;
-import java.util.Arrays;
 
-// This Constants class contains all constant values used across the application.
-// Constants include configuration values for layout, fonts, colors, and game settings.
+// This Constants class contains all constant values used by the user interface.
+// Constants include layout, fonts, and colors; game rules and tool settings are in GameSettings, which has no JavaFX.
 public class Constants {
 
-    // Word Bank Constants
-    public static final ArrayList<String> WORD_BANK = new ArrayList<>(Arrays.asList(
-            "BAD", "CAB", "CAD", "ABC", "ACD", "ABD", "BDC", "DAB", "BCA", "CBA", "DAC", "ABB", "BAA", "CBD"));
-
     // Screen Dimensions
     public static final int SCREEN_WIDTH = 800;
     public static final int SCREEN_HEIGHT = 800;
@@ -36,7 +30,8 @@ public class Constants {
     public static final Font NEW_GAME_FONT = Font.font("Arial", FontWeight.BOLD, 20);
     public static final Font QUIT_BUTTON_FONT = Font.font("Arial", FontWeight.BOLD, 15);
     public static final Font YOUR_WORD_FONT = Font.font("Arial", FontWeight.EXTRA_BOLD, 40);
-    public static final Font WORD_TEXT_FONT = Font.font("Arial", FontWeight.EXTRA_BOLD, 50);
+    public static final Font WORD_TEXT_FONT = Font.font("Arial", FontWeight.EXTRA_BOLD,
+            50 * Math.min(1, 5.0 / GameSettings.WORD_LENGTH)); // Shrinks so long words still fit the word box
 
     // Layout Coordinates
     public static final int LOGO_X = 75;
@@ -68,35 +63,27 @@ public class Constants {
     public static final int WORD_BOX_HEIGHT = 70;
     public static final int WORD_BOX_ARC = 20;
 
-    // Row Boundaries
-    public static final int[] ROW_1 = {220, 315};    // Row 1 is between 220 and 315 in Y coordinate
-    public static final int[] ROW_2 = {330, 425};  // Row 2 is between 330 and 425 in Y coordinate
-    public static final int[] ROW_3 = {440, 535};  // Row 3 is between 440 and 535 in Y coordinate
-    public static final int[] ROW_4 = {550, 645};  // Row 4 is between 550 and 645 in Y coordinate
-
-    // Column Boundaries
-    public static final int[] COL_1 = {160, 260};    // Column 1 is between 160 and 260 in X coordinate
-    public static final int[] COL_2 = {280, 380};  // Column 2 is between 280 and 380 in X coordinate
-    public static final int[] COL_3 = {400, 500};  // Column 3 is between 400 and 500 in X coordinate
-    public static final int[] COL_4 = {520, 620};  // Column 4 is between 520 and 620 in X coordinate
-
     // Rounded Corner Radii
     public static final int SCORE_BOX_ARC = 20;
     public static final int REMOVE_BOX_ARC = 20;
 
-    // Game Settings
-    public static final int NUMBER_OF_REMOVES = 3; // Number of removes allowed
+    // Button Sizes
     public static final int NEW_GAME_WIDTH = 150;  // Width of new game button
     public static final int NEW_GAME_HEIGHT = 50;  // Height of new game button
     public static final double QUIT_BUTTON_WIDTH = 80;  // Width of quit button
     public static final double QUIT_BUTTON_HEIGHT = 30; // Height of quit button
 
-    public static final int NUMBER_OF_ROWS = 4;
-    public static final int NUMBER_OF_COLUMNS = 4;
-
-    // Tile Measurements
-    public static final int TILE_WIDTH = 120;
-    public static final int TILE_HEIGHT = 110;
+    // Tile Measurements (the board always covers the same area, so tiles shrink as the board grows)
+    public static final int BOARD_WIDTH = 480;
+    public static final int BOARD_HEIGHT = 440;
+    public static final int TILE_WIDTH = BOARD_WIDTH / GameSettings.NUMBER_OF_COLUMNS;
+    public static final int TILE_HEIGHT = BOARD_HEIGHT / GameSettings.NUMBER_OF_ROWS;
+    public static final double TILE_SCALE = Math.min(4.0 / GameSettings.NUMBER_OF_ROWS,
+            4.0 / GameSettings.NUMBER_OF_COLUMNS); // 1 on a 4x4 board
+    public static final double TILE_X_INSET = 7.4 * TILE_SCALE; // Horizontal gap between a grid cell and its tile
+    public static final double TILE_Y_INSET = 2.98 * TILE_SCALE; // Vertical adjustment of a tile within its cell
+    public static final double GRID_ROW_SHIFT = 10 * TILE_SCALE; // Vertical shift of the grid cells above the tiles
+    public static final double COL_CLICK_MARGIN = 10 * TILE_SCALE; // Unclickable margin on each side of a column
 
     // Offsets for Tile Positioning
     public static final int X_OFFSET = 150;
@@ -111,19 +98,21 @@ public class Constants {
     public static final String DOUBLELOCKED_BORDER_COLOR = "#f9f2d7";
 
     // Tile Border Width
-    public static final int TILE_BORDER_WIDTH = 15;
-    public static final int LOCK_BORDER_WIDTH = 8;
+    public static final int TILE_BORDER_WIDTH = (int) Math.round(15 * TILE_SCALE);
+    public static final int LOCK_BORDER_WIDTH = (int) Math.round(8 * TILE_SCALE);
 
     // Tile Text Properties
-    public static final Font TILE_FONT = Font.font("Arial", FontWeight.BOLD, 50);
+    public static final Font TILE_FONT = Font.font("Arial", FontWeight.BOLD, 50 * TILE_SCALE);
     public static final String TILE_TEXT_COLOR = "white";
     public static final String BLANK_TILE_TEXT_COLOR = "#787c80";
 
     // Game Animation Settings
-    public static final double MOVE_SPEED = 0.4;
+    public static final int GAME_STEP = 10; // Milliseconds of game time in each fixed step of the game loop
+    public static final int GAME_MAX_FRAME = 250; // Milliseconds of game time a single frame catches up at most
+    public static final double MOVE_SPEED = 0.4; // Milliseconds a sliding tile takes to move one pixel
     public static final int TILE_SPEED = 180;
-    public static final int UPDATE_SPEED = 10;
     public static final double CLICK_SPEED = 0.5;
+    public static final double BLANK_TILE_TYPING_TIME = 3; // Seconds a clicked blank tile accepts a new letter
 
     // Special Tile Colors
     public static final String TARGET_LETTER_COLOR = "#c8b450";
@@ -142,7 +131,6 @@ public class Constants {
     public static final Font END_TEXT_FONT = Font.font("Arial", FontWeight.BOLD, 20); // Font for the text
     public static final double END_TEXT_X = 354.7; // X-coordinate for the text
     public static final int END_TEXT_Y = 180; // Y-coordinate for the text
-    public static final int POINTS_PER_MOVE = 50;
 
     // No Solution Text Font
     public static final Font NO_SOLUTION_FONT = Font.font("Arial", FontWeight.BOLD, 18); // Font for "No Solution" text
@@ -161,9 +149,40 @@ public class Constants {
     public static final int SOLVE_BUTTON_X = 670;
     public static final int SOLVE_BUTTON_Y = 700;
 
+    // Hint Button Layout
+    public static final int HINT_BUTTON_X = 670;
+    public static final int HINT_BUTTON_Y = 640;
+    public static final int HINT_TEXT_X = 670;
+    public static final int HINT_TEXT_Y = 628;
+    public static final Font HINT_TEXT_FONT = Font.font("Arial", FontWeight.BOLD, 18);
+
+    // Solution Playback Text (speed, or paused)
+    public static final int PLAYBACK_TEXT_X = 670;
+    public static final int PLAYBACK_TEXT_Y = 772;
+    public static final Font PLAYBACK_TEXT_FONT = Font.font("Arial", FontWeight.BOLD, 16);
+
+    // Performance Overlay (toggled with F3)
+    public static final boolean SHOW_OVERLAY = Boolean.getBoolean("wordy.overlay"); // Whether the overlay is shown from the start
+    public static final int OVERLAY_REFRESH = 500; // Milliseconds between two updates of the overlay's figures
+    public static final int OVERLAY_X = 5;
+    public static final int OVERLAY_Y = 170;
+    public static final int OVERLAY_WIDTH = 140;
+    public static final int OVERLAY_HEIGHT = 126;
+    public static final int OVERLAY_ARC = 10;
+    public static final int OVERLAY_TEXT_INSET = 8;
+    public static final String OVERLAY_COLOR = "#3c3a32";
+    public static final double OVERLAY_OPACITY = 0.85;
+    public static final String OVERLAY_TEXT_COLOR = "#f9f6f2";
+    public static final Font OVERLAY_FONT = Font.font("Monospaced", 11);
+
     // Updates the Score
     public static int updateScore(int score, Text scoreText) {
-        score += POINTS_PER_MOVE; // Increase the score by a fixed amount
+        return addPoints(score, GameSettings.POINTS_PER_MOVE, scoreText); // Increase the score by a fixed amount
+    }
+
+    // Adds points to the Score
+    public static int addPoints(int score, int points, Text scoreText) {
+        score += points;
         scoreText.setText("SCORE \n" + score); // Update the score display
         return score;
     }
@@ -176,22 +195,24 @@ public class Constants {
         return removeCounter;
     }
 
-    // Method to determine the row based on the Y-coordinate
+    // Method to determine the row based on the Y-coordinate (the bottom border of each row is not clickable)
     public static int getRowForYCoordinate(double y) {
-        if (y >= ROW_1[0] && y < ROW_1[1]) return 0; // Row 1
-        else if (y >= ROW_2[0] && y < ROW_2[1]) return 1; // Row 2
-        else if (y >= ROW_3[0] && y < ROW_3[1]) return 2; // Row 3
-        else if (y >= ROW_4[0] && y < ROW_4[1]) return 3; // Row 3
-        else return -1; // Invalid row
+        double offset = y - Y_OFFSET;
+        int row = (int) Math.floor(offset / TILE_HEIGHT);
+        if (offset < 0 || row >= GameSettings.NUMBER_OF_ROWS
+                || offset - row * TILE_HEIGHT >= TILE_HEIGHT - TILE_BORDER_WIDTH)
+            return -1; // Invalid row
+        return row;
     }
 
-    // Method to determine the column based on the X-coordinate
+    // Method to determine the column based on the X-coordinate (the margins on each side are not clickable)
     public static int getColForXCoordinate(double x) {
-        if (x >= COL_1[0] && x < COL_1[1]) return 0; // Column 1
-        else if (x >= COL_2[0] && x < COL_2[1]) return 1; // Column 2
-        else if (x >= COL_3[0] && x < COL_3[1]) return 2; // Column 3
-        else if (x >= COL_4[0] && x < COL_4[1]) return 3; // Column 4
-        else return -1; // Invalid column
+        double offset = x - X_OFFSET - COL_CLICK_MARGIN;
+        int col = (int) Math.floor(offset / TILE_WIDTH);
+        if (offset < 0 || col >= GameSettings.NUMBER_OF_COLUMNS
+                || offset - col * TILE_WIDTH >= TILE_WIDTH - 2 * COL_CLICK_MARGIN)
+            return -1; // Invalid column
+        return col;
     }
 
 }
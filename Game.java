@@ -1,16 +1,19 @@
-import javafx.animation.KeyFrame;
-import javafx.animation.PauseTransition;
-import javafx.animation.Timeline;
+import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
-import javafx.util.Duration;
 import javafx.util.Pair;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 
@@ -18,13 +21,13 @@ import java.util.concurrent.atomic.AtomicInteger;
 // It is responsible for initializing the game board, tracking the player's score,
 // handling user inputs, updating the game UI, and determining the win or loss conditions.
 
- public class Game {
+ public final class Game {
 
     // Instance variables
     private final Pane gamePane; // Pane for game UI components, holds the layout and visual elements of the game
     private final Board gameBoard; // Game board, an object that manages the board logic and tiles
     private final Tile[][] board; // Game board represented as a 2D array of Tiles
-    private Timeline updateTimeline;  // A timeline that updates the game state at regular intervals
+    private GameLoop.Updatable updater; // Updates the game state on every step of the game loop
     private final Text removeText; // UI element to display the number of remaining tile removals available
     private final Text scoreText; // UI element to display the current score
     private Text targetWordText;  // UI element to display the target word the player is trying to form
@@ -33,13 +36,34 @@ import java.util.concurrent.atomic.AtomicInteger;
     private int score; // Current score of the player
     private int removeCounter; // Counter for tile removal actions
     private boolean gameIsWon, gameIsLost, hasBeenSolved; // Flags for tracking game win/loss status
+    private final GameRecorder recorder; // Recorder that logs every game as a replay
+    private long seed; // Seed from which the target word and tiles of the current game are generated
+    private Random random; // Random number generator seeded with the game seed
+    private final SnapshotStore snapshotStore; // Store that saves the game so it can be resumed after a restart
+    private boolean hasUnsettledChanges; // Flag indicating that the game changed since it last settled
+    private final WordDictionary dictionary; // Loaded word dictionary, or null if the game only uses the word bank
+    private final List<String> targetWords; // Words that can be picked as the target word, or empty to use the word bank
+    private Set<Long> scoredWords; // Dictionary words on the board that have already scored points
+    private final HintWorker hintWorker; // Searches hints in the background, keeping the search between hints
+    private Text hintText; // UI element showing the last hint
+    private final PuzzlePack puzzles; // Daily puzzles to play instead of random games, or null
+    private PuzzlePack.Puzzle puzzle; // The puzzle being played, or null
+    private final UndoHistory history; // Positions before the player's last actions, for undo and redo
+    private final GameMetrics metrics; // Counters and timings published for monitoring
+    private final SpeculativeSolver presolver; // Background solve of the position while the player is idle
+    private SolveGame solveGame; // Solution being shown, or null
+    private final AutoPlayer autoPlayer; // Bot that plays the game by itself in autoplay mode
+    private boolean isAutoplay; // Whether the bot plays instead of the player (toggled with F2)
+    private int autoplayMoves; // Moves of the bot's current game already scored
+    private GameLoop.Timer autoplayRestart; // Start of a new game once the bot's game is over, or null
+    private GameLoop.Timer clickTimeout; // End of the wait for a second click on a tile, or null
 
 
     // Constructor: Initializes the game, UI components, and board state
     public Game(Pane pane, Text scoreText, Text removeText) {
         // Initialize game pane and state
         this.gamePane = pane;
-        this.removeCounter = Constants.NUMBER_OF_REMOVES; // Allowable tile removals
+        this.removeCounter = GameSettings.NUMBER_OF_REMOVES; // Allowable tile removals
         this.score = 0; // Start with a score of 0
         this.gameIsWon = false; // Game starts in a non-won state
         this.gameIsLost = false; // Game starts in a non-lost state
@@ -47,14 +71,45 @@ import java.util.concurrent.atomic.AtomicInteger;
         this.clickCount = new AtomicInteger(0);
         this.scoreText = scoreText;
         this.removeText = removeText;
+        this.recorder = new GameRecorder();
+        this.snapshotStore = new SnapshotStore(Paths.get(GameSettings.SNAPSHOT_FILE));
+        this.dictionary = loadDictionary();
+        this.targetWords = WordDifficulty.selectBand(this.dictionary == null ? GameSettings.getWordBankWords()
+                : this.dictionary.findWords(GameSettings.WORD_LENGTH, GameSettings.WORD_LETTERS));
+        this.puzzles = loadPuzzles();
+        this.history = new UndoHistory(GameSettings.UNDO_LIMIT);
+        this.metrics = GameMetrics.get();
+        this.presolver = new SpeculativeSolver();
+        this.hintWorker = new HintWorker();
+        this.autoPlayer = new AutoPlayer(this::showAutoplayFrame);
+        this.isAutoplay = GameSettings.AUTOPLAY;
 
         // Initialize game board (2D array of tiles)
-        this.board = new Tile[Constants.NUMBER_OF_ROWS][Constants.NUMBER_OF_COLUMNS];
-
-        // Set up the game with a random word and starting tiles
-        this.generateRandomWord();
+        this.board = new Tile[GameSettings.NUMBER_OF_ROWS][GameSettings.NUMBER_OF_COLUMNS];
+
+        // Resume the saved game if there is one, otherwise set up the day's puzzle or a new game with a random word
+        // and starting tiles
+        GameSnapshot snapshot = this.loadSnapshot();
+        if (snapshot != null) this.restoreGameState(snapshot);
+        else if (this.puzzles != null) this.choosePuzzle();
+        else {
+            this.generateSeed();
+            this.generateRandomWord();
+        }
+        this.hintWorker.reset(this.targetWord);
         this.gameBoard = new Board(this.gamePane, this.board, this.targetWord);
-        this.gameBoard.generateStartingTiles();
+        this.gameBoard.setRecorder(this.recorder);
+        this.gameBoard.startUpdates();
+        if (snapshot != null) {
+            this.gameBoard.setSeed(this.random.nextLong());
+            this.gameBoard.restoreTiles(snapshot.getState());
+        } else if (this.puzzles != null) this.placePuzzleTiles();
+        else {
+            this.gameBoard.setSeed(this.random.nextLong());
+            this.gameBoard.generateStartingTiles();
+        }
+        this.scoredWords = this.findDictionaryWords();
+        this.startRecording();
 
         // Start the game loop to periodically update the game state
         this.updateGame();
@@ -65,11 +120,11 @@ import java.util.concurrent.atomic.AtomicInteger;
         this.gamePane.setOnMouseClicked(this::handleMouseClick);
     }
 
-    // Updates the game state at regular intervals
+    // Updates the game state on every step of the game loop
     private void updateGame() {
-        this.updateTimeline = new Timeline(new KeyFrame(Duration.millis(Constants.UPDATE_SPEED), event -> {
-            for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-                for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
+        this.updater = () -> {
+            for (int row = 0; row < GameSettings.NUMBER_OF_ROWS; row++) {
+                for (int col = 0; col < GameSettings.NUMBER_OF_COLUMNS; col++) {
                     Tile tile = this.board[row][col];
                     if (tile != null) {
                         tile.setRow(row);
@@ -77,38 +132,221 @@ import java.util.concurrent.atomic.AtomicInteger;
                 }
             }
 
-            // Check if the player has won or lost
-            if (this.gameBoard.checkForWin(this.board, this.targetWord).getKey()) {
-                this.gameIsWon(this.gameBoard.checkForWin(this.board, this.targetWord).getValue());
+            this.checkForGameOver();
+
+            // Score new dictionary words and save a snapshot once the last change has fully settled. The bot's games
+            // are not saved, so a restart resumes the player's game.
+            if (this.hasUnsettledChanges && this.gameBoard.isAllowedToMove() && !this.gameIsWon && !this.gameIsLost) {
+                this.scoreDictionaryWords();
+                if (this.isAutoplay) this.hasUnsettledChanges = false;
+                else this.saveSnapshot();
             }
-            if (this.gameBoard.checkForLoss(this.board, this.removeCounter)) this.gameIsLost();
 
-        }));
+            // Hand the game over to the bot once the tiles have settled, in autoplay mode
+            if (this.isAutoplay && !this.autoPlayer.isPlaying() && this.gameBoard.isAllowedToMove() && !this.gameIsWon
+                    && !this.gameIsLost && !this.hasBeenSolved
+                    && (this.autoplayRestart == null || !this.autoplayRestart.isPending())) {
+                this.startAutoplay();
+            }
 
-        this.updateTimeline.setCycleCount(Timeline.INDEFINITE);
-        this.updateTimeline.play();
+            // Solve the position in the background once the tiles have settled, so the Solve button answers at once
+            long hash = this.gameBoard.getZobristHash();
+            if (GameSettings.SOLVER_PRESOLVE && !this.isAutoplay && this.gameBoard.isAllowedToMove() && !this.gameIsWon && !this.gameIsLost
+                    && !this.hasBeenSolved && !this.presolver.isSolving(hash, this.removeCounter)) {
+                this.presolver.start(BoardState.fromTiles(this.board), hash, this.removeCounter, this.targetWord);
+            }
+            return true;
+        };
+        GameLoop.get().add(this.updater);
     }
 
     public void solveGame(){
-        if (!this.hasBeenSolved &&!this.gameIsWon && !this.gameIsLost) {
-            //Unlock all tiles
-            for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++){
-                for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++){
-                    if (this.board[row][col] != null) this.board[row][col].setLock(Locks.UNLOCKED);
-                }
-            }
-
+        if (!this.hasBeenSolved &&!this.gameIsWon && !this.gameIsLost && !this.isAutoplay) {
             // Remove all input listeners
             this.gamePane.setOnKeyPressed(null);
             this.gamePane.setOnMouseClicked(null);
 
             this.hasBeenSolved = true;
-            new SolveGame(this.gamePane, this.board, this.targetWord);
+            this.clearHint();
+            long startTime = System.nanoTime();
+            BoardState state = BoardState.fromTiles(this.board);
+            GameSolver.Solution solution = this.presolver.takeSolution(state, this.removeCounter);
+            if (solution == null) {
+                solution = new GameSolver(this.targetWord, GameSettings.NUMBER_OF_ROWS, GameSettings.NUMBER_OF_COLUMNS)
+                        .solve(state, this.removeCounter, () -> false);
+            }
+            this.metrics.solved(System.nanoTime() - startTime, solution.getStatesExplored());
+            this.solveGame = new SolveGame(this.gamePane, this.board, this.targetWord, this.recorder, solution,
+                    this::removeTileAt, this::applySolvedPosition);
+        }
+    }
+
+    // Shows the next best move for the current board. The hint search is kept between hints, so later hints in the
+    // same game only extend it instead of searching again from scratch. The search runs in the background and the
+    // hint shows once it is found, unless the board has changed by then.
+    public void showHint() {
+        if (!this.canShowHint()) return;
+        long hash = this.gameBoard.getZobristHash();
+        if (this.hintWorker.isSearching(hash)) return;
+        this.setHintText("...");
+        this.hintWorker.request(BoardState.fromTiles(this.board), hash, GameSettings.HINT_MAX_STATES, hint -> {
+            if (!this.canShowHint() || this.gameBoard.getZobristHash() != hash) return;
+            if (hint == null) this.setHintText("NO HINT");
+            else if (hint.getMovesToWin() == -1) this.setHintText(hint.getDirection().toString());
+            else this.setHintText(hint.getDirection() + " (" + hint.getMovesToWin() + ")");
+        });
+    }
+
+    // Hints are only given while the player can move
+    private boolean canShowHint() {
+        return !this.gameIsWon && !this.gameIsLost && !this.hasBeenSolved && !this.isAutoplay
+                && this.gameBoard.isAllowedToMove();
+    }
+
+    // Shows the given hint text, creating the UI element on first use
+    private void setHintText(String text) {
+        if (this.hintText == null) {
+            this.hintText = new Text();
+            this.hintText.setFill(Color.web(Constants.LOGO_COLOR));
+            this.hintText.setFont(Constants.HINT_TEXT_FONT);
+            this.hintText.setLayoutX(Constants.HINT_TEXT_X);
+            this.hintText.setLayoutY(Constants.HINT_TEXT_Y);
+            this.gamePane.getChildren().add(this.hintText);
         }
+        this.hintText.setText(text);
+    }
+
+    // Removes the last hint from the screen and stops the search of a hint once the board has changed
+    private void clearHint() {
+        this.hintWorker.cancel();
+        if (this.hintText != null) this.hintText.setText("");
+    }
+
+    // Picks a new seed for the next game so that its word and tiles can be reproduced from the replay log
+    private void generateSeed() {
+        this.seed = new Random().nextLong();
+        this.random = new Random(this.seed);
+    }
+
+    // Loads the daily puzzle pack named in the settings, if any, ignoring it if it was made for a different board size
+    private static PuzzlePack loadPuzzles() {
+        if (GameSettings.PUZZLE_FILE == null) return null;
+        try {
+            PuzzlePack puzzles = PuzzlePack.load(Paths.get(GameSettings.PUZZLE_FILE));
+            if (puzzles.getRows() == GameSettings.NUMBER_OF_ROWS
+                    && puzzles.getCols() == GameSettings.NUMBER_OF_COLUMNS) {
+                return puzzles;
+            }
+            System.err.println("The puzzle pack is for another board size, playing random games");
+        } catch (IOException e) {
+            System.err.println("Could not load puzzle pack, playing random games: " + e.getMessage());
+        }
+        return null;
+    }
+
+    // Picks the puzzle of the day and shows its word
+    private void choosePuzzle() {
+        this.puzzle = this.puzzles.getPuzzleOfDay(LocalDate.now());
+        this.seed = this.puzzle.getSeed();
+        this.random = new Random(this.seed);
+        this.targetWord = this.puzzle.getTargetWord();
+        this.showTargetWord();
+    }
+
+    // Places the starting tiles of the puzzle and seeds the new tiles the way it was graded
+    private void placePuzzleTiles() {
+        this.gameBoard.setSeed(this.puzzle.getSeed());
+        this.gameBoard.restoreTiles(this.puzzle.getStart());
+    }
+
+    // Loads the word dictionary named in the settings, if any
+    private static WordDictionary loadDictionary() {
+        if (GameSettings.DICTIONARY_FILE == null) return null;
+        try {
+            return WordDictionary.load(Paths.get(GameSettings.DICTIONARY_FILE));
+        } catch (IOException e) {
+            System.err.println("Could not load dictionary, using the word bank: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Scans the board for dictionary words, identifying each one by the word, the line it is in and where it ends
+    private Set<Long> findDictionaryWords() {
+        Set<Long> words = new HashSet<>();
+        if (this.dictionary == null) return words;
+        this.dictionary.scanBoard(BoardState.fromTiles(this.board), GameSettings.DICTIONARY_MIN_WORD_LENGTH,
+                (wordId, line, endPosition) -> words.add(((long) wordId << 16) | (line << 8) | endPosition));
+        return words;
+    }
+
+    // Awards points for every dictionary word that has formed on the board since the last scan
+    private void scoreDictionaryWords() {
+        Set<Long> words = this.findDictionaryWords();
+        for (long word : words) {
+            if (!this.scoredWords.contains(word)) {
+                int points = GameSettings.POINTS_PER_WORD_LETTER * this.dictionary.getWordLength((int) (word >>> 16));
+                this.score = Constants.addPoints(this.score, points, this.scoreText);
+            }
+        }
+        this.scoredWords = words;
+    }
+
+    // Loads the saved game, ignoring it if it was saved for a different board size
+    private GameSnapshot loadSnapshot() {
+        GameSnapshot snapshot = this.snapshotStore.load();
+        if (snapshot == null || snapshot.getState().getRows() != GameSettings.NUMBER_OF_ROWS
+                || snapshot.getState().getCols() != GameSettings.NUMBER_OF_COLUMNS) return null;
+        return snapshot;
+    }
+
+    // Restores the word, score and removes of a saved game. New tiles after resuming are not reproducible from the
+    // seed, but the replay log still records them.
+    private void restoreGameState(GameSnapshot snapshot) {
+        this.seed = snapshot.getSeed();
+        this.random = new Random();
+        this.targetWord = snapshot.getTargetWord();
+        this.showTargetWord();
+        this.score = snapshot.getScore();
+        this.removeCounter = snapshot.getRemoveCounter();
+        if (this.removeText != null) this.removeText.setText("REMOVES \n" + this.removeCounter);
+        if (this.scoreText != null) this.scoreText.setText("SCORE \n" + this.score);
+    }
+
+    // Saves a snapshot of the current game in the background
+    private void saveSnapshot() {
+        this.snapshotStore.saveAsync(new GameSnapshot(this.seed, this.targetWord, this.score, this.removeCounter,
+                BoardState.fromTiles(this.board)));
+        this.hasUnsettledChanges = false;
+    }
+
+    // Saves the game and its replay before the application exits, waiting for the files to be written
+    public void saveAndClose() {
+        this.presolver.cancel();
+        this.hintWorker.cancel();
+        this.autoPlayer.stop();
+        if (!this.gameIsWon && !this.gameIsLost && !this.isAutoplay) this.saveSnapshot();
+        this.finishRecording(GameRecorder.OUTCOME_ABANDONED);
+        this.snapshotStore.flush();
+    }
+
+    // Starts logging the current game from its starting tiles
+    private void startRecording() {
+        this.recorder.startGame(this.seed, this.targetWord, BoardState.fromTiles(this.board), this.removeCounter);
     }
 
-    // Randomly selects a word from the word bank and sets it as the target word
+    // Stops logging the current game and saves its replay with the given outcome
+    private void finishRecording(int outcome) {
+        this.recorder.finishGame(outcome, BoardState.fromTiles(this.board), this.removeCounter, this.score);
+    }
+
+    // Randomly selects a word from the dictionary or word bank and sets it as the target word
     private void generateRandomWord() {
+        this.targetWord = GameSettings.pickTargetWord(this.random, this.targetWords);
+        this.showTargetWord();
+    }
+
+    // Displays the target word in the word box
+    private void showTargetWord() {
         // Remove the target word from screen if it already exists
         if (this.targetWordText != null) this.gamePane.getChildren().remove(this.targetWordText);
 
@@ -117,9 +355,6 @@ import java.util.concurrent.atomic.AtomicInteger;
         this.targetWordText.setFill(Color.web(Constants.BACKGROUND_COLOR));
         this.targetWordText.setFont(Constants.WORD_TEXT_FONT);
 
-        // Select a random word from the word bank
-        Random random = new Random();
-        this.targetWord = Constants.WORD_BANK.get(random.nextInt(Constants.WORD_BANK.size()));
         this.targetWordText.setText(this.targetWord); // Set text before measuring bounds
 
         // Measure the text dimensions
@@ -151,15 +386,27 @@ import java.util.concurrent.atomic.AtomicInteger;
 
     // Restarts the game by resetting the board, score, and other game components
     public void restartGame() {
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
+        // Save the replay of the game being abandoned, if it didn't end already
+        this.finishRecording(GameRecorder.OUTCOME_ABANDONED);
+        this.presolver.cancel();
+        this.autoPlayer.stop();
+        if (this.autoplayRestart != null) this.autoplayRestart.cancel();
+        if (this.solveGame != null) this.solveGame.stop();
+        this.solveGame = null;
+        if (this.clickTimeout != null) this.clickTimeout.cancel();
+        this.clickCount.set(0);
+        this.gameBoard.stopSlide(); // Tiles still sliding are about to be removed
+
+        for (int row = 0; row < GameSettings.NUMBER_OF_ROWS; row++) {
+            for (int col = 0; col < GameSettings.NUMBER_OF_COLUMNS; col++) {
                 if (this.board[row][col] != null) this.board[row][col].remove(); // Remove tile from the UI
                 this.board[row][col] = null; // Clear the tile from the board
             }
         }
+        this.gameBoard.rehash(); // The solver's board may have moved the tiles since the hash was last updated
 
         // Reset game state variables
-        this.removeCounter = Constants.NUMBER_OF_REMOVES;
+        this.removeCounter = GameSettings.NUMBER_OF_REMOVES;
         this.score = 0;
         if (this.gameIsWon)this.gameIsWon = false;
         if (this.gameIsLost)this.gameIsLost = false;
@@ -173,14 +420,27 @@ import java.util.concurrent.atomic.AtomicInteger;
         if (this.removeText != null) this.removeText.setText("REMOVES \n" + this.removeCounter);
         if (this.scoreText != null) this.scoreText.setText("SCORE \n" + this.score);
 
-        // Generate a new target word and set up starting tiles
-        this.generateRandomWord();
-        this.gameBoard.generateStartingTiles();
+        // Replay the day's puzzle, or generate a new target word and set up starting tiles
+        if (this.puzzles != null) {
+            this.choosePuzzle();
+            this.placePuzzleTiles();
+        } else {
+            this.generateSeed();
+            this.generateRandomWord();
+            this.gameBoard.setSeed(this.random.nextLong());
+            this.gameBoard.generateStartingTiles();
+        }
         this.gameBoard.setTargetWord(this.targetWord);
+        this.scoredWords = this.findDictionaryWords();
+        this.history.clear();
+        this.hintWorker.reset(this.targetWord);
+        this.clearHint();
+        this.startRecording();
+        this.hasUnsettledChanges = true;
 
-        // Start all game-related timelines
-        this.gameBoard.updateTimeline.play();
-        this.updateTimeline.play();
+        // Start updating the game again
+        this.gameBoard.startUpdates();
+        GameLoop.get().add(this.updater);
 
         // Re-enable input listeners
         this.gamePane.setOnKeyPressed(this::handleKeyPress);
@@ -190,16 +450,20 @@ import java.util.concurrent.atomic.AtomicInteger;
     // Handles the game logic when the game is won
     private void gameIsWon(Tile[] winningTiles) {
         this.gameIsWon = true; // Mark the game as won
+        this.metrics.won();
+        MoveTrace.outcome(true);
 
-        // Stop all timelines related to the game board
-        if (this.gameBoard.updateTimeline != null) this.gameBoard.updateTimeline.stop();
-        if (this.updateTimeline != null) this.updateTimeline.stop();
+        // Stop updating the game board
+        this.gameBoard.stopUpdates();
+        GameLoop.get().remove(this.updater);
 
-        // Enable key listening if no key press handler is set
-        if (this.gamePane.getOnKeyPressed() == null) this.gamePane.setOnKeyPressed(this::handleKeyPress);
+        // Enable key listening again if a shown solution took it over
+        this.gamePane.setOnKeyPressed(this::handleKeyPress);
 
         // Change the color of the winning tiles to indicate victory
         for (Tile tile : winningTiles) tile.wonTile();
+        this.finishRecording(GameRecorder.OUTCOME_WON);
+        this.snapshotStore.deleteAsync();
 
         // Display the winning message on the screen
         this.createWinningMessage();
@@ -208,13 +472,17 @@ import java.util.concurrent.atomic.AtomicInteger;
     // Handles the game logic when the game is lost
     private void gameIsLost() {
         this.gameIsLost = true;  // Mark the game as lost
+        this.metrics.lost();
+        MoveTrace.outcome(false);
 
-        // Stop all timelines related to the game board
-        if (this.gameBoard.updateTimeline != null) this.gameBoard.updateTimeline.stop();
-        if (this.updateTimeline != null) this.updateTimeline.stop();
+        // Stop updating the game board
+        this.gameBoard.stopUpdates();
+        GameLoop.get().remove(this.updater);
 
         // Display the losing message on the screen
         this.createLosingMessage();
+        this.finishRecording(GameRecorder.OUTCOME_LOST);
+        this.snapshotStore.deleteAsync();
     }
 
     // Creates and displays the winning message
@@ -250,39 +518,176 @@ import java.util.concurrent.atomic.AtomicInteger;
         this.gamePane.getChildren().addAll(endBox, endText);
     }
 
+    // Goes back to the position before the player's last action
+    public void undo() {
+        if (!this.canChangeHistory()) return;
+        UndoHistory.Step step = this.history.undo(this.getCurrentStep());
+        if (step != null) this.restoreStep(step);
+    }
+
+    // Plays again the last action that was undone
+    public void redo() {
+        if (!this.canChangeHistory()) return;
+        UndoHistory.Step step = this.history.redo(this.getCurrentStep());
+        if (step != null) this.restoreStep(step);
+    }
+
+    // Undo and redo wait for the tiles to settle and stop once the game is over
+    private boolean canChangeHistory() {
+        return this.gameBoard.isAllowedToMove() && !this.gameIsWon && !this.gameIsLost && !this.hasBeenSolved;
+    }
+
+    // Saves the current position as an undo step, before an action changes it
+    private void saveUndoStep() {this.history.record(this.getCurrentStep());}
+
+    // Saves the undo step of a move about to be made and gives the move a new id for its flight recorder events
+    private void startMove() {
+        this.presolver.cancel(); // Leave the processor to the move
+        this.saveUndoStep();
+        MoveTrace.startMove();
+    }
+
+    // Captures the current position
+    private UndoHistory.Step getCurrentStep() {
+        return new UndoHistory.Step(BoardState.fromTiles(this.board), this.removeCounter, this.score,
+                this.gameBoard.getRandomState());
+    }
+
+    // Puts the board, removes, score and upcoming new tiles back the way they were at the given step
+    private void restoreStep(UndoHistory.Step step) {
+        this.presolver.cancel();
+        BoardState state = step.getState();
+        this.gameBoard.applyState(state);
+        this.gameBoard.setRandomState(step.getRandomState());
+        this.removeCounter = step.getRemoveCounter();
+        this.score = step.getScore();
+        if (this.removeText != null) this.removeText.setText("REMOVES \n" + this.removeCounter);
+        if (this.scoreText != null) this.scoreText.setText("SCORE \n" + this.score);
+        this.scoredWords = this.findDictionaryWords();
+        this.recorder.recordRestore(state, this.removeCounter);
+        this.hasUnsettledChanges = true;
+        this.clearHint();
+    }
+
     // Handles key press events for moving the game board
     private void handleKeyPress(javafx.scene.input.KeyEvent event) {
+        long keyTime = System.nanoTime();
+        MoveTrace.KeyReceived keyEvent = MoveTrace.keyReceived();
+
+        // Ctrl+Z (Cmd+Z on macOS) undoes the last action and Ctrl+Y redoes it
+        if (event.isShortcutDown()) {
+            if (event.getCode() == KeyCode.Z) this.undo();
+            else if (event.getCode() == KeyCode.Y) this.redo();
+            return;
+        }
+
+        // The board ignores moves while tiles are still moving or the game is over
+        boolean isMoveApplied = this.gameBoard.isAllowedToMove() && !this.gameIsWon && !this.gameIsLost;
+
+        Directions direction;
         switch (event.getCode()) {
             case LEFT:
-                this.gameBoard.moveLeft(this.board, this.gameIsWon, this.gameIsLost, false);  // Move tiles left
-                this.gameBoard.animateHorizontalTileMovement(Directions.LEFT, false,
-                        this.gameBoard.checkForWin(this.board, this.targetWord).getKey(),
-                        this.gameBoard.checkForLoss(this.board, this.removeCounter));
+                direction = Directions.LEFT;
                 break;
             case RIGHT:
-                this.gameBoard.moveRight(this.board, this.gameIsWon, this.gameIsLost, false); // Move tiles right
-                this.gameBoard.animateHorizontalTileMovement(Directions.RIGHT, false,
-                        this.gameBoard.checkForWin(this.board, this.targetWord).getKey(),
-                        this.gameBoard.checkForLoss(this.board, this.removeCounter));
+                direction = Directions.RIGHT;
                 break;
             case UP:
-                this.gameBoard.moveUp(this.board, this.gameIsWon, this.gameIsLost, false); // Move tiles up
-                this.gameBoard.animateVerticalTileMovement(Directions.UP, false,
-                        this.gameBoard.checkForWin(this.board, this.targetWord).getKey(),
-                        this.gameBoard.checkForLoss(this.board, this.removeCounter));
+                direction = Directions.UP;
                 break;
             case DOWN:
-                this.gameBoard.moveDown(this.board, this.gameIsWon, this.gameIsLost, false); // Move tiles down
-                this.gameBoard.animateVerticalTileMovement(Directions.DOWN, false,
-                        this.gameBoard.checkForWin(this.board, this.targetWord).getKey(),
-                        this.gameBoard.checkForLoss(this.board, this.removeCounter));
+                direction = Directions.DOWN;
                 break;
             default:
                 return;
         }
+        if (isMoveApplied) this.startMove();
+        this.gameBoard.move(direction, this.gameIsWon, this.gameIsLost, false); // Move the tiles
+        if (isMoveApplied) this.recorder.recordMove(direction);
+        this.gameBoard.animateTileMovement(direction, false,
+                this.gameBoard.checkForWin(this.board, this.targetWord).getKey(),
+                this.gameBoard.checkForLoss(this.board, this.removeCounter));
+        if (isMoveApplied) {
+            this.metrics.moved(keyTime);
+            MoveTrace.keyHandled(keyEvent, event.getCode().name());
+        }
+        this.hasUnsettledChanges = true;
+        this.clearHint();
         if (!this.gameIsWon && !this.gameIsLost) this.score = Constants.updateScore(this.score, this.scoreText); // If game isn't over increase score
     }
 
+    // Ends the game if the target word is on the board or no move can change it any more
+    private void checkForGameOver() {
+        if (this.gameBoard.checkForWin(this.board, this.targetWord).getKey()) {
+            this.gameIsWon(this.gameBoard.checkForWin(this.board, this.targetWord).getValue());
+        }
+        if (this.gameBoard.checkForLoss(this.board, this.removeCounter)) this.gameIsLost();
+    }
+
+    // Switches between the bot and the player playing the game
+    public void toggleAutoplay() {
+        this.isAutoplay = !this.isAutoplay;
+        if (this.isAutoplay) return; // The bot takes over on the next update, once the tiles have settled
+
+        // Give the game back to the player where the bot left it
+        this.autoPlayer.stop();
+        if (this.autoplayRestart != null) this.autoplayRestart.cancel();
+        if (!this.hasBeenSolved) {
+            this.gamePane.setOnKeyPressed(this::handleKeyPress);
+            this.gamePane.setOnMouseClicked(this::handleMouseClick);
+        }
+    }
+
+    // Lets the bot play the rest of the game from the current position
+    private void startAutoplay() {
+        this.gamePane.setOnKeyPressed(null);
+        this.gamePane.setOnMouseClicked(null);
+        this.presolver.cancel();
+        this.history.clear();
+        this.clearHint();
+        this.autoplayMoves = 0;
+        this.autoPlayer.start(BoardState.fromTiles(this.board), this.removeCounter, this.targetWord,
+                this.random.nextLong());
+    }
+
+    // Shows the newest position of the bot's game. Called at most once per frame, however fast the bot plays.
+    private void showAutoplayFrame(AutoPlayer.Frame frame) {
+        this.gameBoard.applyState(frame.getState());
+        this.removeCounter = frame.getRemoveCounter();
+        if (this.removeText != null) this.removeText.setText("REMOVES \n" + this.removeCounter);
+        this.score = Constants.addPoints(this.score, (frame.getMoves() - this.autoplayMoves) * GameSettings.POINTS_PER_MOVE,
+                this.scoreText);
+        this.autoplayMoves = frame.getMoves();
+        this.recorder.recordRestore(frame.getState(), this.removeCounter);
+        this.hasUnsettledChanges = true;
+
+        // Go through the usual win or loss, then start a new game after a while, even if the bot just gave up
+        if (frame.isFinished()) {
+            this.checkForGameOver();
+            this.autoplayRestart = GameLoop.get().schedule(GameSettings.AUTOPLAY_RESTART_DELAY, this::restartGame);
+        }
+    }
+
+    // Jumps to the end of a shown solution, using up the removes the rest of the solution spends
+    private void applySolvedPosition(BoardState state, int removesUsed) {
+        this.gameBoard.rehash(); // The solver's board has moved the tiles since the hash was last updated
+        this.gameBoard.applyState(state);
+        this.removeCounter -= removesUsed;
+        if (this.removeText != null) this.removeText.setText("REMOVES \n" + this.removeCounter);
+        this.recorder.recordRestore(state, this.removeCounter);
+        this.hasUnsettledChanges = true;
+    }
+
+    // Removes the tile on the given cell, using up one of the removes
+    private void removeTileAt(int row, int col) {
+        this.presolver.cancel();
+        this.saveUndoStep();
+        this.removeCounter = Constants.removeTile(this.board[row][col], this.removeCounter, this.removeText);
+        this.gameBoard.clearCell(row, col);
+        this.recorder.recordRemove(row, col);
+        this.hasUnsettledChanges = true;
+    }
+
     // Handles mouse click events
     private void handleMouseClick(MouseEvent event) {
         // Get the row and column based on the mouse click coordinates
@@ -295,26 +700,40 @@ import java.util.concurrent.atomic.AtomicInteger;
 
                 if (Objects.equals(this.board[row][col].getTileColor(), Constants.BLANK_TILE_COLOR)) {
                     BlankTile blankTile = (BlankTile) this.board[row][col];
-                    blankTile.changeLetter();
+                    char[] previousLetter = {blankTile.getLetter()};
+                    blankTile.changeLetter(() -> {
+                        // The letter has already changed, so save the position with the letter it replaced
+                        BoardState before = BoardState.fromTiles(this.board);
+                        before.setLetter(blankTile.getRow(), blankTile.getCol(), previousLetter[0]);
+                        this.history.record(new UndoHistory.Step(before, this.removeCounter, this.score,
+                                this.gameBoard.getRandomState()));
+                        this.gameBoard.letterChanged(blankTile.getRow(), blankTile.getCol(), previousLetter[0]);
+                        previousLetter[0] = blankTile.getLetter();
+                        this.recorder.recordLetter(blankTile.getRow(), blankTile.getCol(), blankTile.getLetter());
+                        this.hasUnsettledChanges = true;
+                    });
                 } else {
                     Tile tile = this.board[row][col];
 
-                    PauseTransition clickTimeout = new PauseTransition(Duration.seconds(Constants.CLICK_SPEED));
-                    clickTimeout.setOnFinished(e -> {
-                        if (this.clickCount.get() == 1) {
-                            if (tile.getLockStatus() != Locks.LOCKED) tile.setLock(Locks.LOCKED);
-                            else tile.setLock(Locks.UNLOCKED);
-                            this.clickCount.set(0);}});
-
                     int currentClickCount = this.clickCount.incrementAndGet(); // Increment and get the current value
                     if (currentClickCount == 1) {
-                        clickTimeout.playFromStart();
+                        this.clickTimeout = GameLoop.get().schedule(Constants.CLICK_SPEED * 1000, () -> {
+                            if (this.clickCount.get() == 1) {
+                                this.saveUndoStep();
+                                if (tile.getLockStatus() != Locks.LOCKED) this.gameBoard.setLock(tile.getRow(), tile.getCol(), Locks.LOCKED);
+                                else this.gameBoard.setLock(tile.getRow(), tile.getCol(), Locks.UNLOCKED);
+                                this.recorder.recordLock(tile.getRow(), tile.getCol(), tile.getLockStatus());
+                                this.hasUnsettledChanges = true;
+                                this.clickCount.set(0);}});
                     }
 
                     if (currentClickCount == 2) {
-                        if (tile.getLockStatus() != Locks.DOUBLELOCKED) tile.setLock(Locks.DOUBLELOCKED);
-                        else tile.setLock(Locks.UNLOCKED);
-                        clickTimeout.stop();
+                        this.saveUndoStep();
+                        if (tile.getLockStatus() != Locks.DOUBLELOCKED) this.gameBoard.setLock(row, col, Locks.DOUBLELOCKED);
+                        else this.gameBoard.setLock(row, col, Locks.UNLOCKED);
+                        this.recorder.recordLock(row, col, tile.getLockStatus());
+                        this.hasUnsettledChanges = true;
+                        this.clickTimeout.cancel();
                         this.clickCount.set(0);
                     }
                 }
@@ -322,10 +741,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
             //Remove a tile
             if (event.getButton() == MouseButton.SECONDARY) {
-                if (this.removeCounter > 0) {
-                    this.removeCounter = Constants.removeTile(this.board[row][col], this.removeCounter, this.removeText);
-                    this.board[row][col] = null;
-                }
+                if (this.removeCounter > 0) this.removeTileAt(row, col);
             }
         }
     }
@@ -0,0 +1,171 @@
+import javafx.animation.AnimationTimer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.DoubleConsumer;
+
+// The GameLoop class drives everything in the game that changes over time from a single AnimationTimer: the periodic
+// checks of Game and Board, tile slides and scaling, and the timers of clicks, blank tiles, solution playback and
+// autoplay. Game time advances in fixed steps of Constants.GAME_STEP milliseconds. Every frame runs as many steps as
+// the time since the last frame holds, then draws with the fraction of a step left over, so animations move by the
+// same amounts whatever the frame rate and look smooth between steps. After a stall, such as a long garbage
+// collection, at most Constants.GAME_MAX_FRAME milliseconds are caught up, so the game slows down for a moment instead
+// of running hundreds of steps in one frame.
+//
+// Everything is updated in the order it was added, so what happens within a step never depends on how the JavaFX
+// pulse scheduled separate timelines. All methods are called on the JavaFX thread.
+
+public class GameLoop {
+
+    // Something the loop updates
+    public interface Updatable {
+        // Advances by one step. Returns false once finished, which takes it out of the loop.
+        boolean update();
+
+        // Draws the current state, alpha being the fraction of a step elapsed since the last update (0 to 1)
+        default void render(double alpha) {}
+    }
+
+    // An action run once a given time has passed, at a rate that can change while waiting
+    public class Timer implements Updatable {
+        private final Runnable action; // Run when the time is up
+        private double remaining; // Milliseconds left at normal rate
+        private double rate; // Speed at which time passes for the timer, 1 for normal speed
+        private boolean isPending; // Whether the action is still to be run
+
+        private Timer(double millis, Runnable action) {
+            this.action = action;
+            this.remaining = millis;
+            this.rate = 1;
+            this.isPending = true;
+        }
+
+        @Override
+        public boolean update() {
+            if (!this.isPending) return false;
+            this.remaining -= Constants.GAME_STEP * this.rate;
+            if (this.remaining > 0) return true;
+            this.isPending = false;
+            this.action.run();
+            return false;
+        }
+
+        // Stops the timer without running its action
+        public void cancel() {
+            this.isPending = false;
+            GameLoop.this.remove(this);
+        }
+
+        public void setRate(double rate) {this.rate = rate;}
+        public boolean isPending() {return this.isPending;}
+    }
+
+    // A value going from 0 to 1 over a given time, drawn between steps
+    private static class Tween implements Updatable {
+        private final double increment; // Progress made by each step
+        private final DoubleConsumer drawer; // Draws the given progress
+        private double previous, current; // Progress before and after the last step
+
+        private Tween(double millis, DoubleConsumer drawer) {
+            this.increment = Constants.GAME_STEP / Math.max(millis, Constants.GAME_STEP);
+            this.drawer = drawer;
+        }
+
+        @Override
+        public boolean update() {
+            this.previous = this.current;
+            this.current = Math.min(1, this.current + this.increment);
+            if (this.current < 1) return true;
+            this.drawer.accept(1);
+            return false;
+        }
+
+        @Override
+        public void render(double alpha) {this.drawer.accept(this.previous + (this.current - this.previous) * alpha);}
+    }
+
+    private static GameLoop instance; // The loop of the game, created and started on first use
+
+    // Instance variables
+    private final List<Updatable> updatables; // What the loop updates, in the order it was added (null once removed)
+    private final AnimationTimer timer; // Called by JavaFX once per frame
+    private long lastFrame; // Time of the last frame (System.nanoTime), or 0 before the first one
+    private long unsimulated; // Nanoseconds of game time not yet covered by a step
+
+    // Constructor: Creates the loop with nothing to update
+    private GameLoop() {
+        this.updatables = new ArrayList<>();
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {GameLoop.this.frame(now);}
+        };
+    }
+
+    // Returns the loop of the game, starting it on first use
+    public static GameLoop get() {
+        if (instance != null) return instance;
+        instance = new GameLoop();
+        instance.timer.start();
+        return instance;
+    }
+
+    // Adds something to update from the next step, unless it is already being updated
+    public void add(Updatable updatable) {
+        if (!this.updatables.contains(updatable)) this.updatables.add(updatable);
+    }
+
+    // Stops updating something
+    public void remove(Updatable updatable) {
+        int index = this.updatables.indexOf(updatable);
+        if (index != -1) this.updatables.set(index, null);
+    }
+
+    // Runs the given action once the given time has passed
+    public Timer schedule(double millis, Runnable action) {
+        Timer timer = new Timer(millis, action);
+        this.add(timer);
+        return timer;
+    }
+
+    // Calls the given drawer with a progress going from 0 to 1 over the given time, then with 1 once finished
+    public void tween(double millis, DoubleConsumer drawer) {
+        drawer.accept(0);
+        this.add(new Tween(millis, drawer));
+    }
+
+    // Number of things being updated
+    public int getActiveCount() {
+        int count = 0;
+        for (Updatable updatable : this.updatables) if (updatable != null) count++;
+        return count;
+    }
+
+    // Runs the steps due since the last frame and draws the result
+    private void frame(long now) {
+        long step = Constants.GAME_STEP * 1_000_000L;
+        if (this.lastFrame != 0) {
+            this.unsimulated += Math.min(now - this.lastFrame, Constants.GAME_MAX_FRAME * 1_000_000L);
+        }
+        this.lastFrame = now;
+        while (this.unsimulated >= step) {
+            this.step();
+            this.unsimulated -= step;
+        }
+
+        double alpha = (double) this.unsimulated / step;
+        for (int i = 0; i < this.updatables.size(); i++) {
+            Updatable updatable = this.updatables.get(i);
+            if (updatable != null) updatable.render(alpha);
+        }
+    }
+
+    // Updates everything by one step. What is added during the step is first updated by the next one.
+    private void step() {
+        int count = this.updatables.size();
+        for (int i = 0; i < count; i++) {
+            Updatable updatable = this.updatables.get(i);
+            if (updatable != null && !updatable.update()) this.updatables.set(i, null);
+        }
+        this.updatables.removeIf(Objects::isNull);
+    }
+}
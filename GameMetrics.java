@@ -0,0 +1,265 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// The GameMetrics class counts what happens in the running game so that it can be watched from outside: moves,
+// merges, new tiles, wins, losses and solves, with histograms of the solve time, the time between animation frames
+// and the time from a move key to the first frame of its animation. Recording never locks or allocates: counters
+// are LongAdders and histograms add to fixed buckets of an AtomicLongArray, so the game thread only pays for a few
+// atomic additions. The metrics are published as the MXBean "wordy:type=GameMetrics" (see GameMetricsMXBean) and
+// written every GameSettings.METRICS_INTERVAL milliseconds to GameSettings.METRICS_FILE by a background thread,
+// which also works out the moves per second over the last interval.
+
+public class GameMetrics implements GameMetricsMXBean {
+
+    // A histogram of durations in nanoseconds. Each power of two is split into SUB_BUCKETS buckets, so a percentile
+    // is within 1/SUB_BUCKETS of the real value whatever the scale, from nanoseconds to minutes.
+    public static class Histogram {
+        private static final int SUB_BUCKETS = 8;
+        private static final int BUCKETS = 61 * SUB_BUCKETS; // Enough for any non-negative long
+
+        private final AtomicLongArray buckets; // Number of values recorded in each bucket
+        private final LongAdder total; // Sum of the values recorded
+        private final AtomicLong max; // Largest value recorded
+
+        public Histogram() {
+            this.buckets = new AtomicLongArray(BUCKETS);
+            this.total = new LongAdder();
+            this.max = new AtomicLong();
+        }
+
+        // Adds a duration in nanoseconds
+        public void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            this.buckets.incrementAndGet(bucketOf(nanos));
+            this.total.add(nanos);
+            long max;
+            while (nanos > (max = this.max.get()) && !this.max.compareAndSet(max, nanos)) {}
+        }
+
+        // Reads the histogram. Values recorded meanwhile may or may not be included.
+        public Summary summarize() {
+            long[] counts = new long[BUCKETS];
+            long count = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                counts[bucket] = this.buckets.get(bucket);
+                count += counts[bucket];
+            }
+            return new Summary(count, count == 0 ? 0 : this.total.sum() / (double) count / 1e6,
+                    percentile(counts, count, 0.5) / 1e6, percentile(counts, count, 0.99) / 1e6, this.max.get() / 1e6);
+        }
+
+        // Bucket of a value: the value itself below SUB_BUCKETS, then SUB_BUCKETS buckets per power of two
+        private static int bucketOf(long nanos) {
+            if (nanos < SUB_BUCKETS) return (int) nanos;
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            return (exponent - 2) * SUB_BUCKETS + (int) ((nanos >>> (exponent - 3)) & (SUB_BUCKETS - 1));
+        }
+
+        // Largest value that falls in a bucket
+        private static long bucketLimit(int bucket) {
+            if (bucket < SUB_BUCKETS) return bucket;
+            int exponent = bucket / SUB_BUCKETS + 2;
+            return ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << (exponent - 3)) - 1;
+        }
+
+        // Smallest bucket limit that at least the given fraction of the values are below
+        private static long percentile(long[] counts, long count, double fraction) {
+            long rank = (long) Math.ceil(fraction * count);
+            long seen = 0;
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                seen += counts[bucket];
+                if (seen >= rank && seen > 0) return bucketLimit(bucket);
+            }
+            return 0;
+        }
+    }
+
+    // A reading of a histogram, in milliseconds
+    public static class Summary {
+        private final long count;
+        private final double meanMillis, medianMillis, p99Millis, maxMillis;
+
+        public Summary(long count, double meanMillis, double medianMillis, double p99Millis, double maxMillis) {
+            this.count = count;
+            this.meanMillis = meanMillis;
+            this.medianMillis = medianMillis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        // Important getters
+        public long getCount() {return this.count;}
+        public double getMeanMillis() {return this.meanMillis;}
+        public double getMedianMillis() {return this.medianMillis;}
+        public double getP99Millis() {return this.p99Millis;}
+        public double getMaxMillis() {return this.maxMillis;}
+    }
+
+    private static GameMetrics instance; // The metrics of this process, created on first use
+
+    // Instance variables
+    private final LongAdder moves, merges, spawns, wins, losses, solves; // Counters since the game was started
+    private final Histogram solveLatency; // Time taken by the solver to find a solution
+    private final Histogram frameDuration; // Time between two frames of a tile animation
+    private final Histogram keyToRenderLatency; // Time from a move key to the first frame of its animation
+    private volatile double movesPerSecond; // Moves per second over the last sampling interval
+    private volatile long lastSolveStates; // Board states explored by the last solve
+    private volatile long lastSolveTime; // Nanoseconds taken by the last solve
+    private long sampledMoves, sampledTime; // Moves and time at the last sample, used by the sampling thread only
+    private long lastFrameTime; // Time of the last frame of the current animation, or 0 (JavaFX thread only)
+    private long pendingKeyTime; // Time of the move key whose animation has not shown a frame yet, or 0 (JavaFX thread only)
+
+    // Constructor: Creates empty metrics
+    private GameMetrics() {
+        this.moves = new LongAdder();
+        this.merges = new LongAdder();
+        this.spawns = new LongAdder();
+        this.wins = new LongAdder();
+        this.losses = new LongAdder();
+        this.solves = new LongAdder();
+        this.solveLatency = new Histogram();
+        this.frameDuration = new Histogram();
+        this.keyToRenderLatency = new Histogram();
+        this.sampledTime = System.nanoTime();
+    }
+
+    // Returns the metrics of this process, publishing them over JMX and starting the periodic dump on first use
+    public static synchronized GameMetrics get() {
+        if (instance != null) return instance;
+        instance = new GameMetrics();
+        instance.publish();
+        return instance;
+    }
+
+    // A move key moved the tiles at the given time (System.nanoTime)
+    public void moved(long keyTime) {
+        this.moves.increment();
+        this.pendingKeyTime = keyTime;
+    }
+
+    public void merged() {this.merges.increment();}
+    public void spawned() {this.spawns.increment();}
+    public void won() {this.wins.increment();}
+    public void lost() {this.losses.increment();}
+
+    // The solver found its answer after exploring the given number of states in the given number of nanoseconds
+    public void solved(long nanos, long states) {
+        this.solves.increment();
+        this.solveLatency.record(nanos);
+        this.lastSolveStates = states;
+        this.lastSolveTime = nanos;
+    }
+
+    // A tile animation starts, so the time until its first frame is not counted as a frame
+    public void animationStarted() {this.lastFrameTime = 0;}
+
+    // A frame of a tile animation was drawn
+    public void animationFrame() {
+        long now = System.nanoTime();
+        if (this.lastFrameTime != 0) this.frameDuration.record(now - this.lastFrameTime);
+        this.lastFrameTime = now;
+        if (this.pendingKeyTime != 0) {
+            this.keyToRenderLatency.record(now - this.pendingKeyTime);
+            this.pendingKeyTime = 0;
+        }
+    }
+
+    // Important getters
+    @Override public long getMoves() {return this.moves.sum();}
+    @Override public double getMovesPerSecond() {return this.movesPerSecond;}
+    @Override public long getMerges() {return this.merges.sum();}
+    @Override public long getSpawns() {return this.spawns.sum();}
+    @Override public long getWins() {return this.wins.sum();}
+    @Override public long getLosses() {return this.losses.sum();}
+    @Override public long getSolves() {return this.solves.sum();}
+    @Override public long getLastSolveStates() {return this.lastSolveStates;}
+    @Override public double getLastSolveMillis() {return this.lastSolveTime / 1e6;}
+    @Override public Summary getSolveLatency() {return this.solveLatency.summarize();}
+    @Override public Summary getFrameDuration() {return this.frameDuration.summarize();}
+    @Override public Summary getKeyToRenderLatency() {return this.keyToRenderLatency.summarize();}
+
+    // Registers the MXBean and starts the thread that samples the move rate and writes the metrics file
+    private void publish() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("wordy:type=GameMetrics"));
+        } catch (JMException e) {
+            System.err.println("Could not publish game metrics over JMX: " + e.getMessage());
+        }
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(this::sample, GameSettings.METRICS_INTERVAL, GameSettings.METRICS_INTERVAL,
+                TimeUnit.MILLISECONDS);
+
+        // Write the last counts when the game quits
+        if (!GameSettings.METRICS_FILE.isEmpty()) Runtime.getRuntime().addShutdownHook(new Thread(this::dump, "metrics-dump"));
+    }
+
+    // Works out the move rate since the last sample and writes the metrics file
+    private void sample() {
+        long now = System.nanoTime();
+        long moves = this.moves.sum();
+        this.movesPerSecond = (moves - this.sampledMoves) / ((now - this.sampledTime) / 1e9);
+        this.sampledMoves = moves;
+        this.sampledTime = now;
+        if (!GameSettings.METRICS_FILE.isEmpty()) this.dump();
+    }
+
+    // Writes the metrics to a temporary file and renames it over the metrics file, so readers never see half of it
+    private synchronized void dump() {
+        StringWriter text = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(text)) {
+            writer.println("# 20Wordy8 metrics at " + Instant.now());
+            writer.println("moves " + this.getMoves());
+            writer.printf("movesPerSecond %.3f%n", this.getMovesPerSecond());
+            writer.println("merges " + this.getMerges());
+            writer.println("spawns " + this.getSpawns());
+            writer.println("wins " + this.getWins());
+            writer.println("losses " + this.getLosses());
+            writer.println("solves " + this.getSolves());
+            writer.println("lastSolveStates " + this.getLastSolveStates());
+            writer.printf("lastSolveMillis %.3f%n", this.getLastSolveMillis());
+            writeSummary(writer, "solveLatency", this.getSolveLatency());
+            writeSummary(writer, "frameDuration", this.getFrameDuration());
+            writeSummary(writer, "keyToRenderLatency", this.getKeyToRenderLatency());
+        }
+
+        Path file = Paths.get(GameSettings.METRICS_FILE).toAbsolutePath();
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(tempFile, text.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Could not write game metrics: " + e.getMessage());
+        }
+    }
+
+    // Writes one line per value of a histogram reading
+    private static void writeSummary(PrintWriter writer, String name, Summary summary) {
+        writer.println(name + ".count " + summary.getCount());
+        writer.printf("%s.meanMillis %.3f%n", name, summary.getMeanMillis());
+        writer.printf("%s.medianMillis %.3f%n", name, summary.getMedianMillis());
+        writer.printf("%s.p99Millis %.3f%n", name, summary.getP99Millis());
+        writer.printf("%s.maxMillis %.3f%n", name, summary.getMaxMillis());
+    }
+}
@@ -0,0 +1,17 @@
+// The GameMetricsMXBean interface is the management view of GameMetrics, registered with the platform MBean server
+// as "wordy:type=GameMetrics" so that jconsole or any JMX client can watch a running game.
+
+public interface GameMetricsMXBean {
+    long getMoves();
+    double getMovesPerSecond();
+    long getMerges();
+    long getSpawns();
+    long getWins();
+    long getLosses();
+    long getSolves();
+    long getLastSolveStates();
+    double getLastSolveMillis();
+    GameMetrics.Summary getSolveLatency();
+    GameMetrics.Summary getFrameDuration();
+    GameMetrics.Summary getKeyToRenderLatency();
+}
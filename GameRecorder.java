@@ -0,0 +1,155 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// The GameRecorder class logs everything that changes the board during a game as a compact binary stream, so the
+// game can be re-run later by the GameReplayer. Events are buffered in memory and written to a file in the replay
+// directory when the game is won, lost or abandoned.
+//
+// Log layout (all numbers big-endian):
+//   header: magic (int), version (byte), seed (long), rows (byte), cols (byte), target word length (byte) and
+//           letters, removes left (byte), then one packed byte per cell for the starting tiles
+//   events: one opcode byte (event type in the high nibble, argument in the low nibble) followed by a cell index
+//           and/or letter byte where needed
+//   end:    END opcode with the outcome, score (int), removes left (byte) and one packed byte per cell
+
+public class GameRecorder {
+
+    // Log format constants
+    public static final int MAGIC = 0x57385250; // "W8RP"
+    public static final int VERSION = 2; // Version 2 added EVENT_RESTORE
+    public static final int EVENT_MOVE = 0x00; // Player move slide, argument = direction
+    public static final int EVENT_MERGE = 0x10; // Merge pass (plus the slide that follows a merge), argument = direction
+    public static final int EVENT_SPAWN = 0x20; // New tile, argument = 1 for a blank tile; followed by cell and letter
+    public static final int EVENT_LOCK = 0x30; // Lock change, argument = lock status; followed by cell
+    public static final int EVENT_LETTER = 0x40; // Blank tile letter change; followed by cell and letter
+    public static final int EVENT_REMOVE = 0x50; // Tile removal; followed by cell
+    public static final int EVENT_RESTORE = 0x60; // Undo or redo; followed by removes left and one packed byte per cell
+    public static final int EVENT_END = 0xF0; // End of game, argument = outcome; followed by the final state
+    public static final int OUTCOME_ABANDONED = 0;
+    public static final int OUTCOME_WON = 1;
+    public static final int OUTCOME_LOST = 2;
+    public static final String FILE_EXTENSION = ".w8r";
+
+    // Instance variables
+    private final Path directory; // Directory where finished logs are written
+    private final ByteArrayOutputStream buffer; // In-memory buffer holding the current game's log
+    private final DataOutputStream stream; // Stream used to write into the buffer
+    private boolean isRecording; // Flag indicating whether a game is currently being recorded
+    private long seed; // Seed of the game being recorded
+    private int cols; // Number of columns, used to turn a row and column into a cell index
+
+    // Constructor: Creates a recorder that writes its logs to the given directory
+    public GameRecorder(Path directory) {
+        this.directory = directory;
+        this.buffer = new ByteArrayOutputStream(1024);
+        this.stream = new DataOutputStream(this.buffer);
+        this.isRecording = false;
+    }
+
+    // Constructor: Creates a recorder that writes its logs to the default replay directory
+    public GameRecorder() {
+        this(Paths.get(GameSettings.REPLAY_DIRECTORY));
+    }
+
+    // Starts recording a new game, writing the header and starting tiles
+    public void startGame(long seed, String targetWord, BoardState startState, int removeCounter) {
+        this.buffer.reset();
+        this.seed = seed;
+        this.cols = startState.getCols();
+        try {
+            this.stream.writeInt(MAGIC);
+            this.stream.writeByte(VERSION);
+            this.stream.writeLong(seed);
+            this.stream.writeByte(startState.getRows());
+            this.stream.writeByte(startState.getCols());
+            this.stream.writeByte(targetWord.length());
+            this.stream.writeBytes(targetWord);
+            this.stream.writeByte(removeCounter);
+            this.writeBoard(startState);
+            this.isRecording = true;
+        } catch (IOException e) {
+            // Writing to an in-memory buffer cannot fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Records a player move that slid the tiles in the given direction
+    public void recordMove(Directions direction) {this.writeEvent(EVENT_MOVE | direction.ordinal());}
+
+    // Records a merge pass in the given direction
+    public void recordMerge(Directions direction) {this.writeEvent(EVENT_MERGE | direction.ordinal());}
+
+    // Records a newly spawned tile
+    public void recordSpawn(int row, int col, char letter, boolean isBlank) {
+        this.writeEvent(EVENT_SPAWN | (isBlank ? 1 : 0), this.cellOf(row, col), letter);
+    }
+
+    // Records a change of a tile's lock status
+    public void recordLock(int row, int col, Locks lock) {
+        this.writeEvent(EVENT_LOCK | lock.ordinal(), this.cellOf(row, col));
+    }
+
+    // Records a new letter typed onto a blank tile
+    public void recordLetter(int row, int col, char letter) {
+        this.writeEvent(EVENT_LETTER, this.cellOf(row, col), letter);
+    }
+
+    // Records a removed tile
+    public void recordRemove(int row, int col) {this.writeEvent(EVENT_REMOVE, this.cellOf(row, col));}
+
+    // Records the board and removes an undo or redo went back to
+    public void recordRestore(BoardState state, int removeCounter) {
+        if (!this.isRecording) return;
+        this.writeEvent(EVENT_RESTORE, removeCounter);
+        for (int cell = 0; cell < state.getCellCount(); cell++) this.buffer.write(state.getPackedCell(cell));
+    }
+
+    // Ends the current game, writing its final state, and saves the log. Returns the file written, or null if no
+    // game was being recorded.
+    public Path finishGame(int outcome, BoardState finalState, int removeCounter, int score) {
+        if (!this.isRecording) return null;
+        this.isRecording = false;
+        try {
+            this.stream.writeByte(EVENT_END | outcome);
+            this.stream.writeInt(score);
+            this.stream.writeByte(removeCounter);
+            this.writeBoard(finalState);
+            return this.save();
+        } catch (IOException e) {
+            System.err.println("Could not save game replay: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Returns a copy of the bytes recorded so far
+    public byte[] toByteArray() {return this.buffer.toByteArray();}
+
+    public boolean isRecording() {return this.isRecording;}
+
+    // Writes one packed byte per cell of the given board
+    private void writeBoard(BoardState state) throws IOException {
+        for (int cell = 0; cell < state.getCellCount(); cell++) this.stream.writeByte(state.getPackedCell(cell));
+    }
+
+    // Writes an event made of the given bytes if a game is being recorded
+    private void writeEvent(int... bytes) {
+        if (!this.isRecording) return;
+        for (int value : bytes) this.buffer.write(value);
+    }
+
+    // Converts a row and column into a cell index
+    private int cellOf(int row, int col) {return row * this.cols + col;}
+
+    // Writes the finished log into the replay directory
+    private Path save() throws IOException {
+        Files.createDirectories(this.directory);
+        Path file = this.directory.resolve("game-" + System.currentTimeMillis() + "-"
+                + Long.toHexString(this.seed) + FILE_EXTENSION);
+        Files.write(file, this.buffer.toByteArray());
+        return file;
+    }
+}
@@ -0,0 +1,313 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// The GameReplayer class re-runs games logged by the GameRecorder through the board rules without any UI and checks
+// that the replayed board matches the final state stored in the log. It is used to reproduce player bug reports and
+// as a throughput benchmark: every log can be replayed many times in a row and the move rate is reported. It only
+// reads GameSettings and never Constants, so it runs without JavaFX and never loads the UI toolkit.
+//
+// Usage: java GameReplayer [--repeat N] <log file or directory>...
+//        java GameReplayer --generate <directory> <number of games> [seed]
+
+public class GameReplayer {
+
+    // Maximum number of moves in a generated game
+    private static final int MAX_GENERATED_MOVES = 2000;
+
+    // Bytes of the header up to the target word: magic, version, seed, rows, columns and word length
+    private static final int HEADER_SIZE = 16;
+
+    // Result of replaying a single log
+    public static class Result {
+        int moves; // Number of player moves replayed
+        int events; // Number of events replayed
+        boolean isVerified; // Whether the replayed state matched the recorded final state
+        String message; // Description of the first mismatch, if any
+
+        @Override
+        public String toString() {
+            return (this.isVerified ? "OK" : "MISMATCH: " + this.message) + " (" + this.moves + " moves, "
+                    + this.events + " events)";
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("--generate")) {
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+            generateCorpus(Paths.get(args[1]), Integer.parseInt(args[2]), seed);
+            return;
+        }
+
+        int repeat = 1;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--repeat")) repeat = Integer.parseInt(args[++i]);
+            else files.addAll(findLogs(Paths.get(args[i])));
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: java GameReplayer [--repeat N] <log file or directory>...");
+            System.err.println("       java GameReplayer --generate <directory> <number of games> [seed]");
+            return;
+        }
+
+        // Load every log up front so that the timed loop only measures the game rules
+        List<byte[]> logs = new ArrayList<>();
+        int failures = 0;
+        for (Path file : files) {
+            byte[] log = Files.readAllBytes(file);
+            logs.add(log);
+            Result result = replay(log);
+            if (!result.isVerified) failures++;
+            if (files.size() <= 20 || !result.isVerified) System.out.println(file + ": " + result);
+        }
+
+        long moves = 0;
+        long events = 0;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < repeat; i++) {
+            for (byte[] log : logs) {
+                Result result = replay(log);
+                moves += result.moves;
+                events += result.events;
+            }
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.printf("%d logs, %d failed verification%n", logs.size(), failures);
+        System.out.printf("Replayed %d moves (%d events) in %.3f s: %.0f moves/s, %.0f events/s%n",
+                moves, events, seconds, moves / seconds, events / seconds);
+    }
+
+    // Replays a single log through the board rules and verifies the final state. A truncated or corrupt log, such as
+    // one left by a crash while it was being saved, fails verification with a message instead of throwing.
+    public static Result replay(byte[] log) {
+        Result result = new Result();
+        int position = 0;
+
+        // Read the header
+        if (log.length < HEADER_SIZE) {
+            result.message = "log is truncated in its header";
+            return result;
+        }
+        int magic = ((log[0] & 0xFF) << 24) | ((log[1] & 0xFF) << 16) | ((log[2] & 0xFF) << 8) | (log[3] & 0xFF);
+        if (magic != GameRecorder.MAGIC || log[4] < 1 || log[4] > GameRecorder.VERSION) {
+            result.message = "not a version 1 to " + GameRecorder.VERSION + " replay log";
+            return result;
+        }
+        position += 13; // Magic, version and seed
+        int rows = log[position++];
+        int cols = log[position++];
+        int wordLength = log[position++];
+        if (rows < 1 || cols < 1 || rows * cols > 256 || wordLength < 1) {
+            result.message = "invalid board size or word length in the header";
+            return result;
+        }
+        if (position + wordLength + 1 + rows * cols > log.length) {
+            result.message = "log is truncated in its header";
+            return result;
+        }
+        String targetWord = new String(log, position, wordLength, StandardCharsets.US_ASCII);
+        position += wordLength;
+        int removeCounter = log[position++];
+
+        BoardState state = new BoardState(rows, cols);
+        int cellCount = rows * cols;
+        for (int cell = 0; cell < cellCount; cell++) state.setPackedCell(cell, log[position++] & 0xFF);
+
+        // Apply every event until the end marker
+        Directions[] directions = Directions.values();
+        Locks[] lockValues = Locks.values();
+        while (position < log.length) {
+            int opcode = log[position++] & 0xFF;
+            int argument = opcode & 0x0F;
+            String error = checkEvent(log, position, opcode, cellCount);
+            if (error != null) {
+                result.message = error + " at byte " + (position - 1);
+                return result;
+            }
+            result.events++;
+            switch (opcode & 0xF0) {
+                case GameRecorder.EVENT_MOVE:
+                    state.slide(directions[argument]);
+                    result.moves++;
+                    break;
+                case GameRecorder.EVENT_MERGE:
+                    if (state.merge(directions[argument])) state.slide(directions[argument]);
+                    break;
+                case GameRecorder.EVENT_SPAWN: {
+                    int cell = log[position++] & 0xFF;
+                    state.placeTile(cell / cols, cell % cols, (char) log[position++], argument == 1);
+                    break;
+                }
+                case GameRecorder.EVENT_LOCK: {
+                    int cell = log[position++] & 0xFF;
+                    state.setLock(cell / cols, cell % cols, lockValues[argument]);
+                    break;
+                }
+                case GameRecorder.EVENT_LETTER: {
+                    int cell = log[position++] & 0xFF;
+                    state.setLetter(cell / cols, cell % cols, (char) log[position++]);
+                    break;
+                }
+                case GameRecorder.EVENT_REMOVE: {
+                    int cell = log[position++] & 0xFF;
+                    state.removeTile(cell / cols, cell % cols);
+                    removeCounter--;
+                    break;
+                }
+                case GameRecorder.EVENT_RESTORE:
+                    removeCounter = log[position++];
+                    for (int cell = 0; cell < cellCount; cell++) state.setPackedCell(cell, log[position++] & 0xFF);
+                    break;
+                case GameRecorder.EVENT_END:
+                    result.events--;
+                    return verify(result, log, position, argument, state, removeCounter, targetWord);
+                default:
+                    result.message = "unknown event 0x" + Integer.toHexString(opcode) + " at byte " + (position - 1);
+                    return result;
+            }
+        }
+        result.message = "log has no end marker";
+        return result;
+    }
+
+    // Checks that an event's argument and operands fit the log and the board, returning what is wrong or null
+    private static String checkEvent(byte[] log, int position, int opcode, int cellCount) {
+        int argument = opcode & 0x0F;
+        int operands;
+        switch (opcode & 0xF0) {
+            case GameRecorder.EVENT_MOVE:
+            case GameRecorder.EVENT_MERGE:
+                if (argument >= Directions.INVALID.ordinal()) return "invalid direction";
+                return null;
+            case GameRecorder.EVENT_SPAWN:
+            case GameRecorder.EVENT_LETTER:
+                operands = 2;
+                break;
+            case GameRecorder.EVENT_LOCK:
+                if (argument >= Locks.values().length) return "invalid lock status";
+                operands = 1;
+                break;
+            case GameRecorder.EVENT_REMOVE:
+                operands = 1;
+                break;
+            case GameRecorder.EVENT_RESTORE:
+                return position + 1 + cellCount > log.length ? "log is truncated" : null;
+            case GameRecorder.EVENT_END:
+                return position + 5 + cellCount > log.length ? "log is truncated" : null;
+            default:
+                return null; // Reported as an unknown event
+        }
+        if (position + operands > log.length) return "log is truncated";
+        if ((log[position] & 0xFF) >= cellCount) return "cell out of range";
+        return null;
+    }
+
+    // Compares the replayed state with the final state stored after the end marker
+    private static Result verify(Result result, byte[] log, int position, int outcome, BoardState state,
+                                 int removeCounter, String targetWord) {
+        position += 4; // Score
+        int recordedRemoves = log[position++];
+        BoardState recordedState = new BoardState(state.getRows(), state.getCols());
+        for (int cell = 0; cell < state.getCellCount(); cell++) {
+            recordedState.setPackedCell(cell, log[position++] & 0xFF);
+        }
+
+        if (!state.equals(recordedState)) {
+            result.message = "board " + state + " but recorded " + recordedState;
+        } else if (removeCounter != recordedRemoves) {
+            result.message = removeCounter + " removes left but recorded " + recordedRemoves;
+        } else if (outcome == GameRecorder.OUTCOME_WON && !state.checkForWin(targetWord)) {
+            result.message = "recorded a win but " + targetWord + " is not on the board";
+        } else if (outcome == GameRecorder.OUTCOME_LOST && !state.checkForLoss(removeCounter)) {
+            result.message = "recorded a loss but the game is not lost";
+        } else {
+            result.isVerified = true;
+        }
+        return result;
+    }
+
+    // Finds all replay logs in a directory, or returns the file itself
+    private static List<Path> findLogs(Path path) throws IOException {
+        List<Path> logs = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.list(path)) {
+                files.filter(file -> file.toString().endsWith(GameRecorder.FILE_EXTENSION)).sorted().forEach(logs::add);
+            }
+        } else logs.add(path);
+        return logs;
+    }
+
+    // Plays random games through the board rules and records them, to build a benchmark corpus without the UI
+    public static void generateCorpus(Path directory, int games, long seed) {
+        Random random = new Random(seed);
+        Directions[] directions = {Directions.LEFT, Directions.RIGHT, Directions.UP, Directions.DOWN};
+        GameRecorder recorder = new GameRecorder(directory);
+
+        for (int game = 0; game < games; game++) {
+            long gameSeed = random.nextLong();
+            Random gameRandom = new Random(gameSeed);
+            String targetWord = GameSettings.pickTargetWord(gameRandom);
+            int removeCounter = GameSettings.NUMBER_OF_REMOVES;
+
+            BoardState state = new BoardState(GameSettings.NUMBER_OF_ROWS, GameSettings.NUMBER_OF_COLUMNS);
+            state.placeStartingTiles(gameRandom);
+            recorder.startGame(gameSeed, targetWord, state, removeCounter);
+
+            int outcome = GameRecorder.OUTCOME_ABANDONED;
+            for (int move = 0; move < MAX_GENERATED_MOVES; move++) {
+                // Occasionally use the player tools as well as moving
+                int row = gameRandom.nextInt(state.getRows());
+                int col = gameRandom.nextInt(state.getCols());
+                int tool = gameRandom.nextInt(100);
+                if (tool < 5 && !state.isEmpty(row, col)) {
+                    Locks lock = Locks.values()[gameRandom.nextInt(Locks.values().length)];
+                    state.setLock(row, col, lock);
+                    recorder.recordLock(row, col, lock);
+                } else if (tool < 7 && !state.isEmpty(row, col) && state.isBlank(row, col)) {
+                    char letter = (char) ('A' + gameRandom.nextInt(4));
+                    state.setLetter(row, col, letter);
+                    recorder.recordLetter(row, col, letter);
+                } else if (tool < 8 && !state.isEmpty(row, col) && removeCounter > 0) {
+                    state.removeTile(row, col);
+                    removeCounter--;
+                    recorder.recordRemove(row, col);
+                }
+
+                // Play a move the same way Board does: slide, then merge unless the word is formed, then spawn
+                Directions direction = directions[gameRandom.nextInt(directions.length)];
+                state.slide(direction);
+                recorder.recordMove(direction);
+                if (!state.checkForWin(targetWord)) {
+                    recorder.recordMerge(direction);
+                    if (state.merge(direction)) state.slide(direction);
+                    int cell = state.spawnRandomTile(gameRandom);
+                    if (cell != -1) {
+                        int spawnRow = cell / state.getCols();
+                        int spawnCol = cell % state.getCols();
+                        recorder.recordSpawn(spawnRow, spawnCol, state.getLetter(spawnRow, spawnCol),
+                                state.isBlank(spawnRow, spawnCol));
+                    }
+                }
+
+                if (state.checkForWin(targetWord)) {
+                    outcome = GameRecorder.OUTCOME_WON;
+                    break;
+                }
+                if (state.checkForLoss(removeCounter)) {
+                    outcome = GameRecorder.OUTCOME_LOST;
+                    break;
+                }
+            }
+            recorder.finishGame(outcome, state, removeCounter, 0);
+        }
+        System.out.printf("Generated %d games in %s%n", games, directory);
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+// This GameSettings class contains the game rules and tool settings shared by the game and its headless tools.
+// It must not depend on JavaFX, so the server, load client, replayer, solvers and trainers run with a plain java -cp.
+// Layout, fonts and colors belong in Constants.
+public class GameSettings {
+
+    // Word Bank Constants
+    public static final ArrayList<String> WORD_BANK = new ArrayList<>(Arrays.asList(
+            "BAD", "CAB", "CAD", "ABC", "ACD", "ABD", "BDC", "DAB", "BCA", "CBA", "DAC", "ABB", "BAA", "CBD"));
+    public static final String WORD_LETTERS = "ABCD"; // Letters used for target words the word bank has no length for
+
+    // Board Size Settings (chosen at startup, e.g. java -Dwordy.rows=6 -Dwordy.cols=8 -Dwordy.wordLength=4 App)
+    public static final int MIN_BOARD_SIZE = 3;
+    public static final int MAX_BOARD_SIZE = 10;
+    public static final int NUMBER_OF_ROWS = readSetting("wordy.rows", 4, MIN_BOARD_SIZE, MAX_BOARD_SIZE);
+    public static final int NUMBER_OF_COLUMNS = readSetting("wordy.cols", 4, MIN_BOARD_SIZE, MAX_BOARD_SIZE);
+    public static final int WORD_LENGTH = readSetting("wordy.wordLength", 3, 2,
+            Math.max(NUMBER_OF_ROWS, NUMBER_OF_COLUMNS));
+
+    // Game Settings
+    public static final int NUMBER_OF_REMOVES = 3; // Number of removes allowed
+    public static final int POINTS_PER_MOVE = 50;
+
+    public static final String REPLAY_DIRECTORY = "replays"; // Directory where game replay logs are saved
+    public static final String SNAPSHOT_FILE = "saves/game.w8s"; // File holding the game to resume on start
+
+    public static final String DICTIONARY_FILE = System.getProperty("wordy.dictionary"); // Word list or compiled dictionary (-Dwordy.dictionary=...), if any
+    public static final int DICTIONARY_MIN_WORD_LENGTH = 3; // Shortest dictionary word that scores points
+    public static final int POINTS_PER_WORD_LETTER = 100; // Points for each letter of a dictionary word formed on the board
+    public static final String WORD_DIFFICULTY_FILE = System.getProperty("wordy.difficultyFile",
+            "word-difficulty.txt"); // Word ranking written by WordDifficultyRanker
+    public static final String WORD_DIFFICULTY = System.getProperty("wordy.difficulty"); // Band of target words to pick from (easy, medium or hard), if any
+    public static final int RANKER_MAX_STATES = 50_000; // Number of board states the word ranker explores per game
+    public static final String PUZZLE_FILE = System.getProperty("wordy.puzzles"); // Daily puzzle pack (-Dwordy.puzzles=...), if any
+    public static final int PUZZLE_MIN_MOVES = 4; // Fewest moves a generated puzzle may be solved in
+    public static final int PUZZLE_MAX_MOVES = 10; // Most moves a generated puzzle may need
+    public static final int PUZZLE_MAX_STATES = 200_000; // Number of board states explored to grade a puzzle candidate
+
+    public static final int SERVER_PORT = 5878; // Port the headless game server listens on by default
+    public static final int SERVER_MAX_SESSIONS = 10_000; // Number of sessions the game server serves at once
+    public static final int SERVER_BACKLOG = 1024; // Number of connections waiting to be accepted by the game server
+    public static final int SERVER_IDLE_TIMEOUT = 60_000; // Milliseconds before an idle server session is closed
+
+    public static final int SOLVER_MAX_STATES = 500_000; // Number of board states the solver explores before giving up
+    public static final long SOLVER_MEMORY_CAP = Long.getLong("wordy.solverMemory",
+            256L << 20); // Bytes of off-heap memory a solve uses before spilling to a temporary file
+    public static final int SOLVER_MAX_ACTIONS = 20; // Length of the longest solution the solver looks for
+    public static final boolean SOLVER_WILDCARD_BLANKS = true; // Whether the solver leaves blank tile letters open until needed
+    public static final boolean SOLVER_PRESOLVE = Boolean.parseBoolean(System.getProperty("wordy.presolve",
+            "true")); // Whether the position is solved in the background while the player is idle
+    public static final double SOLVER_TOOL_DELAY = 0.5; // Seconds between a tool action of a shown solution and the next action
+    public static final double SOLVER_MOVE_DELAY = 1.5; // Seconds between a move of a shown solution and the next action
+    public static final double SOLVER_PLAYBACK_SPEED = Double.parseDouble(System.getProperty("wordy.playbackSpeed",
+            "1")); // Speed a solution is shown at to begin with (1 is normal speed)
+    public static final double SOLVER_MIN_SPEED = 0.25; // Slowest speed a solution can be shown at
+    public static final double SOLVER_MAX_SPEED = 16; // Fastest speed a solution can be shown at
+    public static final boolean SOLVER_INSTANT = Boolean.getBoolean("wordy.instantSolve"); // Whether solutions are applied at once instead of shown
+    public static final String PATTERN_DATABASE_FILE = System.getProperty("wordy.patterns",
+            "patterns" + PatternDatabase.COMPILED_EXTENSION); // Compiled solver heuristic table, built if missing
+    public static final boolean BATCH_USE_VECTOR = Boolean.parseBoolean(System.getProperty("wordy.vector",
+            "true")); // Whether batched board updates may use the vector API when it is available
+    public static final boolean AUTOPLAY = Boolean.getBoolean("wordy.autoplay"); // Whether the bot plays from the start (toggled with F2)
+    public static final double AUTOPLAY_RATE = Double.parseDouble(System.getProperty("wordy.autoplayRate",
+            "4")); // Actions per second the bot plays, or 0 to play as fast as it can
+    public static final long AUTOPLAY_RESTART_DELAY = Long.getLong("wordy.autoplayRestart",
+            3000); // Milliseconds a finished game of the bot stays on screen before a new one starts
+    public static final int AUTOPLAY_MAX_ACTIONS = 1000; // Number of actions after which the bot gives up a game
+    public static final int AUTOPLAY_RANDOM_MOVES = 4; // Random moves the bot plays when it finds no solution
+    public static final int HINT_MAX_STATES = 100_000; // Number of new board states a single hint explores at most
+    public static final String NTUPLE_WEIGHTS_FILE = System.getProperty("wordy.weights",
+            "weights" + NTupleNetwork.COMPILED_EXTENSION); // Weights trained by NTupleTrainer, used by hints the search cannot answer
+    public static final int UNDO_LIMIT = 200; // Number of actions that can be undone
+    public static final String METRICS_FILE = System.getProperty("wordy.metricsFile",
+            "metrics/game-metrics.txt"); // File the game metrics are written to periodically (empty to not write them)
+    public static final long METRICS_INTERVAL = Long.getLong("wordy.metricsInterval",
+            10_000); // Milliseconds between two writes of the game metrics
+
+    // Picks a random target word of the configured length, from the word bank when it has words of that length
+    public static String pickTargetWord(Random random) {
+        List<String> words = getWordBankWords();
+        if (!words.isEmpty()) return words.get(random.nextInt(words.size()));
+
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < WORD_LENGTH; i++) word.append(WORD_LETTERS.charAt(random.nextInt(WORD_LETTERS.length())));
+        return word.toString();
+    }
+
+    // Returns the word bank words of the configured length
+    public static List<String> getWordBankWords() {
+        return WORD_BANK.stream().filter(word -> word.length() == WORD_LENGTH).collect(Collectors.toList());
+    }
+
+    // Picks a random target word from the given words (dictionary words or a difficulty band), falling back to the
+    // word bank when there are none
+    public static String pickTargetWord(Random random, List<String> words) {
+        if (words.isEmpty()) return pickTargetWord(random);
+        return words.get(random.nextInt(words.size()));
+    }
+
+    // Reads an integer setting from the system properties, keeping it within the allowed range
+    private static int readSetting(String name, int defaultValue, int min, int max) {
+        int value = Integer.getInteger(name, defaultValue);
+        if (value < min || value > max) {
+            System.err.println("Setting " + name + "=" + value + " is out of range, using " + defaultValue);
+            return Math.max(min, Math.min(max, defaultValue));
+        }
+        return value;
+    }
+
+}
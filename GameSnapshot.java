@@ -0,0 +1,99 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// The GameSnapshot class holds everything needed to resume a game (seed, target word, score, removes left and the
+// full board including lock states and blank tiles) and converts it to and from a small versioned binary format.
+//
+// Layout (all numbers big-endian): magic (int), version (byte), seed (long), score (int), removes left (byte),
+// target word length (byte) and letters, rows (byte), cols (byte), one packed byte per cell, then a CRC32 (int) of
+// everything before it so that a torn or corrupted file is rejected instead of restored.
+
+public class GameSnapshot {
+
+    // Format constants
+    public static final int MAGIC = 0x5738534E; // "W8SN"
+    public static final int VERSION = 1;
+
+    // Instance variables
+    private final long seed; // Seed the game was started from
+    private final String targetWord; // The target word of the game
+    private final int score; // Score of the player
+    private final int removeCounter; // Number of removes left
+    private final BoardState state; // Tiles on the board
+
+    // Constructor: Creates a snapshot of the given game state
+    public GameSnapshot(long seed, String targetWord, int score, int removeCounter, BoardState state) {
+        this.seed = seed;
+        this.targetWord = targetWord;
+        this.score = score;
+        this.removeCounter = removeCounter;
+        this.state = state;
+    }
+
+    // Encodes the snapshot into its binary form
+    public byte[] toBytes() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        DataOutputStream stream = new DataOutputStream(buffer);
+        try {
+            stream.writeInt(MAGIC);
+            stream.writeByte(VERSION);
+            stream.writeLong(this.seed);
+            stream.writeInt(this.score);
+            stream.writeByte(this.removeCounter);
+            stream.writeByte(this.targetWord.length());
+            stream.writeBytes(this.targetWord);
+            stream.writeByte(this.state.getRows());
+            stream.writeByte(this.state.getCols());
+            for (int cell = 0; cell < this.state.getCellCount(); cell++) stream.writeByte(this.state.getPackedCell(cell));
+
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.toByteArray());
+            stream.writeInt((int) checksum.getValue());
+        } catch (IOException e) {
+            // Writing to an in-memory buffer cannot fail
+            throw new IllegalStateException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // Decodes a snapshot from its binary form, rejecting unknown versions and corrupted data
+    public static GameSnapshot fromBytes(byte[] bytes) throws IOException {
+        if (bytes.length < 4) throw new IOException("Snapshot is truncated");
+
+        // Check the checksum before trusting any of the contents
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, bytes.length - 4);
+        DataInputStream stream = new DataInputStream(new ByteArrayInputStream(bytes));
+        stream.skipBytes(bytes.length - 4);
+        if (stream.readInt() != (int) checksum.getValue()) throw new IOException("Snapshot checksum mismatch");
+
+        stream = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4));
+        if (stream.readInt() != MAGIC) throw new IOException("Not a game snapshot");
+        int version = stream.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+
+        long seed = stream.readLong();
+        int score = stream.readInt();
+        int removeCounter = stream.readUnsignedByte();
+        byte[] word = new byte[stream.readUnsignedByte()];
+        stream.readFully(word);
+        int rows = stream.readUnsignedByte();
+        int cols = stream.readUnsignedByte();
+        BoardState state = new BoardState(rows, cols);
+        for (int cell = 0; cell < state.getCellCount(); cell++) state.setPackedCell(cell, stream.readUnsignedByte());
+
+        return new GameSnapshot(seed, new String(word, StandardCharsets.US_ASCII), score, removeCounter, state);
+    }
+
+    // Important getters
+    public long getSeed() {return this.seed;}
+    public String getTargetWord() {return this.targetWord;}
+    public int getScore() {return this.score;}
+    public int getRemoveCounter() {return this.removeCounter;}
+    public BoardState getState() {return this.state;}
+}
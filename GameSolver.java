@@ -0,0 +1,307 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+// The GameSolver class finds the shortest sequence of actions that forms the target word, using the player's moves
+// and tools: locking and unlocking tiles, typing letters on blank tiles and removing tiles within the remaining
+// remove budget. It only works on BoardStates, so a solve can run on any thread, and can be cancelled part way
+// through. SolveGame plays its solutions on screen and SpeculativeSolver runs it in the background while the player
+// is idle.
+
+public class GameSolver {
+
+    // The result of a solve: the actions to play (see SolverAction) and the new tile that appears after each one,
+    // or the single action SolverAction.NONE if there is no solution
+    public static class Solution {
+        private final List<Integer> actions;
+        private final List<SolveGame.TileInfo> newTiles; // New tile appearing after each action, or null if none appears
+        private final long statesExplored; // Board states the search went through before answering
+
+        public Solution(List<Integer> actions, List<SolveGame.TileInfo> newTiles, long statesExplored) {
+            this.actions = actions;
+            this.newTiles = newTiles;
+            this.statesExplored = statesExplored;
+        }
+
+        // The answer when the word cannot be formed
+        public static Solution none(long statesExplored) {
+            return new Solution(Collections.singletonList(SolverAction.NONE), new ArrayList<>(), statesExplored);
+        }
+
+        // Important getters
+        public List<Integer> getActions() {return this.actions;}
+        public List<SolveGame.TileInfo> getNewTiles() {return this.newTiles;}
+        public long getStatesExplored() {return this.statesExplored;}
+        public boolean isFound() {return !this.actions.equals(Collections.singletonList(SolverAction.NONE));}
+    }
+
+    // Instance variables
+    private final String targetWord; // Word the solutions form
+    private final int rows, cols; // Size of the boards solved
+
+    // Constructor: Creates a solver for the given word on boards of the given size
+    public GameSolver(String targetWord, int rows, int cols) {
+        this.targetWord = targetWord;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    // Solves the game with an A* search for the shortest sequence of actions that transforms the initial board into
+    // a state where the target word is formed. States are expanded in order of their depth plus a lower bound on the
+    // actions still needed, the larger of the BoardAnalyzer bound and the PatternDatabase estimate, so the search
+    // heads for the word instead of going through every shallower state first.
+    // The search keeps its nodes, visited states and frontier off the heap in a SearchStore, so large searches do not
+    // stall the game with garbage collection, and gives up after GameSettings.SOLVER_MAX_STATES states so that large
+    // boards answer "No Solution" in reasonable time. Hopeless boards are answered before searching, and states that
+    // cannot lead to a solution within GameSettings.SOLVER_MAX_ACTIONS actions or beat the best one found are dropped.
+    // The search stops and returns null as soon as isCancelled answers true, which it asks before each state.
+    public Solution solve(BoardState initialState, int removeCounter, BooleanSupplier isCancelled) {
+        Random random = new Random(); // Chooses the new tiles that appear in the simulated moves
+        char highestLetter = this.findHighestLetter();
+        WildcardMatcher wildcardMatcher = GameSettings.SOLVER_WILDCARD_BLANKS ? new WildcardMatcher(this.targetWord) : null;
+        PatternDatabase patterns = PatternDatabase.get();
+
+        // Best solution that still needs letters typed on blank tiles, kept until nothing shorter can turn up
+        long bestNode = -1;
+        WildcardMatcher.Resolution bestResolution = null;
+        int bestLength = Integer.MAX_VALUE;
+
+        try (SearchStore store = new SearchStore(initialState.getCellCount(), GameSettings.SOLVER_MEMORY_CAP)) {
+            // Give up at once if the target word can be proven out of reach
+            SearchNode initialNode = new SearchNode(initialState, removeCounter, null, SolverAction.NONE, null);
+            if (!this.estimate(initialNode, patterns, GameSettings.SOLVER_MAX_ACTIONS)) {
+                return Solution.none(0);
+            }
+
+            // Enqueue the initial state
+            initialNode.index = store.add(initialState, removeCounter, -1, SolverAction.NONE, -1, 0);
+            store.push(initialNode.index, initialNode.estimate);
+
+            // Perform the search
+            while (!store.isFrontierEmpty() && store.getStateCount() < GameSettings.SOLVER_MAX_STATES) {
+                if (isCancelled.getAsBoolean()) return null;
+
+                // Dequeue the most promising board state, unless it has been reached with fewer actions since
+                long index = store.poll();
+                if (store.isSuperseded(index)) continue;
+                SearchNode currentNode = this.loadNode(store, index);
+                if (currentNode.estimate >= bestLength) break;
+
+                // Check if the target word exists on the current board
+                if (currentNode.state.checkForWin(this.targetWord)) return this.traceSolution(store, index, null);
+
+                // Check if the word can be formed by typing letters on the blank tiles
+                if (wildcardMatcher != null) {
+                    WildcardMatcher.Resolution resolution = wildcardMatcher.resolve(currentNode.state);
+                    if (resolution != null && currentNode.depth + resolution.getCost() < bestLength) {
+                        bestNode = index;
+                        bestResolution = resolution;
+                        bestLength = currentNode.depth + resolution.getCost();
+                    }
+                }
+
+                // Explore each useful action and enqueue the states not reached before with as few actions
+                for (int action : this.findActions(currentNode, highestLetter, wildcardMatcher != null)) {
+                    SearchNode newNode = this.applyAction(currentNode, action, random);
+                    newNode.index = store.add(newNode.state, newNode.removeCounter, index, action,
+                            this.encodeTile(newNode.newTile), newNode.depth);
+                    if (newNode.index == -1) continue;
+                    if (this.estimate(newNode, patterns, Math.min(GameSettings.SOLVER_MAX_ACTIONS, bestLength - 1))) {
+                        store.push(newNode.index, newNode.estimate);
+                    }
+                }
+            }
+
+            if (bestNode != -1) return this.traceSolution(store, bestNode, bestResolution);
+
+            // If no solution is found, indicate failure
+            return Solution.none(store.getStateCount());
+        }
+    }
+
+    // Reads a node back from the search store
+    private SearchNode loadNode(SearchStore store, long index) {
+        BoardState state = store.getState(index, this.rows, this.cols);
+        SearchNode node = new SearchNode(state, store.getRemoveCounter(index), null, store.getAction(index), null);
+        node.index = index;
+        node.depth = store.getDepth(index);
+        node.estimate = store.getEstimate(index);
+        return node;
+    }
+
+    // Sets the estimated solution length of a node from the lower bounds on the actions still needed. Returns false
+    // if no solution through the node can be at most the given length.
+    private boolean estimate(SearchNode node, PatternDatabase patterns, int maxLength) {
+        int bound = BoardAnalyzer.minActionsToWin(node.state, this.targetWord, node.removeCounter);
+        if (bound == BoardAnalyzer.UNREACHABLE) return false;
+        node.estimate = node.depth + Math.max(bound, patterns.estimate(node.state, this.targetWord));
+        return node.estimate <= maxLength;
+    }
+
+    // Lists the actions worth trying from a node. Actions that can never do better than another one are left out:
+    // - tools used back to back commute, so they are only tried in increasing action order (by cell first)
+    // - letters only ever increase through merges, so a blank tile is only given letters up to the highest letter
+    //   of the target word. With wildcard blanks, letters that form the word are typed once a win needs them (see
+    //   WildcardMatcher), so a blank tile is only given the letters it could merge with
+    // - locking a tile that has no tile with the same letter in its row or column cannot stop a merge on the next
+    //   move, so it is left until it can
+    // - moves on a full board without merges change nothing
+    private List<Integer> findActions(SearchNode node, char highestLetter, boolean isWildcard) {
+        List<Integer> actions = new ArrayList<>();
+        BoardState state = node.state;
+        if (!state.isDeadlocked()) {
+            for (Directions direction : Directions.values()) {
+                if (direction != Directions.INVALID) actions.add(SolverAction.move(direction));
+            }
+        }
+
+        int lastTool = (node.action != SolverAction.NONE && !SolverAction.isMove(node.action)) ? node.action : -1;
+
+        // With wildcard blanks, a blank tile only takes a letter below the highest letter of the word that another
+        // tile has, so that it can merge with that tile
+        boolean[] lettersOnBoard = new boolean[26];
+        for (int cell = 0; cell < state.getCellCount(); cell++) {
+            char letter = state.getLetter(cell);
+            if (letter != '\0' && letter < highestLetter && !state.isBlank(cell)) lettersOnBoard[letter - 'A'] = true;
+        }
+        for (int row = 0; row < state.getRows(); row++) {
+            for (int col = 0; col < state.getCols(); col++) {
+                if (state.isEmpty(row, col)) continue;
+                int cell = state.index(row, col);
+                char letter = state.getLetter(row, col);
+
+                for (Locks lock : Locks.values()) {
+                    if (lock == state.getLock(row, col)) continue;
+                    if (lock == Locks.LOCKED && !this.hasMatchInLine(state, row, col)) continue;
+                    this.addTool(actions, SolverAction.lock(cell, lock), lastTool);
+                }
+                if (state.isBlank(row, col)) {
+                    for (char newLetter = 'A'; newLetter <= highestLetter; newLetter++) {
+                        if (newLetter == letter || (isWildcard && !lettersOnBoard[newLetter - 'A'])) continue;
+                        this.addTool(actions, SolverAction.letter(cell, newLetter), lastTool);
+                    }
+                }
+                if (node.removeCounter > 0) this.addTool(actions, SolverAction.remove(cell), lastTool);
+            }
+        }
+        return actions;
+    }
+
+    // Adds a tool action if it keeps the tools used back to back in increasing order
+    private void addTool(List<Integer> actions, int action, int lastTool) {
+        if (action > lastTool) actions.add(action);
+    }
+
+    // Checks whether another tile in the same row or column has the same letter, so the two could merge
+    private boolean hasMatchInLine(BoardState state, int row, int col) {
+        char letter = state.getLetter(row, col);
+        for (int other = 0; other < state.getCols(); other++) {
+            if (other != col && state.getLetter(row, other) == letter) return true;
+        }
+        for (int other = 0; other < state.getRows(); other++) {
+            if (other != row && state.getLetter(other, col) == letter) return true;
+        }
+        return false;
+    }
+
+    // Finds the highest letter of the target word
+    private char findHighestLetter() {
+        char highest = 'A';
+        for (char letter : this.targetWord.toCharArray()) highest = (char) Math.max(highest, letter);
+        return highest;
+    }
+
+    // Applies an action to a copy of the node's board and records the new tile, if one appears
+    private SearchNode applyAction(SearchNode node, int action, Random random) {
+        BoardState newState = new BoardState(node.state);
+        int removeCounter = node.removeCounter;
+        SolveGame.TileInfo newTileInfo = null;
+
+        if (SolverAction.isMove(action)) {
+            if (newState.move(SolverAction.getDirection(action), this.targetWord)) {
+                int newCell = newState.spawnRandomTile(random);
+                if (newCell != -1) {
+                    int newRow = newCell / newState.getCols();
+                    int newCol = newCell % newState.getCols();
+                    newTileInfo = new SolveGame.TileInfo(newRow, newCol, newState.getLetter(newRow, newCol));
+                }
+            }
+        } else {
+            applyTool(newState, action);
+            if (SolverAction.getType(action) == SolverAction.REMOVE) removeCounter--;
+        }
+        return new SearchNode(newState, removeCounter, node, action, newTileInfo);
+    }
+
+    // Applies a tool action (a lock, a letter or a remove) to the given state
+    public static void applyTool(BoardState state, int action) {
+        int row = SolverAction.getCell(action) / state.getCols();
+        int col = SolverAction.getCell(action) % state.getCols();
+        switch (SolverAction.getType(action)) {
+            case SolverAction.LOCK:
+                state.setLock(row, col, SolverAction.getLock(action));
+                break;
+            case SolverAction.LETTER:
+                state.setLetter(row, col, SolverAction.getLetter(action));
+                break;
+            case SolverAction.REMOVE:
+                state.removeTile(row, col);
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid tool action: " + action);
+        }
+    }
+
+    // Returns the actions and new tiles leading from the initial board to the given node, followed by the letters to
+    // type on blank tiles to form the word, if any
+    private Solution traceSolution(SearchStore store, long solutionNode, WildcardMatcher.Resolution resolution) {
+        LinkedList<Integer> actions = new LinkedList<>();
+        LinkedList<SolveGame.TileInfo> tiles = new LinkedList<>();
+        for (long node = solutionNode; store.getParent(node) != -1; node = store.getParent(node)) {
+            actions.addFirst(store.getAction(node));
+            tiles.addFirst(this.decodeTile(store.getNewTile(node)));
+        }
+        for (int i = 0; resolution != null && i < resolution.getCost(); i++) {
+            actions.addLast(SolverAction.letter(resolution.getCell(i), resolution.getLetter(i)));
+            tiles.addLast(null);
+        }
+        return new Solution(new ArrayList<>(actions), new ArrayList<>(tiles), store.getStateCount());
+    }
+
+    // Encodes a new tile as its cell * 256 + its letter, or -1 if there is none
+    private int encodeTile(SolveGame.TileInfo tile) {
+        if (tile == null) return -1;
+        return (tile.row * this.cols + tile.col) << 8 | tile.letter;
+    }
+
+    // Decodes a new tile encoded by encodeTile
+    private SolveGame.TileInfo decodeTile(int encoded) {
+        if (encoded == -1) return null;
+        int cell = encoded >> 8;
+        return new SolveGame.TileInfo(cell / this.cols, cell % this.cols, (char) (encoded & 0xFF));
+    }
+
+    // Search node class to hold a board state, the removes left and the action that led to it from its parent node
+    // while the node is being worked on; the search itself keeps its nodes in a SearchStore
+    private static class SearchNode {
+        BoardState state;
+        int removeCounter;
+        long index = -1; // Number of the node in the SearchStore
+        int action;
+        SolveGame.TileInfo newTile;
+        int depth;
+        int estimate; // Lower bound on the length of a solution through this node
+
+        public SearchNode(BoardState state, int removeCounter, SearchNode parent, int action,
+                          SolveGame.TileInfo newTile) {
+            this.state = state;
+            this.removeCounter = removeCounter;
+            this.action = action;
+            this.newTile = newTile;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+    }
+}
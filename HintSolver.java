@@ -0,0 +1,216 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+// The HintSolver class suggests the next best move for the current position and can be asked again after every move.
+// Instead of running a fresh breadth-first search for each hint, it keeps its search tree and transposition table
+// between calls: when asked about a position it has already reached in the tree, it re-roots the tree on that node,
+// keeps everything explored below it and only extends the search from the old frontier. Each hint therefore costs
+// less as the game goes on.
+//
+// New tiles are random, so the position after a move is only known once the move is played. To make sure the next
+// position is always in the tree, the children of the root are expanded with every possible new tile; deeper nodes
+// sample a single new tile like SolveGame does. Tool use (locks, removes, blank letters) leads to positions outside
+// the tree, which start a new search. Children that BoardAnalyzer proves hopeless, or whose PatternDatabase estimate
+// puts the word beyond GameSettings.SOLVER_MAX_ACTIONS moves from the root, are left out of the tree like GameSolver
+// drops them.
+//
+// A search can take a while, so HintWorker runs it on a background thread; a HintSolver is only ever used by one
+// thread at a time.
+//
+// When the search finds no win within its budget, the hint falls back to the move an NTupleNetwork values most, if
+// weights for the target word were trained, so even hard positions get a hint after a few table lookups.
+
+public class HintSolver {
+
+    // The suggested move for a position
+    public static class Hint {
+        final Directions direction; // Move to play next
+        final int movesToWin; // Length of the shortest winning line found, or -1 for a move chosen by the network
+        final int statesExplored; // Number of new states added to the tree to answer this hint
+        final int statesReused; // Number of states kept from earlier hints
+
+        Hint(Directions direction, int movesToWin, int statesExplored, int statesReused) {
+            this.direction = direction;
+            this.movesToWin = movesToWin;
+            this.statesExplored = statesExplored;
+            this.statesReused = statesReused;
+        }
+
+        // Important getters
+        public Directions getDirection() {return this.direction;}
+        public int getMovesToWin() {return this.movesToWin;}
+        public int getStatesExplored() {return this.statesExplored;}
+        public int getStatesReused() {return this.statesReused;}
+    }
+
+    // Node of the search tree
+    private static class Node {
+        final BoardState state; // Board after the move (and new tile) leading to this node
+        Node parent; // Node this one was first reached from, or null for the root
+        final Directions direction; // Move played from the parent
+        List<Node> children; // Nodes reached from this one, or null if it has not been expanded
+        boolean isFullyExpanded; // Whether the children cover every possible new tile rather than one sample
+        final boolean isWin; // Whether the target word is on the board
+        int depth; // Number of moves from the root
+
+        Node(BoardState state, Node parent, Directions direction, boolean isWin) {
+            this.state = state;
+            this.parent = parent;
+            this.direction = direction;
+            this.isWin = isWin;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+    }
+
+    // Instance variables
+    private final String targetWord; // The target word of the game
+    private final Random random; // Chooses the sampled new tiles
+    private final NTupleNetwork network; // Learned evaluation used when the search finds no win, or null
+    private final PatternDatabase patterns; // Lower bounds used to leave hopeless children out of the tree
+    private Map<BoardState, Node> table; // Every state in the tree, so that transpositions are expanded only once
+    private ArrayDeque<Node> frontier; // Nodes waiting to be expanded, shallowest first
+    private Node root; // Node of the position the last hint was asked for
+    private Node bestWin; // Shallowest winning node found below the root, if any
+
+    // Constructor: Creates a solver for games with the given target word
+    public HintSolver(String targetWord) {
+        this.targetWord = targetWord;
+        this.random = new Random();
+        this.network = NTupleNetwork.get();
+        this.patterns = PatternDatabase.get();
+        this.table = new HashMap<>();
+        this.frontier = new ArrayDeque<>();
+    }
+
+    // Suggests a move for the given position, adding at most the given number of new states to the tree (checked
+    // between expansions, so the last one may go a few states over). Without a winning line within the budget,
+    // suggests the move the network values most, or returns null if there is no network for the target word.
+    // Returns null as soon as isCancelled answers true, which it asks before each expansion; the tree is left whole
+    // for the next hint.
+    public Hint findHint(BoardState position, int maxNewStates, BooleanSupplier isCancelled) {
+        if (BoardAnalyzer.minActionsToWin(position, this.targetWord, 0) == BoardAnalyzer.UNREACHABLE) return null;
+        int reused = this.moveRoot(position);
+
+        // Keep searching breadth-first from where the last hint left off
+        while (this.bestWin == null && !this.frontier.isEmpty() && this.table.size() - reused < maxNewStates
+                && this.table.size() < GameSettings.SOLVER_MAX_STATES) {
+            if (isCancelled.getAsBoolean()) return null;
+            Node node = this.frontier.poll();
+            if (node.children != null) continue; // Already expanded while it was the root
+            this.expand(node, node == this.root);
+        }
+        int explored = this.table.size() - reused;
+        if (this.bestWin == this.root) return null;
+        if (this.bestWin == null) {
+            Directions direction = this.network == null ? null : this.network.findBestMove(position, this.targetWord);
+            return direction == null ? null : new Hint(direction, -1, explored, reused);
+        }
+
+        // Walk back up to the move played from the root
+        Node first = this.bestWin;
+        while (first.parent != this.root) first = first.parent;
+        return new Hint(first.direction, this.bestWin.depth, explored, reused);
+    }
+
+    // Re-roots the tree on the given position if it has been reached before, otherwise starts a new tree. Returns the
+    // number of states kept.
+    private int moveRoot(BoardState position) {
+        Node node = this.table.get(position);
+        this.table = new HashMap<>();
+        this.frontier = new ArrayDeque<>();
+        this.bestWin = null;
+        if (node == null) {
+            this.root = new Node(new BoardState(position), null, Directions.INVALID, position.checkForWin(this.targetWord));
+            this.table.put(this.root.state, this.root);
+            this.frontier.add(this.root);
+            if (this.root.isWin) this.bestWin = this.root;
+            return 0;
+        }
+
+        // Keep only the subtree below the new root
+        this.root = node;
+        this.root.parent = null;
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        queue.add(this.root);
+        while (!queue.isEmpty()) {
+            Node current = queue.poll();
+            this.table.put(current.state, current);
+            if (current.children != null) queue.addAll(current.children);
+        }
+        int reused = this.table.size();
+
+        // The next position must be in the tree whatever tile appears, so the root needs every new tile
+        if (this.root.children != null && !this.root.isFullyExpanded && !this.root.isWin) this.expand(this.root, true);
+
+        // Rebuild the depths and the frontier in breadth-first order
+        this.frontier.clear();
+        this.bestWin = null;
+        queue.add(this.root);
+        while (!queue.isEmpty()) {
+            Node current = queue.poll();
+            current.depth = current.parent == null ? 0 : current.parent.depth + 1;
+            if (current.isWin) {
+                if (this.bestWin == null) this.bestWin = current;
+            } else if (current.children == null) this.frontier.add(current);
+            else queue.addAll(current.children);
+        }
+        return reused;
+    }
+
+    // Expands a node with its children for each move, either with every possible new tile or with one sample
+    private void expand(Node node, boolean allTiles) {
+        if (node.children == null) node.children = new ArrayList<>();
+        node.isFullyExpanded = allTiles;
+        if (node.state.isDeadlocked()) return; // A full board without merges cannot change any more
+
+        for (Directions direction : Directions.values()) {
+            if (direction == Directions.INVALID) continue;
+            BoardState moved = new BoardState(node.state);
+            if (!moved.move(direction, this.targetWord)) this.addChild(node, moved, direction); // Won without a new tile
+            else if (moved.isFull()) this.addChild(node, moved, direction);
+            else if (!allTiles) {
+                moved.spawnRandomTile(this.random);
+                this.addChild(node, moved, direction);
+            } else {
+                // Every empty cell can receive an 'A' or a 'B', blank if the board has no blank tile left
+                boolean isBlank = !moved.hasBlankTile();
+                for (int row = 0; row < moved.getRows(); row++) {
+                    for (int col = 0; col < moved.getCols(); col++) {
+                        if (!moved.isEmpty(row, col)) continue;
+                        for (char letter = 'A'; letter <= 'B'; letter++) {
+                            BoardState spawned = new BoardState(moved);
+                            spawned.placeTile(row, col, letter, isBlank);
+                            this.addChild(node, spawned, direction);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Adds a child state to the tree unless it is already in it or cannot lead to the word in time
+    private void addChild(Node parent, BoardState state, Directions direction) {
+        if (this.table.containsKey(state) || this.isHopeless(state, parent.depth + 1)) return;
+        Node child = new Node(state, parent, direction, state.checkForWin(this.targetWord));
+        parent.children.add(child);
+        this.table.put(state, child);
+        if (child.isWin) {
+            if (this.bestWin == null || child.depth < this.bestWin.depth) this.bestWin = child;
+        } else this.frontier.add(child);
+    }
+
+    // Checks whether the word is proven out of reach from a state, or further than the solver looks from the root
+    private boolean isHopeless(BoardState state, int depth) {
+        int bound = BoardAnalyzer.minActionsToWin(state, this.targetWord, 0);
+        if (bound == BoardAnalyzer.UNREACHABLE) return true;
+        return depth + Math.max(bound, this.patterns.estimate(state, this.targetWord)) > GameSettings.SOLVER_MAX_ACTIONS;
+    }
+
+    // Number of states currently kept in the tree
+    public int getTreeSize() {return this.table.size();}
+}
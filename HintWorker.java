@@ -0,0 +1,95 @@
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// The HintWorker class answers the Hint button without blocking the JavaFX thread, which also drives the game loop.
+// Hints are searched one at a time by the HintSolver of the current game on a single background daemon thread, which
+// keeps the solver's tree between hints. The game loop picks up the answer once it is ready and hands it to the
+// game, unless the position has changed since the hint was asked for, in which case the search is cancelled before
+// its next expansion and its answer is dropped.
+//
+// Every method is called on the JavaFX thread.
+
+public class HintWorker {
+
+    // A hint being searched for one position
+    private static class Request {
+        private final long hash; // Zobrist hash of the position
+        private volatile boolean isCancelled; // Whether the search should stop
+        private Future<HintSolver.Hint> result; // The hint, or null if there is none or the search was cancelled
+
+        private Request(long hash) {
+            this.hash = hash;
+        }
+    }
+
+    // Instance variables
+    private final ExecutorService worker; // Single background thread running the searches
+    private String targetWord; // Target word of the current game
+    private HintSolver solver; // Search of the current game, created by its first hint (worker thread only)
+    private Request request; // The hint being searched, or null
+
+    // Constructor: Creates a worker with no hint to search yet
+    public HintWorker() {
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hint-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Starts the hints of a new game, dropping the search of the previous one
+    public void reset(String targetWord) {
+        this.cancel();
+        this.targetWord = targetWord;
+        this.worker.execute(() -> this.solver = null);
+    }
+
+    // Whether a hint is being searched for the position with the given hash
+    public boolean isSearching(long hash) {
+        return this.request != null && this.request.hash == hash;
+    }
+
+    // Starts searching a hint for the given position and hands it to onHint on the JavaFX thread once found, or null
+    // if there is no hint. Cancels the hint being searched, if any.
+    public void request(BoardState state, long hash, int maxNewStates, Consumer<HintSolver.Hint> onHint) {
+        this.cancel();
+        Request request = new Request(hash);
+        String targetWord = this.targetWord;
+        request.result = this.worker.submit(() -> {
+            if (this.solver == null) this.solver = new HintSolver(targetWord); // Loads its tables off the JavaFX thread
+            return this.solver.findHint(state, maxNewStates, () -> request.isCancelled);
+        });
+        this.request = request;
+
+        GameLoop.get().add(() -> {
+            if (request.isCancelled) return false;
+            if (!request.result.isDone()) return true;
+            this.request = null;
+            onHint.accept(this.getResult(request));
+            return false;
+        });
+    }
+
+    // Stops the hint being searched, if any, because the position has changed
+    public void cancel() {
+        if (this.request == null) return;
+        this.request.isCancelled = true;
+        this.request = null;
+    }
+
+    // Returns the hint of a finished search, or null if it failed
+    private HintSolver.Hint getResult(Request request) {
+        try {
+            return request.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("Hint search failed: " + e.getCause());
+            return null;
+        }
+    }
+}
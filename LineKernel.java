@@ -0,0 +1,130 @@
+import java.util.concurrent.ConcurrentHashMap;
+
+// The LineKernel class holds the one slide and merge traversal shared by Board (the tiles on screen) and BoardState
+// (the model used by the solvers and headless tools), so gameplay and solver always follow the same rules. For each
+// direction it precomputes the order of the cells of a board, line by line and starting from the leading edge of each
+// line, so the traversal is the same compact loop for every direction with no direction test inside it.
+//
+// The kernel only reads the letters and lock statuses of the cells, indexed as in BoardState (row * cols + col), and
+// writes the changes to make into a buffer. Each caller applies them to its own tiles, in the order they are listed.
+// Kernels hold no mutable state and are shared by every board of the same size and every thread.
+
+public class LineKernel {
+
+    private static final ConcurrentHashMap<Integer, LineKernel> KERNELS = new ConcurrentHashMap<>(); // By board size
+
+    // Instance variables
+    private final int cellCount; // Number of cells on the board
+    private final int[][] orders; // Cells of the board in traversal order, by direction ordinal (null for INVALID)
+    private final int[] lineLengths; // Number of cells in each line, by direction ordinal
+
+    // Constructor: Precomputes the traversal order of every direction for a board of the given size
+    private LineKernel(int rows, int cols) {
+        this.cellCount = rows * cols;
+        this.orders = new int[Directions.values().length][];
+        this.lineLengths = new int[Directions.values().length];
+        for (Directions direction : Directions.values()) {
+            if (direction == Directions.INVALID) continue;
+            boolean isHorizontal = isHorizontal(direction);
+            int lineCount = isHorizontal ? rows : cols;
+            int lineLength = isHorizontal ? cols : rows;
+            int[] order = new int[this.cellCount];
+            for (int line = 0; line < lineCount; line++) {
+                for (int position = 0; position < lineLength; position++) {
+                    // Position 0 is the leading edge, the cell tiles slide towards
+                    int row, col;
+                    switch (direction) {
+                        case LEFT:
+                            row = line;
+                            col = position;
+                            break;
+                        case RIGHT:
+                            row = line;
+                            col = cols - 1 - position;
+                            break;
+                        case UP:
+                            row = position;
+                            col = line;
+                            break;
+                        default:
+                            row = rows - 1 - position;
+                            col = line;
+                            break;
+                    }
+                    order[line * lineLength + position] = row * cols + col;
+                }
+            }
+            this.orders[direction.ordinal()] = order;
+            this.lineLengths[direction.ordinal()] = lineLength;
+        }
+    }
+
+    // Returns the kernel of boards of the given size
+    public static LineKernel of(int rows, int cols) {
+        return KERNELS.computeIfAbsent(rows << 16 | cols, key -> new LineKernel(rows, cols));
+    }
+
+    // Whether tiles moving in the given direction slide along rows rather than columns
+    public static boolean isHorizontal(Directions direction) {
+        return direction == Directions.LEFT || direction == Directions.RIGHT;
+    }
+
+    // Creates a buffer large enough for the changes of any slide or merge
+    public int[] newBuffer() {return new int[2 * this.cellCount];}
+
+    // Works out how every tile that is not double locked slides as far as possible in the given direction. Double
+    // locked tiles stay in place and block the tiles behind them. Writes the cell each moving tile leaves and the
+    // cell it moves to, one pair after another, and returns the number of tiles that move. Applying the moves in
+    // that order only ever moves a tile into an empty cell.
+    public int slide(Directions direction, char[] letters, Locks[] locks, int[] moves) {
+        int[] order = this.getOrder(direction);
+        int lineLength = this.lineLengths[direction.ordinal()];
+        int count = 0;
+        for (int first = 0; first < order.length; first += lineLength) {
+            int target = first; // Position nearest the leading edge that the next tile can move into
+            for (int position = first, end = first + lineLength; position < end; position++) {
+                int cell = order[position];
+                if (letters[cell] == '\0') continue;
+                if (locks[cell] == Locks.DOUBLELOCKED) {
+                    target = position + 1;
+                    continue;
+                }
+                if (target != position) {
+                    moves[count++] = cell;
+                    moves[count++] = order[target];
+                }
+                target++;
+            }
+        }
+        return count / 2;
+    }
+
+    // Works out which adjacent unlocked tiles with the same letter merge in the given direction, starting from the
+    // leading edge of each line. Writes the cell of the tile that takes the next letter and the cell of the tile it
+    // absorbs, one pair after another, and returns the number of merges. A tile merges at most once per move.
+    public int merge(Directions direction, char[] letters, Locks[] locks, int[] merges) {
+        int[] order = this.getOrder(direction);
+        int lineLength = this.lineLengths[direction.ordinal()];
+        int count = 0;
+        for (int first = 0; first < order.length; first += lineLength) {
+            for (int position = first, last = first + lineLength - 1; position < last; position++) {
+                int current = order[position];
+                int next = order[position + 1];
+                if (letters[current] != '\0' && letters[current] == letters[next]
+                        && locks[current] == Locks.UNLOCKED && locks[next] == Locks.UNLOCKED) {
+                    merges[count++] = current;
+                    merges[count++] = next;
+                    position++; // The absorbed tile leaves its cell empty, so it cannot merge again
+                }
+            }
+        }
+        return count / 2;
+    }
+
+    // Cells of the board in traversal order for the given direction
+    private int[] getOrder(Directions direction) {
+        int[] order = this.orders[direction.ordinal()];
+        if (order == null) throw new IllegalArgumentException("Invalid direction: " + direction);
+        return order;
+    }
+}
@@ -0,0 +1,156 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// The MoveTrace class emits Java Flight Recorder events for each stage of a move, so a recording shows where the
+// time between an arrow key and the new tile goes. A move is handled in stages: the key handler updates the board,
+// then the Board's Slide, an updatable of the GameLoop, moves the tiles over many steps, then the tiles merge and a
+// new tile appears (after a second slide when something merged). Every event carries the id of the move it belongs to, given out when the
+// move starts, and MoveTraceAnalyzer turns a recording into a per-stage latency breakdown:
+//
+//     java -XX:StartFlightRecording=filename=moves.jfr App
+//     java MoveTraceAnalyzer moves.jfr
+//
+// The events cost next to nothing when no recording is running. All methods are called on the JavaFX thread.
+
+public class MoveTrace {
+
+    @Name("wordy.KeyReceived")
+    @Label("Key Received")
+    @Category("20Wordy8")
+    @Description("An arrow key that moves the tiles reached the game")
+    @StackTrace(false)
+    public static class KeyReceived extends Event {
+        @Label("Move Id")
+        long moveId;
+        @Label("Direction")
+        String direction;
+    }
+
+    @Name("wordy.ModelUpdated")
+    @Label("Model Updated")
+    @Category("20Wordy8")
+    @Description("The tiles of a move reached their new cells on the board, before being animated")
+    @StackTrace(false)
+    public static class ModelUpdated extends Event {
+        @Label("Move Id")
+        long moveId;
+    }
+
+    @Name("wordy.Animation")
+    @Label("Animation")
+    @Category("20Wordy8")
+    @Description("The tiles of a move slid from their old cells to their new ones on screen")
+    @StackTrace(false)
+    public static class Animation extends Event {
+        @Label("Move Id")
+        long moveId;
+        @Label("Frames")
+        int frames;
+    }
+
+    @Name("wordy.Merge")
+    @Label("Merge")
+    @Category("20Wordy8")
+    @Description("The tiles of a move were merged, if any matched")
+    @StackTrace(false)
+    public static class Merge extends Event {
+        @Label("Move Id")
+        long moveId;
+        @Label("Tiles Merged")
+        boolean hasMerged;
+    }
+
+    @Name("wordy.Spawn")
+    @Label("Spawn")
+    @Category("20Wordy8")
+    @Description("The new tile of a move appeared")
+    @StackTrace(false)
+    public static class Spawn extends Event {
+        @Label("Move Id")
+        long moveId;
+        @Label("Row")
+        int row;
+        @Label("Column")
+        int col;
+        @Label("Letter")
+        char letter;
+    }
+
+    @Name("wordy.Outcome")
+    @Label("Outcome")
+    @Category("20Wordy8")
+    @Description("The game was found to be won or lost after a move")
+    @StackTrace(false)
+    public static class Outcome extends Event {
+        @Label("Move Id")
+        long moveId;
+        @Label("Won")
+        boolean isWon;
+    }
+
+    private static long lastMove; // Id of the last move started, 0 before the first one
+
+    // Starts a new move of the tiles on screen, played by the player or by the solver
+    public static void startMove() {lastMove++;}
+
+    // Notes the time a key was received, before it is known whether it moves the tiles
+    public static KeyReceived keyReceived() {
+        KeyReceived event = new KeyReceived();
+        event.begin(); // An instant event, committed by keyHandled once the key turned out to move the tiles
+        event.end();
+        return event;
+    }
+
+    // The key moved the tiles in the given direction, as the last move started
+    public static void keyHandled(KeyReceived event, String direction) {
+        if (!event.shouldCommit()) return;
+        event.moveId = lastMove;
+        event.direction = direction;
+        event.commit();
+    }
+
+    public static void modelUpdated() {
+        ModelUpdated event = new ModelUpdated();
+        if (!event.isEnabled()) return;
+        event.moveId = lastMove;
+        event.commit();
+    }
+
+    // Starts timing the slide of the tiles, returning the event to end when they have snapped into place
+    public static Animation animationStarted() {
+        Animation event = new Animation();
+        event.moveId = lastMove;
+        event.begin();
+        return event;
+    }
+
+    public static void merged(boolean hasMerged) {
+        Merge event = new Merge();
+        if (!event.isEnabled()) return;
+        event.moveId = lastMove;
+        event.hasMerged = hasMerged;
+        event.commit();
+    }
+
+    public static void spawned(int row, int col, char letter) {
+        Spawn event = new Spawn();
+        if (!event.isEnabled()) return;
+        event.moveId = lastMove;
+        event.row = row;
+        event.col = col;
+        event.letter = letter;
+        event.commit();
+    }
+
+    public static void outcome(boolean isWon) {
+        Outcome event = new Outcome();
+        if (!event.isEnabled()) return;
+        event.moveId = lastMove;
+        event.isWon = isWon;
+        event.commit();
+    }
+}
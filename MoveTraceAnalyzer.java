@@ -0,0 +1,118 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+// The MoveTraceAnalyzer class reads a flight recording made while playing and breaks the time of each move down into
+// the stages traced by MoveTrace, from the arrow key to the new tile. For every stage it prints how many moves went
+// through it and the mean, median, 95th percentile and longest time in milliseconds. Moves played by the solver
+// have no key event, so they only count towards the stages after the key.
+//
+// Usage: java MoveTraceAnalyzer <recording.jfr>
+
+public class MoveTraceAnalyzer {
+
+    // Stages of a move, in the order they happen
+    private static final String[] STAGES = {"key -> model updated", "model updated -> animation start", "animation",
+            "animation end -> merge", "merge -> new tile", "key -> new tile", "new tile -> outcome"};
+
+    // The first event of each type traced for a move
+    private static class Move {
+        private RecordedEvent key, model, animation, merge, spawn, outcome;
+        private int animationFrames; // Frames of all the slides of the move (two when tiles merged)
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java MoveTraceAnalyzer <recording.jfr>");
+            return;
+        }
+
+        Map<Long, Move> moves = new TreeMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(Paths.get(args[0]))) {
+            String name = event.getEventType().getName();
+            if (!name.startsWith("wordy.")) continue;
+            Move move = moves.computeIfAbsent(event.getLong("moveId"), id -> new Move());
+            switch (name) {
+                case "wordy.KeyReceived":
+                    if (move.key == null) move.key = event;
+                    break;
+                case "wordy.ModelUpdated":
+                    if (move.model == null) move.model = event;
+                    break;
+                case "wordy.Animation":
+                    if (move.animation == null) move.animation = event;
+                    move.animationFrames += event.getInt("frames");
+                    break;
+                case "wordy.Merge":
+                    if (move.merge == null) move.merge = event;
+                    break;
+                case "wordy.Spawn":
+                    if (move.spawn == null) move.spawn = event;
+                    break;
+                case "wordy.Outcome":
+                    if (move.outcome == null) move.outcome = event;
+                    break;
+                default:
+                    break;
+            }
+        }
+        moves.remove(0L); // Events before the first move, such as the starting tiles
+
+        Map<String, List<Double>> stageTimes = new LinkedHashMap<>();
+        for (String stage : STAGES) stageTimes.put(stage, new ArrayList<>());
+        long frames = 0, animations = 0;
+        for (Move move : moves.values()) {
+            addTime(stageTimes.get(STAGES[0]), start(move.key), start(move.model));
+            addTime(stageTimes.get(STAGES[1]), start(move.model), start(move.animation));
+            addTime(stageTimes.get(STAGES[2]), start(move.animation), end(move.animation));
+            addTime(stageTimes.get(STAGES[3]), end(move.animation), start(move.merge));
+            addTime(stageTimes.get(STAGES[4]), start(move.merge), start(move.spawn));
+            addTime(stageTimes.get(STAGES[5]), start(move.key), start(move.spawn));
+            addTime(stageTimes.get(STAGES[6]), start(move.spawn), start(move.outcome));
+            if (move.animation != null) {
+                frames += move.animationFrames;
+                animations++;
+            }
+        }
+
+        System.out.printf("%d moves traced, %.1f animation frames per move%n", moves.size(),
+                animations == 0 ? 0.0 : (double) frames / animations);
+        System.out.printf("%-34s %7s %9s %9s %9s %9s%n", "stage (ms)", "moves", "mean", "median", "p95", "max");
+        for (Map.Entry<String, List<Double>> entry : stageTimes.entrySet()) {
+            List<Double> times = entry.getValue();
+            if (times.isEmpty()) {
+                System.out.printf("%-34s %7d%n", entry.getKey(), 0);
+                continue;
+            }
+            Collections.sort(times);
+            double total = 0;
+            for (double time : times) total += time;
+            System.out.printf("%-34s %7d %9.3f %9.3f %9.3f %9.3f%n", entry.getKey(), times.size(),
+                    total / times.size(), percentile(times, 0.5), percentile(times, 0.95), times.get(times.size() - 1));
+        }
+    }
+
+    // Adds the time between two events of a move, if the move has both
+    private static void addTime(List<Double> times, Instant from, Instant to) {
+        if (from == null || to == null) return;
+        times.add(Duration.between(from, to).toNanos() / 1e6);
+    }
+
+    private static Instant start(RecordedEvent event) {return event == null ? null : event.getStartTime();}
+    private static Instant end(RecordedEvent event) {return event == null ? null : event.getEndTime();}
+
+    // Value below which the given fraction of the sorted times fall
+    private static double percentile(List<Double> sortedTimes, double fraction) {
+        int index = (int) Math.ceil(fraction * sortedTimes.size()) - 1;
+        return sortedTimes.get(Math.max(0, index));
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// The MultiTargetSolver class finds, in a single breadth-first search, the fewest moves needed to form each of several
+// target words from one position. Every state is scanned once for all the words through a WordDictionary built from
+// them, so measuring a whole word bank costs one search per position instead of one per word. New tiles are sampled
+// like in SolveGame, and only moves are used.
+//
+// A move stops before merging when the slide already forms the target word, so which tiles merge depends on the
+// word. The search therefore scans the board after the slide as well as after the merge and the new tile: a word
+// found after the slide is formed by the move whatever happens next, and any other word sees the same merges as it
+// would as the only target.
+
+public class MultiTargetSolver {
+
+    // Instance variables
+    private final WordDictionary dictionary; // The target words, indexed for scanning
+    private final int minLength; // Length of the shortest target word
+
+    // Constructor: Creates a solver for the given target words
+    public MultiTargetSolver(List<String> words) {
+        this.dictionary = WordDictionary.build(words);
+        int minLength = Integer.MAX_VALUE;
+        for (int word = 0; word < this.dictionary.getWordCount(); word++) {
+            minLength = Math.min(minLength, this.dictionary.getWordLength(word));
+        }
+        this.minLength = minLength;
+    }
+
+    // Finds the fewest moves to form each word from the given position, exploring at most the given number of
+    // states. Words that were not formed within the budget are left out of the result.
+    public Map<String, Integer> solve(BoardState start, int maxStates, Random random) {
+        int[] moves = new int[this.dictionary.getWordCount()];
+        Arrays.fill(moves, -1);
+        int[] remaining = {moves.length};
+        this.record(start, 0, moves, remaining);
+
+        // Search level by level so that the first time a word is seen is with the fewest moves
+        Set<BoardState> visited = new HashSet<>();
+        visited.add(start);
+        List<BoardState> level = new ArrayList<>();
+        level.add(start);
+        for (int depth = 1; remaining[0] > 0 && !level.isEmpty() && visited.size() < maxStates; depth++) {
+            List<BoardState> nextLevel = new ArrayList<>();
+            for (BoardState state : level) {
+                if (state.isDeadlocked()) continue; // A full board without merges cannot change any more
+                for (Directions direction : Directions.values()) {
+                    if (direction == Directions.INVALID) continue;
+                    BoardState moved = new BoardState(state);
+                    moved.slide(direction);
+                    this.record(moved, depth, moves, remaining);
+                    if (moved.merge(direction)) moved.slide(direction);
+                    moved.spawnRandomTile(random);
+                    this.record(moved, depth, moves, remaining);
+                    if (visited.add(moved)) nextLevel.add(moved);
+                }
+            }
+            level = nextLevel;
+        }
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int word = 0; word < moves.length; word++) {
+            if (moves[word] != -1) result.put(this.dictionary.getWord(word), moves[word]);
+        }
+        return result;
+    }
+
+    // Records the words on the board that had not been formed yet
+    private void record(BoardState state, int depth, int[] moves, int[] remaining) {
+        this.dictionary.scanBoard(state, this.minLength, (word, line, endPosition) -> {
+            if (moves[word] == -1) {
+                moves[word] = depth;
+                remaining[0]--;
+            }
+        });
+    }
+
+    // The target words, in the order the dictionary numbers them
+    public List<String> getWords() {
+        List<String> words = new ArrayList<>();
+        for (int word = 0; word < this.dictionary.getWordCount(); word++) words.add(this.dictionary.getWord(word));
+        return words;
+    }
+}
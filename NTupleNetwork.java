@@ -0,0 +1,256 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The NTupleNetwork class is a learned evaluation of board positions, the way strong 2048 players score positions
+// without searching. It looks at the board through a fixed set of tuples: segments of up to four cells of every row
+// (read left to right) and every column (read top to bottom), which is where the word is formed, and every 2x2
+// square, which is where tiles merge. Each cell of a tuple is read as one of CODES values (empty, 'A' to 'D', or a
+// later letter), so the cells of a tuple give an index into that tuple's table of weights, and the value of a
+// position is the sum of one weight per tuple. Scoring a 4x4 board therefore takes 17 table lookups.
+//
+// Every target word has its own weights. The value of a position after a move, before the new tile appears, is
+// learned by NTupleTrainer through self-play: it estimates DISCOUNT raised to the number of moves still needed to
+// form the word, so 1 is a win and 0 a loss. Locks and the player's tools are left out, self-play only moves.
+//
+// Compiled layout (little-endian): magic (int), version (int), rows (int), columns (int), word length (int), word
+// count (int), the words (one byte per letter, padded to a multiple of 4 bytes), then the weights of each word, in
+// the same order, as floats.
+
+public final class NTupleNetwork {
+
+    // Format constants
+    public static final int MAGIC = 0x57384E54; // "W8NT"
+    public static final int VERSION = 1;
+    public static final String COMPILED_EXTENSION = ".w8n";
+    private static final int HEADER_SIZE = 24;
+
+    // Network constants
+    public static final double DISCOUNT = 0.95; // Value kept by a win for each move it is further away
+    private static final int CODES = 6; // Values a cell can take in a tuple
+    private static final int TUPLE_LENGTH = 4; // Most cells in a row or column segment
+    private static final byte[] LETTER_CODES = new byte[128]; // Code of each letter, 0 for an empty cell
+
+    static {
+        for (char letter = 'A'; letter <= 'Z'; letter++) LETTER_CODES[letter] = (byte) Math.min(letter - 'A' + 1, CODES - 1);
+    }
+
+    private static NTupleNetwork instance; // Network used by the hints, loaded on first use
+    private static boolean isLoaded; // Whether loading has been tried, so a missing file is only looked for once
+
+    // Instance variables
+    private final int rows; // Number of rows of the boards the network scores
+    private final int cols; // Number of columns of the boards the network scores
+    private final List<String> words; // Target words the network has weights for
+    private final Map<String, Integer> sections; // Index of the first weight of each word
+    private final int[][] tuples; // Cells of each tuple, in the order they are read
+    private final int[] offsets; // Index of the first weight of each tuple within a word's weights
+    private final int sectionSize; // Number of weights of each word
+    private final ByteBuffer weights; // The weights, on the heap while training or memory-mapped from a file
+
+    // Constructor: Wraps the weights of a network for boards of the given size and the given words
+    private NTupleNetwork(int rows, int cols, List<String> words, ByteBuffer weights) {
+        this.rows = rows;
+        this.cols = cols;
+        this.words = words;
+        this.tuples = buildTuples(rows, cols);
+        this.offsets = new int[this.tuples.length];
+        for (int tuple = 1; tuple < this.tuples.length; tuple++) {
+            this.offsets[tuple] = this.offsets[tuple - 1] + getTableSize(this.tuples[tuple - 1]);
+        }
+        this.sectionSize = getSectionSize(this.tuples);
+        this.sections = new HashMap<>();
+        for (int word = 0; word < words.size(); word++) this.sections.put(words.get(word), word * this.sectionSize);
+        this.weights = weights;
+    }
+
+    // Creates a network with all weights at 0 for boards of the given size, ready to be trained. The words must all
+    // have the same length.
+    public static NTupleNetwork create(int rows, int cols, List<String> words) {
+        for (String word : words) {
+            if (word.length() != words.get(0).length()) throw new IllegalArgumentException("Words of different lengths: " + words);
+        }
+        long bytes = 4L * getSectionSize(buildTuples(rows, cols)) * words.size();
+        if (bytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many words for one network: " + words.size());
+        return new NTupleNetwork(rows, cols, words, ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    // Returns the network used by the hints, memory-mapping GameSettings.NTUPLE_WEIGHTS_FILE on first use, or null if
+    // there is no weights file for the configured board size
+    public static synchronized NTupleNetwork get() {
+        if (isLoaded) return instance;
+        isLoaded = true;
+        Path file = Paths.get(GameSettings.NTUPLE_WEIGHTS_FILE);
+        if (!Files.exists(file)) return null;
+        try {
+            NTupleNetwork network = map(file);
+            if (network.rows != GameSettings.NUMBER_OF_ROWS || network.cols != GameSettings.NUMBER_OF_COLUMNS) {
+                System.err.println("Ignoring " + file + ": trained for a " + network.rows + "x" + network.cols + " board");
+            } else instance = network;
+        } catch (IOException e) {
+            System.err.println("Could not load n-tuple weights: " + e.getMessage());
+        }
+        return instance;
+    }
+
+    // Lists the tuples of a board: the segments of every row and column, then every 2x2 square
+    private static int[][] buildTuples(int rows, int cols) {
+        List<int[]> tuples = new ArrayList<>();
+        int rowLength = Math.min(TUPLE_LENGTH, cols);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col + rowLength <= cols; col++) {
+                int[] cells = new int[rowLength];
+                for (int i = 0; i < rowLength; i++) cells[i] = row * cols + col + i;
+                tuples.add(cells);
+            }
+        }
+        int colLength = Math.min(TUPLE_LENGTH, rows);
+        for (int col = 0; col < cols; col++) {
+            for (int row = 0; row + colLength <= rows; row++) {
+                int[] cells = new int[colLength];
+                for (int i = 0; i < colLength; i++) cells[i] = (row + i) * cols + col;
+                tuples.add(cells);
+            }
+        }
+        for (int row = 0; row < rows - 1; row++) {
+            for (int col = 0; col < cols - 1; col++) {
+                int cell = row * cols + col;
+                tuples.add(new int[] {cell, cell + 1, cell + cols, cell + cols + 1});
+            }
+        }
+        return tuples.toArray(new int[0][]);
+    }
+
+    // Number of weights of a tuple, one for every combination of codes of its cells
+    private static int getTableSize(int[] tuple) {return (int) Math.pow(CODES, tuple.length);}
+
+    // Number of weights of each word
+    private static int getSectionSize(int[][] tuples) {
+        int size = 0;
+        for (int[] tuple : tuples) size += getTableSize(tuple);
+        return size;
+    }
+
+    // Index of the first weight of the given word, or -1 if the network has no weights for it
+    public int getSection(String targetWord) {
+        Integer section = this.sections.get(targetWord);
+        return section == null ? -1 : section;
+    }
+
+    // Estimates the value of a position after a move, before its new tile appears
+    public double evaluate(int section, BoardState state) {
+        double value = 0;
+        for (int tuple = 0; tuple < this.tuples.length; tuple++) {
+            value += this.weights.getFloat(4 * this.getWeightIndex(section, tuple, state));
+        }
+        return value;
+    }
+
+    // Value of playing the move that led to the given position: 1 if it formed the word, otherwise the discounted
+    // estimate of the position
+    public double getMoveValue(int section, BoardState moved, String targetWord) {
+        return moved.checkForWin(targetWord) ? 1 : DISCOUNT * this.evaluate(section, moved);
+    }
+
+    // Returns the move with the highest value from the given position, or null if the network has no weights for
+    // the target word
+    public Directions findBestMove(BoardState position, String targetWord) {
+        int section = this.getSection(targetWord);
+        if (section == -1) return null;
+        Directions bestMove = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (Directions direction : Directions.values()) {
+            if (direction == Directions.INVALID) continue;
+            BoardState moved = new BoardState(position);
+            moved.move(direction, targetWord);
+            double value = this.getMoveValue(section, moved, targetWord);
+            if (value > bestValue) {
+                bestValue = value;
+                bestMove = direction;
+            }
+        }
+        return bestMove;
+    }
+
+    // Moves the value of a position towards the given target by a share of the difference (temporal difference
+    // learning), spread evenly over the weights of its tuples. Threads may train the same network at once: an update
+    // lost to another thread only costs a little learning.
+    public void train(int section, BoardState state, double target, double learningRate) {
+        float step = (float) (learningRate * (target - this.evaluate(section, state)) / this.tuples.length);
+        for (int tuple = 0; tuple < this.tuples.length; tuple++) {
+            int index = 4 * this.getWeightIndex(section, tuple, state);
+            this.weights.putFloat(index, this.weights.getFloat(index) + step);
+        }
+    }
+
+    // Index of the weight that a tuple selects for a position
+    private int getWeightIndex(int section, int tuple, BoardState state) {
+        int[] cells = this.tuples[tuple];
+        int index = 0;
+        for (int cell : cells) index = index * CODES + LETTER_CODES[state.getLetter(cell)];
+        return section + this.offsets[tuple] + index;
+    }
+
+    // Saves the network in its compiled form
+    public void save(Path file) throws IOException {
+        int wordLength = this.words.isEmpty() ? 0 : this.words.get(0).length();
+        int wordBytes = (this.words.size() * wordLength + 3) & ~3;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + wordBytes).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(this.rows).putInt(this.cols).putInt(wordLength)
+                .putInt(this.words.size());
+        for (String word : this.words) header.put(word.getBytes(StandardCharsets.US_ASCII));
+        header.clear();
+        ByteBuffer body = this.weights.duplicate().clear();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) channel.write(header);
+            while (body.hasRemaining()) channel.write(body);
+        }
+    }
+
+    // Memory-maps a compiled network
+    public static NTupleNetwork map(Path file) throws IOException {
+        ByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (mapping.capacity() < HEADER_SIZE || mapping.getInt(0) != MAGIC || mapping.getInt(4) != VERSION) {
+            throw new IOException(file + " is not a version " + VERSION + " n-tuple network");
+        }
+        int rows = mapping.getInt(8);
+        int cols = mapping.getInt(12);
+        int wordLength = mapping.getInt(16);
+        int wordCount = mapping.getInt(20);
+        if (rows < 1 || cols < 1 || wordLength < 1 || wordCount < 0) throw new IOException(file + " has a corrupt header");
+
+        List<String> words = new ArrayList<>();
+        byte[] letters = new byte[wordLength];
+        for (int word = 0; word < wordCount; word++) {
+            mapping.get(HEADER_SIZE + word * wordLength, letters);
+            words.add(new String(letters, StandardCharsets.US_ASCII));
+        }
+        int weightsStart = HEADER_SIZE + ((wordCount * wordLength + 3) & ~3);
+        ByteBuffer weights = mapping.position(weightsStart).slice().order(ByteOrder.LITTLE_ENDIAN);
+        NTupleNetwork network = new NTupleNetwork(rows, cols, words, weights);
+        if (weights.capacity() != 4L * network.sectionSize * wordCount) {
+            throw new IOException(file + " does not hold the weights of " + wordCount + " words");
+        }
+        return network;
+    }
+
+    // Important getters
+    public int getRows() {return this.rows;}
+    public int getCols() {return this.cols;}
+    public List<String> getWords() {return this.words;}
+}
@@ -0,0 +1,117 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+// The NTupleTrainer class trains an NTupleNetwork by self-play, without any UI. It plays games through the rules of
+// BoardState on every core at once, each game for one of the target words, and always plays the move the network
+// currently values most. After every move it moves the value of the previous position towards the value of the
+// best move from the next one (temporal difference learning on the positions after each move), so wins found by
+// chance teach the network which positions lead to them. All threads update the same weights without locking.
+//
+//     java NTupleTrainer 1000000 weights.w8n
+//
+// trains on the target words of the configured length (word bank or dictionary); words given after the file name
+// are trained instead. Games are played in ROUNDS rounds, and the win rate of each round shows the progress.
+
+public class NTupleTrainer {
+
+    private static final double LEARNING_RATE = 0.1; // Share of the difference to the target learned by each update
+    private static final int MAX_MOVES = 1000; // Moves after which a game is given up
+    private static final int ROUNDS = 10; // Progress reports during training
+
+    // Results of the games of one round
+    private static class RoundStats {
+        private final AtomicLong wonGames = new AtomicLong(); // Games in which the word was formed
+        private final AtomicLong winningMoves = new AtomicLong(); // Moves summed over the won games
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java NTupleTrainer <games> <weights file> [word ...]");
+            return;
+        }
+        int games = Integer.parseInt(args[0]);
+        List<String> words = args.length > 2 ? Arrays.asList(Arrays.copyOfRange(args, 2, args.length))
+                : WordDifficultyRanker.getTargetWords();
+        if (words.isEmpty()) {
+            System.err.println("No target words of length " + GameSettings.WORD_LENGTH + " to train");
+            return;
+        }
+        words = new ArrayList<>(words);
+        words.replaceAll(String::toUpperCase);
+        NTupleNetwork network = NTupleNetwork.create(GameSettings.NUMBER_OF_ROWS, GameSettings.NUMBER_OF_COLUMNS,
+                words);
+
+        long startTime = System.nanoTime();
+        int gamesPerRound = Math.max(1, games / ROUNDS);
+        for (int first = 0; first < games; first += gamesPerRound) {
+            int last = Math.min(games, first + gamesPerRound);
+            List<String> roundWords = words;
+            RoundStats stats = new RoundStats();
+
+            // Each game has its own seed; the weights still depend on how the threads interleave
+            IntStream.range(first, last).parallel().forEach(game -> {
+                String word = roundWords.get(game % roundWords.size());
+                int moves = playGame(network, word, new Random(game));
+                if (moves == -1) return;
+                stats.wonGames.incrementAndGet();
+                stats.winningMoves.addAndGet(moves);
+            });
+
+            long won = stats.wonGames.get();
+            System.out.printf("%d games: %.1f%% won, %.1f moves per win%n", last, 100.0 * won / (last - first),
+                    won == 0 ? Double.NaN : (double) stats.winningMoves.get() / won);
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        network.save(Paths.get(args[1]));
+        System.out.printf("Trained %d words on %d games in %.1f s (%.0f games/s)%n", words.size(), games, seconds,
+                games / seconds);
+    }
+
+    // Plays one game, learning from every move, and returns the number of moves it took to form the word, or -1 if
+    // it was lost or given up
+    private static int playGame(NTupleNetwork network, String targetWord, Random random) {
+        int section = network.getSection(targetWord);
+        Directions[] directions = Arrays.copyOf(Directions.values(), Directions.INVALID.ordinal());
+        BoardState state = new BoardState(network.getRows(), network.getCols());
+        state.placeStartingTiles(random);
+        BoardState previous = null; // Position after the last move, waiting for the value of the next one
+
+        for (int moves = 1; moves <= MAX_MOVES; moves++) {
+            // Play the move with the highest value, starting from a random direction to break ties
+            BoardState best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            int start = random.nextInt(directions.length);
+            for (int i = 0; i < directions.length; i++) {
+                BoardState moved = new BoardState(state);
+                moved.move(directions[(start + i) % directions.length], targetWord);
+                double value = network.getMoveValue(section, moved, targetWord);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = moved;
+                }
+            }
+            if (previous != null) network.train(section, previous, bestValue, LEARNING_RATE);
+            if (best.checkForWin(targetWord)) return moves;
+
+            // The new tile can form the word too, or leave no move that changes the board
+            previous = best;
+            state = new BoardState(best);
+            state.spawnRandomTile(random);
+            if (state.checkForWin(targetWord)) {
+                network.train(section, previous, 1, LEARNING_RATE);
+                return moves;
+            }
+            if (state.isDeadlocked()) {
+                network.train(section, previous, 0, LEARNING_RATE);
+                return -1;
+            }
+        }
+        return -1;
+    }
+}
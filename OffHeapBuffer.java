@@ -0,0 +1,91 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// The OffHeapBuffer class is a growable block of memory outside the Java heap, addressed by long offsets. It is made
+// of fixed-size chunks: direct buffers while the buffer stays under its memory cap, then chunks memory-mapped from a
+// temporary file, which the operating system can page out instead of the JVM running out of memory. Its contents are
+// not Java objects, so the garbage collector never scans or copies them however large the buffer grows.
+//
+// Values are read and written within one chunk, so callers lay their data out in records whose size is a power of
+// two no larger than CHUNK_SIZE, or in arrays of longs or ints.
+
+public class OffHeapBuffer implements AutoCloseable {
+
+    public static final int CHUNK_SIZE = 1 << 20; // Bytes in each chunk
+    private static final int CHUNK_BITS = 20;
+    private static final int OFFSET_MASK = CHUNK_SIZE - 1;
+
+    // Instance variables
+    private final long memoryCap; // Bytes of direct memory used before spilling to the temporary file
+    private final List<ByteBuffer> chunks; // Direct chunks first, then mapped ones
+    private FileChannel spillChannel; // Temporary file backing the mapped chunks, deleted when closed
+    private long spilledBytes; // Bytes mapped from the temporary file
+
+    // Constructor: Creates an empty buffer that keeps at most the given number of bytes in direct memory
+    public OffHeapBuffer(long memoryCap) {
+        this.memoryCap = memoryCap;
+        this.chunks = new ArrayList<>();
+    }
+
+    // Makes sure the bytes below the given offset can be read and written; new bytes are zero
+    public void ensureCapacity(long size) {
+        while (this.getCapacity() < size) this.chunks.add(this.newChunk());
+    }
+
+    // Allocates the next chunk, in direct memory while under the cap and from the temporary file after
+    private ByteBuffer newChunk() {
+        if (this.getCapacity() + CHUNK_SIZE <= this.memoryCap) {
+            try {
+                return ByteBuffer.allocateDirect(CHUNK_SIZE);
+            } catch (OutOfMemoryError e) {
+                // The JVM's direct memory limit is lower than the cap, so spill from here on
+            }
+        }
+        try {
+            if (this.spillChannel == null) {
+                Path file = Files.createTempFile("wordy-search", ".spill");
+                this.spillChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+            }
+            ByteBuffer chunk = this.spillChannel.map(FileChannel.MapMode.READ_WRITE, this.spilledBytes, CHUNK_SIZE);
+            this.spilledBytes += CHUNK_SIZE;
+            return chunk;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not extend the spill file", e);
+        }
+    }
+
+    // Releases the chunks and deletes the temporary file, if any
+    @Override
+    public void close() {
+        this.chunks.clear();
+        if (this.spillChannel == null) return;
+        try {
+            this.spillChannel.close();
+        } catch (IOException e) {
+            System.err.println("Could not delete the spill file: " + e.getMessage());
+        }
+        this.spillChannel = null;
+    }
+
+    private ByteBuffer chunk(long offset) {return this.chunks.get((int) (offset >>> CHUNK_BITS));}
+
+    // Reading and writing values
+    public byte getByte(long offset) {return this.chunk(offset).get((int) (offset & OFFSET_MASK));}
+    public void putByte(long offset, byte value) {this.chunk(offset).put((int) (offset & OFFSET_MASK), value);}
+    public int getInt(long offset) {return this.chunk(offset).getInt((int) (offset & OFFSET_MASK));}
+    public void putInt(long offset, int value) {this.chunk(offset).putInt((int) (offset & OFFSET_MASK), value);}
+    public long getLong(long offset) {return this.chunk(offset).getLong((int) (offset & OFFSET_MASK));}
+    public void putLong(long offset, long value) {this.chunk(offset).putLong((int) (offset & OFFSET_MASK), value);}
+
+    // Important getters
+    public long getCapacity() {return (long) this.chunks.size() << CHUNK_BITS;}
+    public long getSpilledBytes() {return this.spilledBytes;}
+}
@@ -1,4 +1,7 @@
+import javafx.application.Platform;
 import javafx.scene.control.Button;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
@@ -12,6 +15,8 @@ public class PaneOrganizer {
 
     // The root pane for the game UI
     private final BorderPane rootPane;
+    private final Game game; // The game shown in the layout
+    private final PerformanceOverlay overlay; // Performance figures shown over the game with F3
 
     // Constructor: Initializes the main layout for the game using a BorderPane and sets up the game UI elements
     public PaneOrganizer() {
@@ -27,10 +32,19 @@ public class PaneOrganizer {
         this.createWordBox(gamePane);
         this.createGrid(gamePane);
 
+        this.game = new Game(gamePane, this.createScoreLabel(gamePane), this.createRemoveLabel(gamePane));
         this.createQuitButton();
-        Game game = new Game(gamePane, this.createScoreLabel(gamePane), this.createRemoveLabel(gamePane));
-        this.createNewGameButton(game, gamePane);
-        this.createSolveButton(game, gamePane);
+        this.createNewGameButton(this.game, gamePane);
+        this.createSolveButton(this.game, gamePane);
+        this.createHintButton(this.game, gamePane);
+
+        // F3 shows or hides the performance overlay and F2 switches autoplay on and off, whichever element has the focus
+        this.overlay = new PerformanceOverlay(gamePane);
+        this.rootPane.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.F3) this.overlay.toggle();
+            if (event.getCode() == KeyCode.F2) this.game.toggleAutoplay();
+        });
+        if (Constants.SHOW_OVERLAY) Platform.runLater(this.overlay::toggle); // Once the layout is in a scene
     }
 
     // Creates the Quit button and places it in the top section of the layout */
@@ -45,7 +59,10 @@ public class PaneOrganizer {
         quitButton.setLayoutY(Constants.QUIT_BUTTON_Y);
 
         quitButton.setFocusTraversable(false);
-        quitButton.setOnAction(event -> System.exit(0));
+        quitButton.setOnAction(event -> {
+            this.game.saveAndClose(); // Save the game so it can be resumed on the next start
+            System.exit(0);
+        });
 
         quitPane.getChildren().add(quitButton);
         this.rootPane.setTop(quitPane);
@@ -93,6 +110,23 @@ public class PaneOrganizer {
         gamePane.getChildren().add(solveButton);
     }
 
+    // Creates the Hint button above the Solve button
+    private void createHintButton(Game game, Pane gamePane) {
+        Button hintButton = new Button("Hint");
+        hintButton.setPrefSize(Constants.SOLVE_BUTTON_WIDTH, Constants.SOLVE_BUTTON_HEIGHT);
+        hintButton.setStyle("-fx-background-color: " + Constants.SOLVE_BUTTON_COLOR +
+                "; -fx-text-fill: " + Constants.BACKGROUND_COLOR +
+                "; -fx-border-color: transparent");
+        hintButton.setFont(Constants.SOLVE_BUTTON_FONT);
+        hintButton.setLayoutX(Constants.HINT_BUTTON_X);
+        hintButton.setLayoutY(Constants.HINT_BUTTON_Y);
+
+        hintButton.setFocusTraversable(false);
+        hintButton.setOnAction(event -> game.showHint());
+
+        gamePane.getChildren().add(hintButton);
+    }
+
     // Creates the logo text and places it in the center of the gamePane */
     private void createLogo(Pane gamePane) {
         Text logoText = new Text("20WORDY8");
@@ -141,11 +175,11 @@ public class PaneOrganizer {
 
     // Creates a grid of tiles on the specified game pane
     private void createGrid (Pane gamePane){
-        double rowY = -Constants.TILE_WIDTH - 0.5;
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++){
+        double rowY = -Constants.TILE_HEIGHT - Constants.GRID_ROW_SHIFT - 0.5;
+        for (int row = 0; row < GameSettings.NUMBER_OF_ROWS; row++){
             rowY += Constants.TILE_HEIGHT;
             double colX = -Constants.TILE_WIDTH - 0.5;
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col ++){
+            for (int col = 0; col < GameSettings.NUMBER_OF_COLUMNS; col ++){
                 colX += Constants.TILE_WIDTH;
                 double x = colX + Constants.X_OFFSET;
                 double y = rowY + Constants.Y_OFFSET;
@@ -194,7 +228,7 @@ public class PaneOrganizer {
         removeBox.setArcHeight(Constants.REMOVE_BOX_ARC);
 
         // Create remove text and set its appearance
-        Text removeText = new Text("REMOVES \n" + Constants.NUMBER_OF_REMOVES);
+        Text removeText = new Text("REMOVES \n" + GameSettings.NUMBER_OF_REMOVES);
         removeText.setFill(Color.web(Constants.BACKGROUND_COLOR));
         removeText.setFont(Constants.REMOVE_TEXT_FONT);
         removeText.setTextAlignment(TextAlignment.CENTER);
@@ -206,6 +240,9 @@ public class PaneOrganizer {
         return removeText;
     }
 
+    // Saves the game before the application closes
+    public void shutdown() {this.game.saveAndClose();}
+
     // Gets the root pane containing all the UI elements
     public BorderPane getRoot() {
         return this.rootPane;
@@ -0,0 +1,262 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+// The PatternDatabase class gives the solver a lower bound on the number of actions needed to form the target word,
+// read from a precomputed table. Positions are abstracted to how many tiles of each target letter ('A' to 'D') the
+// board holds, with the cells themselves left out. In this abstraction a move merges any number of disjoint pairs of
+// equal letters and adds an 'A' or a 'B', which every real move is an instance of. The table stores, for every word
+// of up to MAX_WORD_LENGTH letters and every abstract position, the exact number of abstract moves needed to hold
+// the letters of the word. Blank tiles are tried with every letter, one action for each letter typed, and a board
+// without a blank tile counts the blank its next new tile will be the same way, since that tile can be typed on too.
+// Only then does the estimate never exceed the actions really needed, which the solver's A* search relies on.
+//
+// Counts above what the longest word could ever use are capped (32 'A's, 16 'B's, 8 'C's and 4 'D's make four
+// 'D's), which keeps one table section at 25245 bytes. The table is built by a backward breadth-first search from
+// each word over the tile counts it needs, then spread to every position holding at least those counts.
+//
+// Compiled layout: magic (int), version (int), letter count (int), longest word (int), then one byte per abstract
+// position for each word, words ordered by their letter counts.
+//
+// Usage: java PatternDatabase <compiled file>   builds the table and writes it to the file
+
+public final class PatternDatabase {
+
+    // Format constants
+    public static final int MAGIC = 0x57385044; // "W8PD"
+    public static final int VERSION = 1;
+    public static final String COMPILED_EXTENSION = ".w8p";
+    private static final int HEADER_SIZE = 16;
+
+    // Abstraction constants
+    private static final int LETTERS = 4; // Target letters 'A' to 'D'
+    private static final int MAX_WORD_LENGTH = 4; // Longest word the table covers
+    private static final int MAX_BLANKS = 2; // Most blank tiles tried with every letter; more give no estimate
+    private static final int[] CAPS = new int[LETTERS]; // Largest count kept for each letter
+    private static final int[] STRIDES = new int[LETTERS]; // Index stride of each letter's count
+    private static final int STATE_COUNT; // Number of abstract positions
+    private static final int[] WORD_STRIDES = new int[LETTERS]; // Stride of each letter's count in a word key
+    private static final int[] SECTIONS; // Table section of each word, indexed by its letter counts, or -1
+    private static final int SECTION_COUNT;
+
+    static {
+        int stateCount = 1;
+        for (int letter = 0; letter < LETTERS; letter++) {
+            CAPS[letter] = MAX_WORD_LENGTH << (LETTERS - 1 - letter);
+            STRIDES[letter] = stateCount;
+            stateCount *= CAPS[letter] + 1;
+            WORD_STRIDES[letter] = letter == 0 ? 1 : WORD_STRIDES[letter - 1] * (MAX_WORD_LENGTH + 1);
+        }
+        STATE_COUNT = stateCount;
+
+        // Number every word by its letter counts, each count going up to MAX_WORD_LENGTH
+        int wordKeys = WORD_STRIDES[LETTERS - 1] * (MAX_WORD_LENGTH + 1);
+        SECTIONS = new int[wordKeys];
+        int sectionCount = 0;
+        for (int key = 0; key < wordKeys; key++) {
+            int length = 0;
+            for (int rest = key; rest > 0; rest /= MAX_WORD_LENGTH + 1) length += rest % (MAX_WORD_LENGTH + 1);
+            SECTIONS[key] = length >= 1 && length <= MAX_WORD_LENGTH ? sectionCount++ : -1;
+        }
+        SECTION_COUNT = sectionCount;
+    }
+
+    private static PatternDatabase instance; // Table shared by every solve, loaded on first use
+
+    // Instance variables
+    private final ByteBuffer table; // Abstract moves needed for each word and abstract position
+
+    // Constructor: Wraps the table, either on the heap or memory-mapped from a compiled file
+    private PatternDatabase(ByteBuffer table) {
+        this.table = table;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java PatternDatabase <compiled file>");
+            return;
+        }
+        long startTime = System.nanoTime();
+        PatternDatabase database = build();
+        database.save(Paths.get(args[0]));
+        System.out.printf("Built %d words x %d positions in %.0f ms%n", SECTION_COUNT, STATE_COUNT,
+                (System.nanoTime() - startTime) / 1e6);
+    }
+
+    // Returns the shared table, memory-mapping GameSettings.PATTERN_DATABASE_FILE on first use. Without a compiled file
+    // the table is built on the heap instead.
+    public static synchronized PatternDatabase get() {
+        if (instance != null) return instance;
+        Path file = Paths.get(GameSettings.PATTERN_DATABASE_FILE);
+        if (Files.exists(file)) {
+            try {
+                instance = map(file);
+                return instance;
+            } catch (IOException e) {
+                System.err.println("Could not load pattern database, building it: " + e.getMessage());
+            }
+        }
+        instance = build();
+        return instance;
+    }
+
+    // Builds the table for every word
+    public static PatternDatabase build() {
+        ByteBuffer table = ByteBuffer.allocate(SECTION_COUNT * STATE_COUNT);
+        int[] word = new int[LETTERS];
+        for (int key = 0; key < SECTIONS.length; key++) {
+            if (SECTIONS[key] == -1) continue;
+            for (int letter = 0, rest = key; letter < LETTERS; letter++, rest /= MAX_WORD_LENGTH + 1) {
+                word[letter] = rest % (MAX_WORD_LENGTH + 1);
+            }
+            table.position(SECTIONS[key] * STATE_COUNT);
+            table.put(buildSection(word));
+        }
+        return new PatternDatabase(table.clear());
+    }
+
+    // Finds the abstract moves needed from every position to hold the given letter counts
+    private static byte[] buildSection(int[] word) {
+        // Backward search: the counts needed before a move to have the counts after it
+        byte[] needed = new byte[STATE_COUNT];
+        Arrays.fill(needed, Byte.MAX_VALUE);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        needed[index(word)] = 0;
+        queue.add(index(word));
+
+        int[] after = new int[LETTERS];
+        int[] produced = new int[LETTERS + 1]; // Tiles of each letter made by the move's merges
+        int[] before = new int[LETTERS];
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            for (int spawn = -1; spawn <= 1; spawn++) { // No new tile, a new 'A' or a new 'B'
+                decode(current, after);
+                if (spawn >= 0) after[spawn] = Math.max(0, after[spawn] - 1);
+
+                // Try every number of tiles each letter gets from merges, counting up like an odometer
+                Arrays.fill(produced, 0);
+                while (true) {
+                    for (int letter = 0; letter < LETTERS; letter++) {
+                        before[letter] = after[letter] - produced[letter] + 2 * produced[letter + 1];
+                    }
+                    int previous = index(before);
+                    if (needed[previous] == Byte.MAX_VALUE) {
+                        needed[previous] = (byte) (needed[current] + 1);
+                        queue.add(previous);
+                    }
+
+                    int letter = 1; // Merges never make an 'A'
+                    while (letter < LETTERS && produced[letter] == after[letter]) produced[letter++] = 0;
+                    if (letter == LETTERS) break;
+                    produced[letter]++;
+                }
+            }
+        }
+
+        // A position holding at least the counts needed after some number of moves is that close too
+        int[] counts = new int[LETTERS];
+        for (int state = 0; state < STATE_COUNT; state++) {
+            decode(state, counts);
+            for (int letter = 0; letter < LETTERS; letter++) {
+                if (counts[letter] > 0) needed[state] = (byte) Math.min(needed[state], needed[state - STRIDES[letter]]);
+            }
+        }
+        return needed;
+    }
+
+    // Saves the table in its compiled form
+    public void save(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(LETTERS).putInt(MAX_WORD_LENGTH).flip();
+        ByteBuffer body = this.table.duplicate().clear();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) channel.write(header);
+            while (body.hasRemaining()) channel.write(body);
+        }
+    }
+
+    // Memory-maps a compiled table
+    public static PatternDatabase map(Path file) throws IOException {
+        ByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapping.capacity() != HEADER_SIZE + SECTION_COUNT * STATE_COUNT || mapping.getInt(0) != MAGIC
+                || mapping.getInt(4) != VERSION || mapping.getInt(8) != LETTERS
+                || mapping.getInt(12) != MAX_WORD_LENGTH) {
+            throw new IOException(file + " is not a version " + VERSION + " pattern database");
+        }
+        return new PatternDatabase(mapping.position(HEADER_SIZE).slice());
+    }
+
+    // Returns a lower bound on the number of actions needed to form the target word, or 0 if the word is outside the
+    // table (longer than MAX_WORD_LENGTH or using letters past 'D') or the board has too many blank tiles
+    public int estimate(BoardState state, String targetWord) {
+        if (targetWord.length() > MAX_WORD_LENGTH) return 0;
+        int key = 0;
+        for (int i = 0; i < targetWord.length(); i++) {
+            int letter = targetWord.charAt(i) - 'A';
+            if (letter < 0 || letter >= LETTERS) return 0;
+            key += WORD_STRIDES[letter];
+        }
+        int section = SECTIONS[key] * STATE_COUNT;
+
+        // Count the tiles of each target letter; blank tiles are tried with every letter below
+        int[] counts = new int[LETTERS];
+        int[] blankLetters = new int[MAX_BLANKS];
+        int blanks = 0;
+        for (int cell = 0; cell < state.getCellCount(); cell++) {
+            char letter = state.getLetter(cell);
+            if (letter == '\0') continue;
+            if (letter == 'Z') return 0; // Can wrap around to 'A'
+            if (state.isBlank(cell)) {
+                if (blanks == MAX_BLANKS) return 0;
+                blankLetters[blanks++] = letter - 'A';
+            } else if (letter - 'A' < LETTERS) counts[letter - 'A']++;
+        }
+
+        // Without a blank tile the next new tile is a blank, so one letter can be typed on it: count it as a blank
+        // that needs typing whatever letter it takes, or that is never used
+        if (blanks == 0) blankLetters[blanks++] = LETTERS;
+        return this.estimateWithBlanks(section, counts, blankLetters, blanks);
+    }
+
+    // Finds the cheapest letter for each blank tile, counting one action for each letter that has to be typed
+    private int estimateWithBlanks(int section, int[] counts, int[] blankLetters, int blanks) {
+        if (blanks == 0) {
+            int state = 0;
+            for (int letter = 0; letter < LETTERS; letter++) state += Math.min(counts[letter], CAPS[letter]) * STRIDES[letter];
+            return this.table.get(section + state);
+        }
+        int current = blankLetters[blanks - 1];
+        int best = current < LETTERS ? Integer.MAX_VALUE
+                : this.estimateWithBlanks(section, counts, blankLetters, blanks - 1); // A letter past 'D' left as is
+        for (int letter = 0; letter < LETTERS; letter++) {
+            counts[letter]++;
+            int typed = letter == current ? 0 : 1;
+            best = Math.min(best, typed + this.estimateWithBlanks(section, counts, blankLetters, blanks - 1));
+            counts[letter]--;
+        }
+        return best;
+    }
+
+    // Index of the abstract position with the given letter counts
+    private static int index(int[] counts) {
+        int state = 0;
+        for (int letter = 0; letter < LETTERS; letter++) state += counts[letter] * STRIDES[letter];
+        return state;
+    }
+
+    // Letter counts of an abstract position
+    private static void decode(int state, int[] counts) {
+        for (int letter = 0; letter < LETTERS; letter++) counts[letter] = state / STRIDES[letter] % (CAPS[letter] + 1);
+    }
+}
@@ -0,0 +1,121 @@
+import javafx.animation.AnimationTimer;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
+
+// The PerformanceOverlay class shows live performance figures over the game, the first thing to look at when a kiosk
+// feels slow: frames per second, how long each JavaFX pulse takes up to the end of layout, the number of nodes in
+// the scene graph, the number of animations and timers on the game loop, heap use, and the states explored and time
+// taken by the last solve. It is toggled with F3, or shown from the start with -Dwordy.overlay=true.
+// While shown, each frame only counts itself and the length of its pulse; the other figures are read and the text is
+// updated every Constants.OVERLAY_REFRESH milliseconds. While hidden, it does nothing at all.
+
+public class PerformanceOverlay {
+
+    // Instance variables
+    private final Pane pane; // Pane the overlay is shown on
+    private final Group overlay; // Background and text of the overlay
+    private final Text text; // The figures
+    private final AnimationTimer frameTimer; // Called at the start of every frame while the overlay is shown
+    private final Runnable pulseListener; // Called after the layout of every frame while the overlay is shown
+    private boolean isShown; // Whether the overlay is on screen
+    private long pulseStart; // Start of the current pulse (System.nanoTime)
+    private long lastRefresh; // Time of the last update of the text, or 0 if the overlay has just been shown
+    private int frames; // Frames laid out since the last update of the text
+    private long pulseTotal, pulseMax; // Total and longest pulse since the last update of the text, in nanoseconds
+
+    // Constructor: Creates the overlay for the given pane, hidden
+    public PerformanceOverlay(Pane pane) {
+        this.pane = pane;
+
+        Rectangle background = new Rectangle(Constants.OVERLAY_WIDTH, Constants.OVERLAY_HEIGHT,
+                Color.web(Constants.OVERLAY_COLOR, Constants.OVERLAY_OPACITY));
+        background.setArcWidth(Constants.OVERLAY_ARC);
+        background.setArcHeight(Constants.OVERLAY_ARC);
+        this.text = new Text();
+        this.text.setFill(Color.web(Constants.OVERLAY_TEXT_COLOR));
+        this.text.setFont(Constants.OVERLAY_FONT);
+        this.text.setLayoutX(Constants.OVERLAY_TEXT_INSET);
+        this.text.setLayoutY(2 * Constants.OVERLAY_TEXT_INSET);
+        this.overlay = new Group(background, this.text);
+        this.overlay.setLayoutX(Constants.OVERLAY_X);
+        this.overlay.setLayoutY(Constants.OVERLAY_Y);
+        this.overlay.setMouseTransparent(true); // Never take clicks meant for the tiles or buttons
+
+        this.frameTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {PerformanceOverlay.this.frameStarted(now);}
+        };
+        this.pulseListener = this::frameLaidOut;
+    }
+
+    // Shows the overlay if it is hidden and hides it if it is shown
+    public void toggle() {
+        if (this.isShown) {
+            this.frameTimer.stop();
+            this.pane.getScene().removePostLayoutPulseListener(this.pulseListener);
+            this.pane.getChildren().remove(this.overlay);
+        } else {
+            this.lastRefresh = 0;
+            this.text.setText("");
+            this.pane.getChildren().add(this.overlay);
+            this.pane.getScene().addPostLayoutPulseListener(this.pulseListener);
+            this.frameTimer.start();
+        }
+        this.isShown = !this.isShown;
+    }
+
+    // Called at the start of each frame with the time its pulse started
+    private void frameStarted(long now) {
+        this.pulseStart = now;
+        if (this.lastRefresh == 0) {
+            this.resetFrames(now);
+            return;
+        }
+        if (now - this.lastRefresh >= Constants.OVERLAY_REFRESH * 1_000_000L) this.refresh(now);
+    }
+
+    // Called once the frame has been laid out, just before it is rendered
+    private void frameLaidOut() {
+        if (this.pulseStart == 0) return;
+        long pulse = System.nanoTime() - this.pulseStart;
+        this.frames++;
+        this.pulseTotal += pulse;
+        this.pulseMax = Math.max(this.pulseMax, pulse);
+    }
+
+    // Updates the text with the figures since the last update
+    private void refresh(long now) {
+        double seconds = (now - this.lastRefresh) / 1e9;
+        Runtime runtime = Runtime.getRuntime();
+        GameMetrics metrics = GameMetrics.get();
+        this.text.setText(String.format("FPS %.1f%npulse %.2f ms%npulse max %.2f ms%nnodes %d%nloop updates %d%n"
+                        + "heap %d / %d MB%nsolve %,d states%nsolve %.0f ms",
+                this.frames / seconds, this.pulseTotal / 1e6 / Math.max(1, this.frames), this.pulseMax / 1e6,
+                countNodes(this.pane.getScene().getRoot()), GameLoop.get().getActiveCount(),
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20, runtime.maxMemory() >> 20,
+                metrics.getLastSolveStates(), metrics.getLastSolveMillis()));
+        this.resetFrames(now);
+    }
+
+    // Starts counting frames again from the given time
+    private void resetFrames(long now) {
+        this.lastRefresh = now;
+        this.frames = 0;
+        this.pulseTotal = 0;
+        this.pulseMax = 0;
+    }
+
+    // Counts a node and all the nodes below it
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) count += countNodes(child);
+        }
+        return count;
+    }
+}
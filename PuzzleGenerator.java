@@ -0,0 +1,146 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// The PuzzleGenerator class builds a pack of daily puzzles. Each candidate seed gives a target word, a starting board
+// and the seed of the new tiles, generated the same way as a new game. The candidate is then graded by a
+// breadth-first search over moves that follows the new tiles the seed really spawns (see TrackedRandom), so the
+// fewest moves it finds is exact for the game as it will be played. A candidate becomes a puzzle when its shortest
+// solution is between GameSettings.PUZZLE_MIN_MOVES and GameSettings.PUZZLE_MAX_MOVES moves long and only one first
+// move leads to a shortest solution. Candidates are graded in parallel on every core:
+//
+//     java PuzzleGenerator 365 daily.w8z
+//
+// The game plays the pack's puzzle of the day when started with -Dwordy.puzzles=daily.w8z. Puzzles are graded on
+// moves only; the player's tools can sometimes beat the graded length.
+
+public class PuzzleGenerator {
+
+    private static final int BATCH_SIZE = 256; // Candidate seeds graded together before checking for enough puzzles
+
+    // A position in the search: the board and the state of the random number generator that spawns its new tiles
+    private static class Node {
+        private final BoardState state;
+        private final long random;
+        private int firstMoves; // Bit mask of the first moves (by Directions ordinal) reaching this node soonest
+
+        private Node(BoardState state, long random, int firstMoves) {
+            this.state = state;
+            this.random = random;
+            this.firstMoves = firstMoves;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Node && this.random == ((Node) other).random && this.state.equals(((Node) other).state);
+        }
+
+        @Override
+        public int hashCode() {return this.state.hashCode() * 31 + Long.hashCode(this.random);}
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: java PuzzleGenerator <puzzles> <pack file> [first seed]");
+            return;
+        }
+        int count = Integer.parseInt(args[0]);
+        long firstSeed = args.length == 3 ? Long.parseLong(args[2]) : 1;
+        List<String> words = WordDifficulty.selectBand(WordDifficultyRanker.getTargetWords());
+
+        // Grade candidates batch by batch, keeping them in seed order so the same arguments give the same pack
+        long startTime = System.nanoTime();
+        List<PuzzlePack.Puzzle> puzzles = new ArrayList<>();
+        long nextSeed = firstSeed;
+        while (puzzles.size() < count) {
+            puzzles.addAll(LongStream.range(nextSeed, nextSeed + BATCH_SIZE).parallel()
+                    .mapToObj(seed -> generate(seed, words)).filter(Objects::nonNull).collect(Collectors.toList()));
+            nextSeed += BATCH_SIZE;
+        }
+        puzzles = puzzles.subList(0, count);
+        new PuzzlePack(GameSettings.NUMBER_OF_ROWS, GameSettings.NUMBER_OF_COLUMNS, puzzles).save(Paths.get(args[1]));
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        int[] lengths = new int[GameSettings.PUZZLE_MAX_MOVES + 1];
+        for (PuzzlePack.Puzzle puzzle : puzzles) lengths[puzzle.getFewestMoves()]++;
+        System.out.printf("Generated %d puzzles from %d candidates in %.1f s on %d threads (%.1f puzzles/s)%n", count,
+                nextSeed - firstSeed, seconds, Runtime.getRuntime().availableProcessors(), count / seconds);
+        for (int moves = GameSettings.PUZZLE_MIN_MOVES; moves < lengths.length; moves++) {
+            if (lengths[moves] > 0) System.out.printf("  %2d moves: %d%n", moves, lengths[moves]);
+        }
+    }
+
+    // Generates the candidate of a seed like a new game does and grades it, returning null if it is rejected
+    public static PuzzlePack.Puzzle generate(long seed, List<String> words) {
+        Random random = new Random(seed);
+        String targetWord = GameSettings.pickTargetWord(random, words);
+        long tileSeed = random.nextLong();
+        BoardState start = new BoardState(GameSettings.NUMBER_OF_ROWS, GameSettings.NUMBER_OF_COLUMNS);
+        start.placeStartingTiles(random);
+        return grade(tileSeed, targetWord, start);
+    }
+
+    // Finds the fewest moves to form the word when the new tiles come from the given seed, and returns the puzzle if
+    // it is long enough and has a single best first move, or null otherwise
+    public static PuzzlePack.Puzzle grade(long seed, String targetWord, BoardState start) {
+        if (start.checkForWin(targetWord)) return null;
+
+        PatternDatabase patterns = PatternDatabase.get();
+        Set<Node> visited = new HashSet<>();
+        List<Node> level = new ArrayList<>();
+        level.add(new Node(start, new TrackedRandom(seed).getState(), 0));
+        visited.addAll(level);
+        for (int depth = 1; depth <= GameSettings.PUZZLE_MAX_MOVES && !level.isEmpty(); depth++) {
+            Map<Node, Node> nextLevel = new LinkedHashMap<>();
+            int winningMoves = 0; // Bit mask of the first moves of the solutions found at this depth
+            for (Node node : level) {
+                if (node.state.isDeadlocked()) continue;
+                for (Directions direction : Directions.values()) {
+                    if (direction == Directions.INVALID) continue;
+                    int firstMoves = depth == 1 ? 1 << direction.ordinal() : node.firstMoves;
+                    BoardState moved = new BoardState(node.state);
+                    TrackedRandom random = TrackedRandom.fromState(node.random);
+                    if (moved.move(direction, targetWord)) moved.spawnRandomTile(random);
+                    if (moved.checkForWin(targetWord)) {
+                        winningMoves |= firstMoves;
+                        continue;
+                    }
+
+                    // A node reached again at the same depth keeps every first move that leads to it
+                    Node child = new Node(moved, random.getState(), firstMoves);
+                    if (visited.contains(child)) continue;
+                    Node existing = nextLevel.get(child);
+                    if (existing != null) {
+                        existing.firstMoves |= firstMoves;
+                        continue;
+                    }
+
+                    // Skip boards that cannot be solved within the longest allowed puzzle, using the solver's bounds
+                    int bound = BoardAnalyzer.minActionsToWin(moved, targetWord, 0);
+                    if (bound == BoardAnalyzer.UNREACHABLE || depth + Math.max(bound,
+                            patterns.estimate(moved, targetWord)) > GameSettings.PUZZLE_MAX_MOVES) continue;
+                    nextLevel.put(child, child);
+                }
+            }
+
+            if (winningMoves != 0) {
+                if (depth < GameSettings.PUZZLE_MIN_MOVES || Integer.bitCount(winningMoves) != 1) return null;
+                return new PuzzlePack.Puzzle(seed, targetWord, start, depth,
+                        Directions.values()[Integer.numberOfTrailingZeros(winningMoves)]);
+            }
+            if (visited.size() + nextLevel.size() > GameSettings.PUZZLE_MAX_STATES) return null;
+            visited.addAll(nextLevel.keySet());
+            level = new ArrayList<>(nextLevel.keySet());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,152 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// The PuzzlePack class holds a list of daily puzzles written by PuzzleGenerator and converts it to and from a small
+// versioned binary format. Each puzzle is a starting board, a target word and the seed of the new tiles, so a game
+// started from it plays out exactly as it did when it was graded.
+//
+// Layout (all numbers big-endian): magic (int), version (byte), rows (byte), cols (byte), puzzle count (int), then
+// for each puzzle the seed (long), target word length (byte) and letters, fewest moves (byte), best first move
+// (byte, a Directions ordinal) and one packed byte per cell, followed by a CRC32 (int) of everything before it.
+
+public class PuzzlePack {
+
+    // Format constants
+    public static final int MAGIC = 0x5738505A; // "W8PZ"
+    public static final int VERSION = 1;
+    public static final String COMPILED_EXTENSION = ".w8z";
+
+    // One graded puzzle
+    public static class Puzzle {
+        final long seed; // Seed of the random number generator that spawns the new tiles
+        final String targetWord; // The target word of the puzzle
+        final BoardState start; // Starting tiles
+        final int fewestMoves; // Number of moves of the shortest solution
+        final Directions bestMove; // The only first move of a shortest solution
+
+        Puzzle(long seed, String targetWord, BoardState start, int fewestMoves, Directions bestMove) {
+            this.seed = seed;
+            this.targetWord = targetWord;
+            this.start = start;
+            this.fewestMoves = fewestMoves;
+            this.bestMove = bestMove;
+        }
+
+        // Important getters
+        public long getSeed() {return this.seed;}
+        public String getTargetWord() {return this.targetWord;}
+        public BoardState getStart() {return new BoardState(this.start);}
+        public int getFewestMoves() {return this.fewestMoves;}
+        public Directions getBestMove() {return this.bestMove;}
+    }
+
+    // Instance variables
+    private final int rows, cols; // Board size of every puzzle
+    private final List<Puzzle> puzzles; // The puzzles, in the order they are played
+
+    // Constructor: Creates a pack of puzzles for boards of the given size
+    public PuzzlePack(int rows, int cols, List<Puzzle> puzzles) {
+        this.rows = rows;
+        this.cols = cols;
+        this.puzzles = Collections.unmodifiableList(new ArrayList<>(puzzles));
+    }
+
+    // Returns the puzzle of the given day, going round the pack once it runs out
+    public Puzzle getPuzzleOfDay(LocalDate day) {
+        return this.puzzles.get((int) Math.floorMod(day.toEpochDay(), (long) this.puzzles.size()));
+    }
+
+    // Writes the pack to a file
+    public void save(Path file) throws IOException {
+        Files.write(file, this.toBytes());
+    }
+
+    // Reads a pack from a file
+    public static PuzzlePack load(Path file) throws IOException {
+        return fromBytes(Files.readAllBytes(file));
+    }
+
+    // Encodes the pack into its binary form
+    public byte[] toBytes() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 + this.puzzles.size() * (16 + this.rows * this.cols));
+        DataOutputStream stream = new DataOutputStream(buffer);
+        try {
+            stream.writeInt(MAGIC);
+            stream.writeByte(VERSION);
+            stream.writeByte(this.rows);
+            stream.writeByte(this.cols);
+            stream.writeInt(this.puzzles.size());
+            for (Puzzle puzzle : this.puzzles) {
+                stream.writeLong(puzzle.seed);
+                stream.writeByte(puzzle.targetWord.length());
+                stream.writeBytes(puzzle.targetWord);
+                stream.writeByte(puzzle.fewestMoves);
+                stream.writeByte(puzzle.bestMove.ordinal());
+                for (int cell = 0; cell < puzzle.start.getCellCount(); cell++) {
+                    stream.writeByte(puzzle.start.getPackedCell(cell));
+                }
+            }
+
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.toByteArray());
+            stream.writeInt((int) checksum.getValue());
+        } catch (IOException e) {
+            // Writing to an in-memory buffer cannot fail
+            throw new IllegalStateException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // Decodes a pack from its binary form, rejecting unknown versions and corrupted data
+    public static PuzzlePack fromBytes(byte[] bytes) throws IOException {
+        if (bytes.length < 4) throw new IOException("Puzzle pack is truncated");
+
+        // Check the checksum before trusting any of the contents
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, bytes.length - 4);
+        DataInputStream stream = new DataInputStream(new ByteArrayInputStream(bytes));
+        stream.skipBytes(bytes.length - 4);
+        if (stream.readInt() != (int) checksum.getValue()) throw new IOException("Puzzle pack checksum mismatch");
+
+        stream = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4));
+        if (stream.readInt() != MAGIC) throw new IOException("Not a puzzle pack");
+        int version = stream.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Unsupported puzzle pack version " + version);
+
+        int rows = stream.readUnsignedByte();
+        int cols = stream.readUnsignedByte();
+        int count = stream.readInt();
+        if (count <= 0) throw new IOException("Puzzle pack is empty");
+        List<Puzzle> puzzles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long seed = stream.readLong();
+            byte[] word = new byte[stream.readUnsignedByte()];
+            stream.readFully(word);
+            int fewestMoves = stream.readUnsignedByte();
+            int bestMove = stream.readUnsignedByte();
+            if (bestMove >= Directions.INVALID.ordinal()) throw new IOException("Invalid best move " + bestMove);
+            BoardState start = new BoardState(rows, cols);
+            for (int cell = 0; cell < start.getCellCount(); cell++) start.setPackedCell(cell, stream.readUnsignedByte());
+            puzzles.add(new Puzzle(seed, new String(word, StandardCharsets.US_ASCII), start, fewestMoves,
+                    Directions.values()[bestMove]));
+        }
+        return new PuzzlePack(rows, cols, puzzles);
+    }
+
+    // Important getters
+    public int getRows() {return this.rows;}
+    public int getCols() {return this.cols;}
+    public List<Puzzle> getPuzzles() {return this.puzzles;}
+    public int size() {return this.puzzles.size();}
+}
@@ -0,0 +1,98 @@
+// The ScalarBatchKernel class applies the game rules to the boards of a batch one after the other. It is the
+// fallback used when the vector API or wide enough SIMD registers are not available.
+
+public class ScalarBatchKernel implements BatchKernel {
+
+    // Plays a full player move on every board: slide, then merge and slide again unless the slide formed the word
+    @Override
+    public void move(BoardBatch batch, Directions direction, String targetWord, boolean[] spawnNeeded) {
+        byte[] cells = batch.getCells();
+        int capacity = batch.getCapacity();
+        int[][] lines = batch.getLines(direction);
+        int[] word = toLetterCodes(targetWord);
+
+        for (int board = 0; board < batch.getSize(); board++) {
+            slide(cells, capacity, board, lines);
+            spawnNeeded[board] = !isWin(batch, board, word);
+            if (spawnNeeded[board] && merge(cells, capacity, board, lines)) slide(cells, capacity, board, lines);
+        }
+    }
+
+    // Checks every board for the target word
+    @Override
+    public void checkForWin(BoardBatch batch, String targetWord, boolean[] wins) {
+        int[] word = toLetterCodes(targetWord);
+        for (int board = 0; board < batch.getSize(); board++) wins[board] = isWin(batch, board, word);
+    }
+
+    @Override
+    public String getName() {return "scalar";}
+
+    // Slides every tile of one board that is not double locked as far as possible along its line
+    private static void slide(byte[] cells, int capacity, int board, int[][] lines) {
+        for (int[] line : lines) {
+            int target = 0; // Position nearest the leading edge that the next tile can move into
+            for (int position = 0; position < line.length; position++) {
+                int packed = cells[line[position] * capacity + board];
+                if ((packed & 0x1F) == 0) continue;
+
+                // Double locked tiles stay in place and block the tiles behind them
+                if ((packed >> 5 & 0x3) == Locks.DOUBLELOCKED.ordinal()) {
+                    target = position + 1;
+                    continue;
+                }
+                if (target != position) {
+                    cells[line[target] * capacity + board] = (byte) packed;
+                    cells[line[position] * capacity + board] = 0;
+                }
+                target++;
+            }
+        }
+    }
+
+    // Merges adjacent unlocked tiles of one board with the same letter and returns whether any merged
+    private static boolean merge(byte[] cells, int capacity, int board, int[][] lines) {
+        boolean hasMerged = false;
+        for (int[] line : lines) {
+            for (int position = 0; position < line.length - 1; position++) {
+                int current = line[position] * capacity + board;
+                int next = line[position + 1] * capacity + board;
+                int letter = cells[current] & 0x1F;
+
+                // Unlocked tiles have both lock bits clear
+                if (letter != 0 && letter == (cells[next] & 0x1F) && (cells[current] & 0x60) == 0
+                        && (cells[next] & 0x60) == 0) {
+                    hasMerged = true;
+                    // Increment the letter, wrapping around to 'A' after 'Z'
+                    cells[current] = (byte) ((cells[current] & 0xE0) | (letter == 26 ? 1 : letter + 1));
+                    cells[next] = 0;
+                }
+            }
+        }
+        return hasMerged;
+    }
+
+    // Checks whether one board holds the target word in a row or a column
+    private static boolean isWin(BoardBatch batch, int board, int[] word) {
+        byte[] cells = batch.getCells();
+        int capacity = batch.getCapacity();
+        for (int[][] lines : new int[][][] {batch.getLines(Directions.LEFT), batch.getLines(Directions.UP)}) {
+            for (int[] line : lines) {
+                for (int start = 0; start + word.length <= line.length; start++) {
+                    int matched = 0;
+                    while (matched < word.length
+                            && (cells[line[start + matched] * capacity + board] & 0x1F) == word[matched]) matched++;
+                    if (matched == word.length) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Converts a word to the letter codes used in packed cells ('A' is 1)
+    static int[] toLetterCodes(String word) {
+        int[] codes = new int[word.length()];
+        for (int i = 0; i < word.length(); i++) codes[i] = word.charAt(i) - 'A' + 1;
+        return codes;
+    }
+}
@@ -0,0 +1,211 @@
+// The SearchStore class keeps the solver's search off the Java heap: every node it reaches, the table of visited
+// states and the frontier live in OffHeapBuffers. A node is a fixed-size record holding its board as packed cells
+// (see BoardState.getPackedCell), so a search with millions of states creates no objects beyond the few boards it
+// is working on, causes no long garbage collection pauses and can grow past the heap size, spilling to a temporary
+// file once GameSettings.SOLVER_MEMORY_CAP is reached.
+//
+// - Nodes are numbered in the order they are added and never removed, so a solution is traced back by following
+//   parent numbers.
+// - The visited table is an open-addressing hash table of node numbers, doubled when half full.
+// - The frontier is a binary min-heap of longs that order nodes by estimated solution length, deeper nodes first
+//   among equals, then by number.
+
+public class SearchStore implements AutoCloseable {
+
+    // Node record layout (byte offsets)
+    private static final int PARENT = 0; // Number of the parent node (long), or -1 for the root
+    private static final int ACTION = 8; // Action leading to the node (int, see SolverAction)
+    private static final int NEW_TILE = 12; // Cell * 256 + letter of the tile that appeared (int), or -1
+    private static final int DEPTH = 16; // Number of actions from the root (int)
+    private static final int HASH = 20; // Hash of the board and removes (int)
+    private static final int REMOVES = 24; // Removes left (int)
+    private static final int ESTIMATE = 28; // Estimated length of a solution through the node (int)
+    private static final int CELLS = 32; // Packed cells, one byte each
+
+    private static final int INITIAL_TABLE_SIZE = 1 << 12; // Slots of the visited table at first
+
+    // Instance variables
+    private final int cellCount; // Number of cells of every board
+    private final int recordSize; // Bytes of each node record, a power of two
+    private final long memoryCap; // Direct memory allowed for the whole store
+    private final OffHeapBuffer nodes; // Node records
+    private OffHeapBuffer table; // Visited table: node number + 1 for each slot, or 0 if empty
+    private final OffHeapBuffer frontier; // Heap of frontier keys
+    private long nodeCount; // Number of nodes added
+    private long stateCount; // Number of distinct states visited
+    private long tableSize; // Number of slots in the visited table, a power of two
+    private long frontierSize; // Number of keys in the frontier
+
+    // Constructor: Creates an empty store for boards with the given number of cells
+    public SearchStore(int cellCount, long memoryCap) {
+        this.cellCount = cellCount;
+        this.recordSize = Integer.highestOneBit(CELLS + cellCount - 1) << 1;
+        this.memoryCap = memoryCap;
+        this.nodes = new OffHeapBuffer(memoryCap / 2);
+        this.frontier = new OffHeapBuffer(memoryCap / 4);
+        this.tableSize = INITIAL_TABLE_SIZE;
+        this.table = new OffHeapBuffer(memoryCap / 4);
+        this.table.ensureCapacity(this.tableSize * 8);
+    }
+
+    // Adds a node for a state reached with the given number of actions and returns its number, or -1 if the state
+    // was already reached with as few actions
+    public long add(BoardState state, int removeCounter, long parent, int action, int newTile, int depth) {
+        int hash = hash(state, removeCounter);
+        long slot = this.findSlot(hash, state, removeCounter);
+        long existing = this.table.getLong(slot * 8) - 1;
+        if (existing != -1 && this.getDepth(existing) <= depth) return -1;
+
+        // Write the record
+        long node = this.nodeCount++;
+        long record = node * this.recordSize;
+        this.nodes.ensureCapacity(record + this.recordSize);
+        this.nodes.putLong(record + PARENT, parent);
+        this.nodes.putInt(record + ACTION, action);
+        this.nodes.putInt(record + NEW_TILE, newTile);
+        this.nodes.putInt(record + DEPTH, depth);
+        this.nodes.putInt(record + HASH, hash);
+        this.nodes.putInt(record + REMOVES, removeCounter);
+        for (int cell = 0; cell < this.cellCount; cell++) {
+            this.nodes.putByte(record + CELLS + cell, (byte) state.getPackedCell(cell));
+        }
+
+        // Point the state's slot at the new node, growing the table when it gets half full
+        this.table.putLong(slot * 8, node + 1);
+        if (existing == -1 && ++this.stateCount * 2 > this.tableSize) this.growTable();
+        return node;
+    }
+
+    // Finds the slot holding the given state, or the empty slot where it belongs
+    private long findSlot(int hash, BoardState state, int removeCounter) {
+        long mask = this.tableSize - 1;
+        for (long slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long node = this.table.getLong(slot * 8) - 1;
+            if (node == -1) return slot;
+            if (this.getHash(node) == hash && this.matches(node, state, removeCounter)) return slot;
+        }
+    }
+
+    // Checks whether a node holds the given state
+    private boolean matches(long node, BoardState state, int removeCounter) {
+        long record = node * this.recordSize;
+        if (this.nodes.getInt(record + REMOVES) != removeCounter) return false;
+        for (int cell = 0; cell < this.cellCount; cell++) {
+            if ((this.nodes.getByte(record + CELLS + cell) & 0xFF) != state.getPackedCell(cell)) return false;
+        }
+        return true;
+    }
+
+    // Doubles the visited table and re-inserts every state
+    private void growTable() {
+        OffHeapBuffer oldTable = this.table;
+        long oldSize = this.tableSize;
+        this.tableSize *= 2;
+        this.table = new OffHeapBuffer(this.memoryCap / 4);
+        this.table.ensureCapacity(this.tableSize * 8);
+
+        long mask = this.tableSize - 1;
+        for (long oldSlot = 0; oldSlot < oldSize; oldSlot++) {
+            long entry = oldTable.getLong(oldSlot * 8);
+            if (entry == 0) continue;
+            long slot = this.getHash(entry - 1) & mask;
+            while (this.table.getLong(slot * 8) != 0) slot = (slot + 1) & mask;
+            this.table.putLong(slot * 8, entry);
+        }
+        oldTable.close();
+    }
+
+    // Checks whether a node's state has since been reached with fewer actions by another node
+    public boolean isSuperseded(long node) {
+        BoardState state = this.getState(node);
+        int removeCounter = this.getRemoveCounter(node);
+        return this.table.getLong(this.findSlot(this.getHash(node), state, removeCounter) * 8) - 1 != node;
+    }
+
+    // Adds a node to the frontier with its estimated solution length
+    public void push(long node, int estimate) {
+        this.nodes.putInt(node * this.recordSize + ESTIMATE, estimate);
+        long key = ((long) Math.min(estimate, 0x7F) << 56) | ((long) (0xFF - Math.min(this.getDepth(node), 0xFF)) << 48)
+                | node;
+        long position = this.frontierSize++;
+        this.frontier.ensureCapacity(this.frontierSize * 8);
+
+        // Sift up
+        while (position > 0) {
+            long parent = (position - 1) / 2;
+            long parentKey = this.frontier.getLong(parent * 8);
+            if (parentKey <= key) break;
+            this.frontier.putLong(position * 8, parentKey);
+            position = parent;
+        }
+        this.frontier.putLong(position * 8, key);
+    }
+
+    // Removes the most promising node from the frontier and returns its number, or -1 if the frontier is empty
+    public long poll() {
+        if (this.frontierSize == 0) return -1;
+        long first = this.frontier.getLong(0);
+        long last = this.frontier.getLong(--this.frontierSize * 8);
+
+        // Sift the last key down from the top
+        long position = 0;
+        while (true) {
+            long child = position * 2 + 1;
+            if (child >= this.frontierSize) break;
+            long childKey = this.frontier.getLong(child * 8);
+            if (child + 1 < this.frontierSize && this.frontier.getLong((child + 1) * 8) < childKey) {
+                childKey = this.frontier.getLong(++child * 8);
+            }
+            if (last <= childKey) break;
+            this.frontier.putLong(position * 8, childKey);
+            position = child;
+        }
+        if (this.frontierSize > 0) this.frontier.putLong(position * 8, last);
+        return first & 0xFFFF_FFFF_FFFFL;
+    }
+
+    // Rebuilds the board of a node
+    public BoardState getState(long node, int rows, int cols) {
+        BoardState state = new BoardState(rows, cols);
+        long record = node * this.recordSize;
+        for (int cell = 0; cell < this.cellCount; cell++) {
+            state.setPackedCell(cell, this.nodes.getByte(record + CELLS + cell) & 0xFF);
+        }
+        return state;
+    }
+
+    // Rebuilds the board of a node as a single row, enough to compare it with another board
+    private BoardState getState(long node) {return this.getState(node, 1, this.cellCount);}
+
+    // Hashes a board and the removes left from the board's Zobrist hash, which children of a node got by updating
+    // their parent's hash as they moved, so no board is rescanned
+    private static int hash(BoardState state, int removeCounter) {
+        long hash = state.getZobristHash() + removeCounter * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+
+    // Releases the off-heap memory and any spill file
+    @Override
+    public void close() {
+        this.nodes.close();
+        this.table.close();
+        this.frontier.close();
+    }
+
+    // Important getters
+    public long getParent(long node) {return this.nodes.getLong(node * this.recordSize + PARENT);}
+    public int getAction(long node) {return this.nodes.getInt(node * this.recordSize + ACTION);}
+    public int getNewTile(long node) {return this.nodes.getInt(node * this.recordSize + NEW_TILE);}
+    public int getDepth(long node) {return this.nodes.getInt(node * this.recordSize + DEPTH);}
+    public int getRemoveCounter(long node) {return this.nodes.getInt(node * this.recordSize + REMOVES);}
+    public int getEstimate(long node) {return this.nodes.getInt(node * this.recordSize + ESTIMATE);}
+    private int getHash(long node) {return this.nodes.getInt(node * this.recordSize + HASH);}
+    public long getStateCount() {return this.stateCount;}
+    public boolean isFrontierEmpty() {return this.frontierSize == 0;}
+    public long getSpilledBytes() {
+        return this.nodes.getSpilledBytes() + this.table.getSpilledBytes() + this.frontier.getSpilledBytes();
+    }
+}
@@ -0,0 +1,110 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+// The SnapshotStore class saves game snapshots to disk on a background thread so the UI never waits for the disk.
+// Each write goes to a temporary file that is flushed to disk and then atomically renamed over the previous
+// snapshot, so a crash at any point leaves either the old or the new snapshot intact. If several snapshots are
+// requested while a write is in progress, only the newest one is written.
+
+public class SnapshotStore {
+
+    // Marker for a pending request to delete the snapshot instead of writing one
+    private static final byte[] DELETE = new byte[0];
+
+    // Instance variables
+    private final Path file; // Location of the snapshot file
+    private final Path tempFile; // Temporary file written before being renamed over the snapshot
+    private final ExecutorService writer; // Single background thread performing the disk writes
+    private final AtomicReference<byte[]> pending; // Newest snapshot waiting to be written, if any
+    private Future<?> lastWrite; // The most recently submitted write
+
+    // Constructor: Creates a store for the snapshot at the given location
+    public SnapshotStore(Path file) {
+        this.file = file;
+        this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        this.pending = new AtomicReference<>();
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Saves the snapshot in the background
+    public void saveAsync(GameSnapshot snapshot) {this.submit(snapshot.toBytes());}
+
+    // Deletes the saved snapshot in the background, e.g. once the game is over
+    public void deleteAsync() {this.submit(DELETE);}
+
+    // Loads the saved snapshot, or returns null if there is none or it cannot be read
+    public GameSnapshot load() {
+        try {
+            return GameSnapshot.fromBytes(Files.readAllBytes(this.file));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable game snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Waits until every requested write has reached the disk
+    public void flush() {
+        Future<?> write = this.lastWrite;
+        if (write == null) return;
+        try {
+            write.get();
+        } catch (Exception e) {
+            System.err.println("Could not save game snapshot: " + e.getMessage());
+        }
+    }
+
+    // Queues new snapshot bytes, only starting a write if none is already waiting to pick them up
+    private void submit(byte[] bytes) {
+        if (this.pending.getAndSet(bytes) == null) this.lastWrite = this.writer.submit(this::writePending);
+    }
+
+    // Writes the newest pending snapshot to disk
+    private void writePending() {
+        byte[] bytes = this.pending.getAndSet(null);
+        if (bytes == null) return;
+        try {
+            if (bytes == DELETE) {
+                Files.deleteIfExists(this.file);
+                return;
+            }
+            Files.createDirectories(this.file.toAbsolutePath().getParent());
+
+            // Write and flush the temporary file, then atomically replace the old snapshot with it
+            try (FileChannel channel = FileChannel.open(this.tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) channel.write(buffer);
+                channel.force(true);
+            }
+            Files.move(this.tempFile, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            this.syncDirectory();
+        } catch (IOException e) {
+            System.err.println("Could not save game snapshot: " + e.getMessage());
+        }
+    }
+
+    // Flushes the directory entry of the renamed file, where the platform supports it
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(this.file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Some platforms cannot open directories; the rename itself is still atomic
+        }
+    }
+}
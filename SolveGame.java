@@ -1,330 +1,247 @@
-import javafx.animation.PauseTransition;
-import javafx.animation.SequentialTransition;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
-import javafx.util.Duration;
 import java.util.*;
+import java.util.function.BiConsumer;
 
-// The SolveGame class provides the logic for solving and animating a game board towards achieving
-// a specified target word. It employs a Breadth-First Search (BFS) algorithm to determine the shortest
-// sequence of moves to form the target word while handling game mechanics like tile generation, movement,
-// merging, and game-over conditions.
+// The SolveGame class animates a game board towards achieving a specified target word. It plays a solution found by
+// GameSolver, the shortest sequence of actions that forms the target word, while handling game mechanics like tile
+// generation, movement, merging, and game-over conditions. Besides moves, solutions use the player's own tools:
+// locking and unlocking tiles, typing letters on blank tiles and removing tiles within the remaining remove budget.
+// The player controls the playback with the keyboard: Space pauses and resumes, the right arrow plays one action at a
+// time, + and - change the speed between GameSettings.SOLVER_MIN_SPEED and SOLVER_MAX_SPEED, and Enter applies the rest
+// of the solution to the board at once and redraws it in a single frame.
 
 public class SolveGame {
     // Instance variables
     private final Board gameBoard; // Current state of the game board
     private final Pane gamePane; // Pane for game UI components
-    private List<Directions> directionsSequence; // Sequence of directions for solving the game
-    private List<TileInfo> newTiles; // Information about new tiles appearing on the board
     private final String targetWord; // Target word for the game level
     private final Tile[][] board;
-
-    // Constructor: Initializes the board state, solves the game, and animates the solution sequence
-    public SolveGame(Pane gamePane, Tile[][] initialBoard, String targetWord) {
+    private final GameRecorder recorder; // Recorder that logs the solution moves as they are played
+    private final BiConsumer<Integer, Integer> tileRemover; // Removes a tile through the game, using up a remove
+    private final BiConsumer<BoardState, Integer> positionApplier; // Jumps the game to a position, using up removes
+    private final List<Integer> actionSequence; // Sequence of actions (see SolverAction) for solving the game
+    private final List<TileInfo> newTiles; // New tile appearing after each action, or null if none appears
+    private int nextAction; // Index of the next action to play
+    private GameLoop.Timer delay; // Wait before the next action, or until the tiles settle, or null
+    private double speed; // Playback speed, 1 for normal speed
+    private boolean isPaused; // Whether playback waits for a step or for resuming
+    private boolean isSkipping; // Whether the rest of the solution is applied as soon as the tiles settle
+    private Text playbackText; // UI element showing the playback speed, or null once playback is over
+
+    // Constructor: Initializes the board state and plays the solution sequence
+    public SolveGame(Pane gamePane, Tile[][] initialBoard, String targetWord, GameRecorder recorder,
+                     GameSolver.Solution solution, BiConsumer<Integer, Integer> tileRemover,
+                     BiConsumer<BoardState, Integer> positionApplier) {
         // Initial configuration of the game board
         this.gamePane = gamePane;
         this.targetWord = targetWord;
         this.gameBoard = new Board(gamePane, initialBoard, targetWord);
-        this.gameBoard.updateTimeline.stop();
         this.board = initialBoard;
+        this.recorder = recorder;
+        this.tileRemover = tileRemover;
+        this.positionApplier = positionApplier;
+        this.actionSequence = solution.getActions();
+        this.newTiles = solution.getNewTiles();
+        this.speed = Math.max(GameSettings.SOLVER_MIN_SPEED, Math.min(GameSettings.SOLVER_MAX_SPEED,
+                GameSettings.SOLVER_PLAYBACK_SPEED));
 
-        // Solve the game and retrieve the solution sequence
-        this.findGameSolution(initialBoard);
+        // Handle the invalid case
+        if (!solution.isFound()) {
+            this.noSolutionFound();
+            return;
+        }
 
-        // Animate the solution
-        this.animateGameSolver(this.directionsSequence, this.newTiles);
+        // Play the solution, recording the moves played on screen but not the simulated search
+        this.gameBoard.setRecorder(recorder);
+        this.gameBoard.setAnimationRate(this.speed);
+        this.gamePane.setOnKeyPressed(this::handleKeyPress);
+        this.showPlaybackText();
+        if (GameSettings.SOLVER_INSTANT) this.skipToEnd();
+        else this.playNextAction();
     }
 
-    // Solves the game by using a Breadth-First Search (BFS) approach to find the shortest sequence
-    // of moves (directions) that transforms the initial board into a state where the target word is formed
-    private void findGameSolution(Tile[][] initialBoard) {
-        // Initialize the queue for BFS (each element is a Triple: board state, direction sequence, and new tiles)
-        Queue<Triple> queue = new LinkedList<>();
-        // Set to track visited states
-        Set<String> visited = new HashSet<>();
-        // Start with an empty sequence of directions and new tiles
-        List<Directions> initialDirections = new ArrayList<>();
-        List<TileInfo> initialTiles = new ArrayList<>();
-
-        // Enqueue the initial state
-        queue.offer(new Triple(initialBoard, initialDirections, initialTiles));
-        visited.add(this.serializeBoard(initialBoard));
-
-        // Perform BFS
-        while (!queue.isEmpty()) {
-            // Dequeue the current board state and its corresponding sequences
-            Triple currentTriple = queue.poll();
-            Tile[][] currentBoard = currentTriple.board;
-            List<Directions> currentSequence = currentTriple.sequence;
-            List<TileInfo> currentTiles = currentTriple.newTiles;
-
-            // Check for game over condition
-            if (this.gameBoard.checkForLoss(currentBoard, 0)){
-                this.directionsSequence = Collections.singletonList(Directions.INVALID); // Indicate invalid move sequence
-                this.newTiles = new ArrayList<>();
-                return;
-            }
-
-            // Check if the target word exists on the current board
-            if (this.gameBoard.checkForWin(currentBoard, this.targetWord).getKey()) {
-                this.directionsSequence = currentSequence; // Store the valid direction sequence
-                this.newTiles = currentTiles;  // Store the associated tile information
-                return;
-            }
-
-            // Explore each possible direction
-            for (Directions direction : Directions.values()) {
-                // Skip the INVALID direction
-                if (direction == Directions.INVALID) continue;
-
-                // Create a deep copy of the current board
-                Tile[][] newBoard = this.copyBoard(currentBoard);
-
-                // Apply the move and get information about any new tiles
-                TileInfo newTileInfo = this.applyMove(newBoard, direction);
-
-                // Serialize the new board state to check for uniqueness
-                String serializedBoard = this.serializeBoard(newBoard);
-
-                // If the new state is unvisited, process it
-                if (!visited.contains(serializedBoard)) {
-                    visited.add(serializedBoard); // Mark the state as visited
-
-                    // Create updated sequences for directions and new tiles
-                    List<Directions> newSequence = new ArrayList<>(currentSequence);
-                    newSequence.add(direction);
-
-                    List<TileInfo> newTileSequence = new ArrayList<>(currentTiles);
-                    if (newTileInfo != null) newTileSequence.add(newTileInfo);
-
-                    // Enqueue the new state with updated sequences
-                    queue.offer(new Triple(newBoard, newSequence, newTileSequence));
-                }
-            }
-        }
-
-        // If no solution is found, indicate failure
-        this.directionsSequence = Collections.singletonList(Directions.INVALID);
-        this.newTiles = new ArrayList<>();
+    // Stops playing the solution, leaving the tiles where they are
+    public void stop() {
+        this.nextAction = this.actionSequence.size();
+        this.stopWaiting();
+        this.gameBoard.stopSlide();
+        this.removePlaybackText();
     }
 
-    // Applies a specified move to the board and returns information about any resulting tile changes
-    private TileInfo applyMove(Tile[][] board, Directions direction) {
-        switch (direction) {
-            case UP:
-                return this.moveUp(board);
-            case DOWN:
-                return this.moveDown(board);
-            case LEFT:
-                return this.moveLeft(board);
+    // Handles the playback keys: Space pauses and resumes, the right arrow plays one action while paused, + and -
+    // double and halve the speed, and Enter applies the rest of the solution at once
+    private void handleKeyPress(KeyEvent event) {
+        if (this.nextAction >= this.actionSequence.size()) return;
+        switch (event.getCode()) {
+            case SPACE:
+                this.isPaused = !this.isPaused;
+                if (this.isPaused) this.stopWaiting();
+                else this.playNextAction();
+                break;
             case RIGHT:
-                return this.moveRight(board);
+                this.isPaused = true;
+                this.stopWaiting();
+                if (this.gameBoard.isAllowedToMove()) this.playAction();
+                break;
+            case EQUALS:
+            case ADD:
+                this.setSpeed(this.speed * 2);
+                break;
+            case MINUS:
+            case SUBTRACT:
+                this.setSpeed(this.speed / 2);
+                break;
+            case ENTER:
+                this.skipToEnd();
+                break;
             default:
-                throw new IllegalArgumentException("Invalid direction: " + direction);
+                return;
         }
+        this.showPlaybackText();
     }
 
-    // Moves all tiles on the board to the left, merging tiles with the same letter if the game is not won
-    private TileInfo moveLeft(Tile[][] board) {
-        // Shift all tiles to the left
-        this.gameBoard.moveLeft(board,false, false, true);
-
-        // Check for a win condition
-        if (this.gameBoard.checkForWin(board, this.targetWord).getKey()) return null;
-
-        // Merge tiles with the same letter
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS - 1; col++) {
-                Tile currentTile = board[row][col];
-                Tile nextTile = board[row][col + 1];
-
-                if (currentTile != null && nextTile != null && currentTile.getLetter() == nextTile.getLetter()) {
-                    currentTile.merge();
-                    board[row][col + 1] = null;
-                }
-            }
-        }
-
-        // Shift again to fill gaps created by merging
-        this.gameBoard.moveLeft(board, false, false, true);
-
-        // Generate a new tile
-        return this.gameBoard.generateNewTile(board, true);
+    // Changes the playback speed, including the wait and the tile slide in progress
+    private void setSpeed(double speed) {
+        this.speed = Math.max(GameSettings.SOLVER_MIN_SPEED, Math.min(GameSettings.SOLVER_MAX_SPEED, speed));
+        if (this.delay != null) this.delay.setRate(this.speed);
+        this.gameBoard.setAnimationRate(this.speed);
     }
 
-
-    // Moves all tiles on the board to the right, merging tiles with the same letter if the game is not won //
-    private TileInfo moveRight(Tile[][] board) {
-        // Shift all tiles to the right
-        this.gameBoard.moveRight(board,false, false, true);
-
-        // Check for a win condition
-        if (this.gameBoard.checkForWin(board, this.targetWord).getKey()) return null;
-
-        // Merge tiles with the same letter
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int col = Constants.NUMBER_OF_COLUMNS - 1; col > 0; col--) {
-                Tile currentTile = board[row][col];
-                Tile nextTile = board[row][col - 1];
-
-                if (currentTile != null && nextTile != null && currentTile.getLetter() == nextTile.getLetter()) {
-                    currentTile.merge();
-                    board[row][col - 1] = null;
-                }
-            }
+    // Plays the next action once the tiles of the last one have settled, then waits before the one after
+    private void playNextAction() {
+        if (this.isPaused || this.nextAction >= this.actionSequence.size()) return;
+        if (!this.gameBoard.isAllowedToMove()) {
+            this.waitFor(Constants.GAME_STEP);
+            return;
+        }
+        if (this.isSkipping) {
+            this.applyRemainingActions();
+            return;
         }
 
-        // Shift again to fill gaps created by merging
-        this.gameBoard.moveRight(board,false, false, true);
-
-        // Generate a new tile
-        return this.gameBoard.generateNewTile(board, true);
+        boolean isMove = SolverAction.isMove(this.actionSequence.get(this.nextAction));
+        this.playAction();
+        this.waitFor(1000 * (isMove ? GameSettings.SOLVER_MOVE_DELAY : GameSettings.SOLVER_TOOL_DELAY));
     }
 
-    // Moves all tiles on the board upwards, merging tiles with the same letter if the game is not won //
-    private TileInfo moveUp(Tile[][] board) {
-        // Shift all tiles upward
-        this.gameBoard.moveUp(board,false, false, true);
-
-        // Check for a win condition
-        if (this.gameBoard.checkForWin(board, this.targetWord).getKey()) return null;
-
-        // Merge tiles with the same letter
-        for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
-            for (int row = 0; row < Constants.NUMBER_OF_ROWS - 1; row++) {
-                Tile currentTile = board[row][col];
-                Tile nextTile = board[row + 1][col];
-
-                if (currentTile != null && nextTile != null && currentTile.getLetter() == nextTile.getLetter()) {
-                    currentTile.merge();
-                    board[row + 1][col] = null;
-                }
-            }
+    // Waits the given time at the playback speed before playing the next action
+    private void waitFor(double millis) {
+        if (this.nextAction >= this.actionSequence.size()) {
+            this.removePlaybackText();
+            return;
         }
-
-        // Shift again to fill gaps created by merging
-        this.gameBoard.moveUp(board,false, false, true);
-
-        // Generate a new tile
-        return this.gameBoard.generateNewTile(board, true);
+        this.delay = GameLoop.get().schedule(millis, this::playNextAction);
+        this.delay.setRate(this.speed);
     }
 
-    // Moves all tiles on the board downwards, merging tiles with the same letter if the game is not won
-    private TileInfo moveDown(Tile[][] board) {
-        // Shift all tiles downward to fill gaps
-        this.gameBoard.moveDown(board,false, false, true);
-
-        // Check for a win condition
-        if (this.gameBoard.checkForWin(board, this.targetWord).getKey()) return null;
+    // Cancels the wait for the next action, if any
+    private void stopWaiting() {
+        if (this.delay != null) this.delay.cancel();
+    }
 
-        // Merge tiles with the same letter
-        for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
-            for (int row = Constants.NUMBER_OF_ROWS - 1; row > 0; row--) { // Start from the bottom
-                Tile currentTile = board[row][col];
-                Tile nextTile = board[row - 1][col];
+    // Plays the next action on the tiles on screen
+    private void playAction() {
+        int i = this.nextAction++;
+        int action = this.actionSequence.get(i);
+        if (this.nextAction == this.actionSequence.size()) this.removePlaybackText();
 
-                if (currentTile != null && nextTile != null && currentTile.getLetter() == nextTile.getLetter()) {
-                    currentTile.merge();
-                    board[row - 1][col] = null;
-                }
-            }
+        // Tools take effect right away, moves slide the tiles and make the new tile of the search appear
+        if (!SolverAction.isMove(action)) {
+            this.applyTool(action);
+            return;
         }
-
-        // Shift again to fill gaps created by merging
-        this.gameBoard.moveDown(board,false, false, true);
-
-        // Generate a new tile
-        return this.gameBoard.generateNewTile(board, true);
+        Directions direction = SolverAction.getDirection(action);
+        TileInfo newTile = this.newTiles.get(i);
+        int newTileRow = newTile == null ? -1 : newTile.row;
+        int newTileCol = newTile == null ? -1 : newTile.col;
+        char newTileLetter = newTile == null ? '\0' : newTile.letter;
+
+        if (this.gameBoard.isAllowedToMove()) this.recorder.recordMove(direction);
+        MoveTrace.startMove();
+        this.gameBoard.move(direction, false, false, false);
+        this.gameBoard.animateTileMovement(direction, false, newTileRow, newTileCol, newTileLetter);
     }
 
-    // Creates a copy of the given game board
-    private Tile[][] copyBoard(Tile[][] board) {
-        Tile[][] copy = new Tile[Constants.NUMBER_OF_ROWS][Constants.NUMBER_OF_COLUMNS];
+    // Applies the rest of the solution at once, as soon as the tiles of the action playing have settled
+    private void skipToEnd() {
+        this.isSkipping = true;
+        this.isPaused = false;
+        this.stopWaiting();
+        this.playNextAction();
+    }
 
-        // Iterate through each cell of the board
-        for (int row = 0; row < Constants.NUMBER_OF_ROWS; row++) {
-            for (int col = 0; col < Constants.NUMBER_OF_COLUMNS; col++) {
-                if (board[row][col] != null) copy[row][col] = new Tile(board[row][col]); // Copy each tile
+    // Plays the remaining actions on a copy of the board and shows the final position in one go, so even a long
+    // solution finishes within a single frame
+    private void applyRemainingActions() {
+        BoardState state = BoardState.fromTiles(this.board);
+        int removesUsed = 0;
+        for (int i = this.nextAction; i < this.actionSequence.size(); i++) {
+            int action = this.actionSequence.get(i);
+            TileInfo newTile = this.newTiles.get(i);
+            if (!SolverAction.isMove(action)) {
+                GameSolver.applyTool(state, action);
+                if (SolverAction.getType(action) == SolverAction.REMOVE) removesUsed++;
+            } else if (state.move(SolverAction.getDirection(action), this.targetWord) && newTile != null) {
+                state.placeTile(newTile.row, newTile.col, newTile.letter, !state.hasBlankTile());
             }
         }
-        return copy;
+        this.nextAction = this.actionSequence.size();
+        this.removePlaybackText();
+        this.positionApplier.accept(state, removesUsed);
     }
 
-    // Serializes the board into a unique string representation
-    private String serializeBoard(Tile[][] board) {
-        StringBuilder serialized = new StringBuilder();
-
-        // Iterate through each row and tile on the board
-        for (Tile[] row : board) {
-            for (Tile tile : row) {
-                serialized.append(tile != null ? tile.getLetter() : '0');} // Append the tile's letter or '0' if empty
+    // Shows the playback speed, or that playback is paused
+    private void showPlaybackText() {
+        if (this.nextAction >= this.actionSequence.size()) return;
+        if (this.playbackText == null) {
+            this.playbackText = new Text();
+            this.playbackText.setFill(Color.web(Constants.LOGO_COLOR));
+            this.playbackText.setFont(Constants.PLAYBACK_TEXT_FONT);
+            this.playbackText.setLayoutX(Constants.PLAYBACK_TEXT_X);
+            this.playbackText.setLayoutY(Constants.PLAYBACK_TEXT_Y);
+            this.gamePane.getChildren().add(this.playbackText);
         }
-        return serialized.toString();
+        this.playbackText.setText(this.isPaused ? "PAUSED" : String.format("SPEED %sx", formatSpeed(this.speed)));
     }
 
-    // Animates a sequence of game solver moves and corresponding new tile placements
-    private void animateGameSolver(List<Directions> directionsSequence, List<TileInfo> newTiles) {
-        // Handle the invalid case
-        if (this.directionsSequence.equals(Collections.singletonList(Directions.INVALID))) {
-            this.noSolutionFound();
-            return;
-        }
-
-        SequentialTransition sequentialTransition = new SequentialTransition();
-
-        for (int i = 0; i < directionsSequence.size(); i++) {
-            Directions direction = directionsSequence.get(i);
-
-            // Declare variables for tile position and letter with default values
-            int newTileRow;
-            int newTileCol;
-            char newTileLetter;
-
-            // Ensure the index is within bounds for newTiles
-            if (i < newTiles.size()) {
-                newTileRow = newTiles.get(i).row;
-                newTileCol = newTiles.get(i).col;
-                newTileLetter = newTiles.get(i).letter;
-            } else {
-                newTileLetter = '\0';
-                newTileCol = -1;
-                newTileRow = -1;
-            }
-
-            // Create a PauseTransition for the delay
-            PauseTransition pause = new PauseTransition(Duration.seconds(1.5));
+    private void removePlaybackText() {
+        if (this.playbackText == null) return;
+        this.gamePane.getChildren().remove(this.playbackText);
+        this.playbackText = null;
+    }
 
-            // Create an action for the direction and add it to the SequentialTransition
-            PauseTransition actionTransition = new PauseTransition(Duration.ZERO);
-            actionTransition.setOnFinished(e -> {
-                switch (direction) {
-                    case LEFT:
-                        this.gameBoard.moveLeft(this.board, false, false, false);
-                        this.gameBoard.animateHorizontalTileMovement(Directions.LEFT, false, newTileRow, newTileCol, newTileLetter);
-                        break;
-                    case RIGHT:
-                        this.gameBoard.moveRight(this.board, false, false, false);
-                        this.gameBoard.animateHorizontalTileMovement(Directions.RIGHT, false, newTileRow, newTileCol, newTileLetter);
-                        break;
-                    case UP:
-                        this.gameBoard.moveUp(this.board, false, false, false);
-                        this.gameBoard.animateVerticalTileMovement(Directions.UP, false, newTileRow, newTileCol, newTileLetter);
-                        break;
-                    case DOWN:
-                        this.gameBoard.moveDown(this.board, false, false, false);
-                        this.gameBoard.animateVerticalTileMovement(Directions.DOWN, false, newTileRow, newTileCol, newTileLetter);
-                        break;
-                }
-            });
+    // Writes a speed without a fraction when it is whole (2 rather than 2.0)
+    private static String formatSpeed(double speed) {
+        return speed == Math.rint(speed) ? String.valueOf((int) speed) : String.valueOf(speed);
+    }
 
-            // Add the action and pause to the SequentialTransition
-            sequentialTransition.getChildren().addAll(actionTransition, pause);
+    // Applies a tool action of the solution to the tiles on screen
+    private void applyTool(int action) {
+        int row = SolverAction.getCell(action) / GameSettings.NUMBER_OF_COLUMNS;
+        int col = SolverAction.getCell(action) % GameSettings.NUMBER_OF_COLUMNS;
+        Tile tile = this.board[row][col];
+
+        switch (SolverAction.getType(action)) {
+            case SolverAction.LOCK:
+                this.gameBoard.setLock(row, col, SolverAction.getLock(action));
+                this.recorder.recordLock(row, col, tile.getLockStatus());
+                break;
+            case SolverAction.LETTER:
+                char previousLetter = tile.getLetter();
+                tile.setLetter(SolverAction.getLetter(action));
+                this.gameBoard.letterChanged(row, col, previousLetter);
+                this.recorder.recordLetter(row, col, tile.getLetter());
+                break;
+            case SolverAction.REMOVE:
+                this.tileRemover.accept(row, col);
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid tool action: " + action);
         }
-
-        // Play the animation sequence
-        sequentialTransition.play();
     }
 
     // Displays a "No Solution" message on the game pane when no solution is found
@@ -350,19 +267,6 @@ public class SolveGame {
     }
 
 
-    // Triple class to hold board state, direction sequence, and new tile sequence */
-    private static class Triple {
-        Tile[][] board;
-        List<Directions> sequence;
-        List<TileInfo> newTiles;
-
-        public Triple(Tile[][] board, List<Directions> sequence, List<TileInfo> newTiles) {
-            this.board = board;
-            this.sequence = sequence;
-            this.newTiles = newTiles;
-        }
-    }
-
     // Tile information class to hold information about a tile on the game board (row, column, letter)
     public static class TileInfo {
         int row, col;
@@ -0,0 +1,63 @@
+// The SolverAction class encodes the actions the solver can take into single ints, so that search nodes store one
+// number per action instead of an object. An action is either a move or one of the player tools: changing the lock
+// status of a tile, typing a letter on a blank tile or removing a tile.
+//
+// Layout: action type in bits 0-2, argument (direction, lock status or letter) in bits 3-7, cell in bits 8-15. The
+// cell is in the highest bits so that ordering tool actions by their code orders them by cell.
+
+public final class SolverAction {
+
+    // Action types
+    public static final int MOVE = 0;
+    public static final int LOCK = 1;
+    public static final int LETTER = 2;
+    public static final int REMOVE = 3;
+
+    // Marker for the root of the search, which no action leads to
+    public static final int NONE = -1;
+
+    private SolverAction() {}
+
+    // Encodes a move in the given direction
+    public static int move(Directions direction) {return encode(MOVE, direction.ordinal(), 0);}
+
+    // Encodes setting the lock status of the tile on the given cell
+    public static int lock(int cell, Locks lock) {return encode(LOCK, lock.ordinal(), cell);}
+
+    // Encodes typing a letter on the blank tile on the given cell
+    public static int letter(int cell, char letter) {return encode(LETTER, letter - 'A', cell);}
+
+    // Encodes removing the tile on the given cell
+    public static int remove(int cell) {return encode(REMOVE, 0, cell);}
+
+    private static int encode(int type, int argument, int cell) {return type | (argument << 3) | (cell << 8);}
+
+    // Important getters
+    public static int getType(int action) {return action & 0x7;}
+    public static int getCell(int action) {return action >>> 8;}
+    public static Directions getDirection(int action) {return Directions.values()[(action >> 3) & 0x1F];}
+    public static Locks getLock(int action) {return Locks.values()[(action >> 3) & 0x1F];}
+    public static char getLetter(int action) {return (char) ('A' + ((action >> 3) & 0x1F));}
+
+    // Checks whether the action is a move rather than a tool
+    public static boolean isMove(int action) {return getType(action) == MOVE;}
+
+    // Describes the action for a board with the given number of columns
+    public static String toString(int action, int cols) {
+        if (action == NONE) return "NONE";
+        int cell = getCell(action);
+        String tile = " (" + cell / cols + ", " + cell % cols + ")";
+        switch (getType(action)) {
+            case MOVE:
+                return getDirection(action).toString();
+            case LOCK:
+                return getLock(action) + tile;
+            case LETTER:
+                return "LETTER " + getLetter(action) + tile;
+            case REMOVE:
+                return "REMOVE" + tile;
+            default:
+                throw new IllegalArgumentException("Invalid action: " + action);
+        }
+    }
+}
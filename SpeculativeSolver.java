@@ -0,0 +1,93 @@
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// The SpeculativeSolver class solves the position on screen in the background while the player is idle, so that the
+// Solve button usually answers at once. Game starts a solve whenever the board has settled on a position it has not
+// solved yet, and cancels it as soon as the player acts again, so the search never competes with the animation of a
+// move. Solves run one at a time on a single low-priority daemon thread, and a cancelled solve stops before its next
+// state. When the Solve button is pressed while the solve of the current position is still running, the game waits
+// for it to finish, raising its priority meanwhile, instead of starting again from scratch.
+//
+// Every method is called on the JavaFX thread.
+
+public class SpeculativeSolver {
+
+    // A solve of one position
+    private static class Task {
+        private final BoardState state; // The position solved
+        private final long hash; // Zobrist hash of the position, compared first
+        private final int removeCounter; // Removes left in the position
+        private volatile boolean isCancelled; // Whether the solve should stop
+        private Future<GameSolver.Solution> result; // The solution, or null if the solve was cancelled
+
+        private Task(BoardState state, long hash, int removeCounter) {
+            this.state = state;
+            this.hash = hash;
+            this.removeCounter = removeCounter;
+        }
+    }
+
+    // Instance variables
+    private final ExecutorService worker; // Single background thread running the solves
+    private Thread workerThread; // The background thread, once started
+    private Task task; // The solve of the last position seen, running or finished, or null
+
+    // Constructor: Creates a solver with no position to solve yet
+    public SpeculativeSolver() {
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "speculative-solver");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            this.workerThread = thread;
+            return thread;
+        });
+    }
+
+    // Whether the position with the given hash and removes is being solved or has been solved already
+    public boolean isSolving(long hash, int removeCounter) {
+        return this.task != null && this.task.hash == hash && this.task.removeCounter == removeCounter;
+    }
+
+    // Starts solving a position, cancelling the solve of the previous one
+    public void start(BoardState state, long hash, int removeCounter, String targetWord) {
+        this.cancel();
+        Task task = new Task(state, hash, removeCounter);
+        GameSolver solver = new GameSolver(targetWord, state.getRows(), state.getCols());
+        task.result = this.worker.submit(() -> solver.solve(task.state, task.removeCounter, () -> task.isCancelled));
+        this.task = task;
+    }
+
+    // Stops the current solve, if any, because the position is about to change
+    public void cancel() {
+        if (this.task == null) return;
+        this.task.isCancelled = true;
+        this.task = null;
+    }
+
+    // Returns the solution of the given position, waiting for its solve to finish if needed, or null if it was not
+    // being solved. The solve is used up either way.
+    public GameSolver.Solution takeSolution(BoardState state, int removeCounter) {
+        Task task = this.task;
+        this.task = null;
+        if (task == null || task.removeCounter != removeCounter || !task.state.equals(state)) {
+            if (task != null) task.isCancelled = true;
+            return null;
+        }
+
+        Thread thread = this.workerThread;
+        thread.setPriority(Thread.NORM_PRIORITY); // The player is waiting for it now
+        try {
+            return task.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("Background solve failed: " + e.getCause());
+            return null;
+        } finally {
+            thread.setPriority(Thread.MIN_PRIORITY);
+        }
+    }
+}
@@ -1,11 +1,9 @@
-import javafx.animation.ScaleTransition;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.StrokeType;
 import javafx.scene.text.Text;
-import javafx.util.Duration;
 
 // The Tile class represents a single tile in the game grid. It manages the tile's graphical
 // representation, including its position, color, and letter.
@@ -25,6 +23,12 @@ public class Tile {
 
     // Constructs a new Tile object
     public Tile(Pane gamePane, int rowY, int colX, int row, int col) {
+        this(gamePane, rowY, colX, row, col, false);
+    }
+
+    // Constructs a new Tile object. A restored tile appears at full size without animating and is not added to the
+    // game pane, so that the caller can add a whole board of restored tiles in one batch.
+    public Tile(Pane gamePane, int rowY, int colX, int row, int col, boolean isRestored) {
         // Initialize tile's position in the grid
         this.row = row;
         this.col = col;
@@ -34,12 +38,13 @@ public class Tile {
         this.lockStatus = Locks.UNLOCKED;
 
         // Calculate tile's graphical position based on offsets
-        double x = colX + Constants.X_OFFSET + 7.4;
-        double y = rowY + Constants.Y_OFFSET - 2.98;
+        double x = colX + Constants.X_OFFSET + Constants.TILE_X_INSET;
+        double y = rowY + Constants.Y_OFFSET - Constants.TILE_Y_INSET;
 
         // Set tile color and graphical representation
         this.tileColor = Constants.TILE_COLOR;
-        this.tileSquare = new Rectangle(x, y, Constants.TILE_WIDTH - 15, Constants.TILE_HEIGHT - 15);
+        this.tileSquare = new Rectangle(x, y, Constants.TILE_WIDTH - Constants.TILE_BORDER_WIDTH,
+                Constants.TILE_HEIGHT - Constants.TILE_BORDER_WIDTH);
         this.tileSquare.setFill(Color.web(this.tileColor));
 
         // Initialize tile letter as blank
@@ -56,6 +61,8 @@ public class Tile {
         this.tile.setLayoutX(x);
         this.tile.setLayoutY(y);
 
+        if (isRestored) return;
+
         // Initialize scale (start small for animation)
         this.tile.setScaleX(0);
         this.tile.setScaleY(0);
@@ -68,19 +75,6 @@ public class Tile {
 
     }
 
-    // Constructs a new Tile object with specified row and column indices
-    public Tile(int row, int col) {
-        this.row = row;
-        this.col = col;
-    }
-
-    // Creates a new Tile object by copying the state of another Tile
-    public Tile(Tile other) {
-        this.currLetter = other.currLetter;
-        this.row = other.row;
-        this.col = other.col;
-    }
-
     // Merges the tile by incrementing its current letter and animating the merge */
     public void merge() {
         if (this.isLocked()) {
@@ -111,14 +105,11 @@ public class Tile {
 
     // Animates tiles with a scaling effect
     private void animateTile(double startingSize) {
-        ScaleTransition scale = new ScaleTransition(Duration.millis(Constants.TILE_SPEED), this.tile);
-        scale.setFromX(startingSize);
-        scale.setFromY(startingSize);
-        scale.setToX(1);
-        scale.setToY(1);
-        scale.setCycleCount(1);
-        scale.setAutoReverse(false);
-        scale.play();
+        GameLoop.get().tween(Constants.TILE_SPEED, progress -> {
+            double size = startingSize + (1 - startingSize) * progress;
+            this.tile.setScaleX(size);
+            this.tile.setScaleY(size);
+        });
     }
 
     // Important setters and getters
@@ -157,6 +148,8 @@ public class Tile {
     public void setColor(Color color){this.tileSquare.setFill(color);}
     public StackPane getTile(){return this.tile;}
     public char getLetter() {return this.currLetter;}
+    public int getRow() {return this.row;}
+    public int getCol() {return this.col;}
     public String getTileColor() {return Constants.TILE_COLOR;}
     public Locks getLockStatus() {return this.lockStatus;}
     public boolean isLocked() {
@@ -0,0 +1,45 @@
+import java.util.Random;
+
+// The TrackedRandom class produces exactly the same numbers as java.util.Random for the same seed, but its state
+// can be read and copied. A search can then carry the random number generator of a game along with each board and
+// know which tile every move will really spawn, instead of sampling one.
+
+public class TrackedRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // Instance variables
+    private long state; // The 48-bit state of the linear congruential generator
+
+    // Constructor: Creates a generator seeded like new Random(seed)
+    public TrackedRandom(long seed) {super(seed);}
+
+    // Creates a generator continuing from the given state (see getState)
+    public static TrackedRandom fromState(long state) {
+        TrackedRandom random = new TrackedRandom(0);
+        random.setState(state);
+        return random;
+    }
+
+    // Called by the Random constructor as well as by users
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        this.state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        this.state = (this.state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (this.state >>> (48 - bits));
+    }
+
+    // Continues from the given state, so the same numbers come out again
+    public void setState(long state) {this.state = state & MASK;}
+
+    // Important getters
+    public long getState() {return this.state;}
+}
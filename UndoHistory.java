@@ -0,0 +1,84 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// The UndoHistory class keeps the undo and redo stacks of a game. Each step is a small immutable snapshot of
+// everything an action can change: the board as one packed byte per cell (letters, locks and blank tiles, see
+// BoardState.getPackedCell), the removes left, the score and the state of the random number generator that spawns
+// new tiles. Taking a snapshot copies a few dozen bytes whatever happened before it, and at most
+// GameSettings.UNDO_LIMIT steps are kept, the oldest being dropped first, so the history never grows without bound.
+
+public class UndoHistory {
+
+    // A saved position
+    public static class Step {
+        private final byte[] cells; // Packed cells of the board
+        private final int rows, cols; // Board size
+        private final int removeCounter; // Removes left
+        private final int score; // Score of the player
+        private final long randomState; // State of the board's random number generator
+
+        public Step(BoardState state, int removeCounter, int score, long randomState) {
+            this.rows = state.getRows();
+            this.cols = state.getCols();
+            this.cells = new byte[state.getCellCount()];
+            for (int cell = 0; cell < this.cells.length; cell++) this.cells[cell] = (byte) state.getPackedCell(cell);
+            this.removeCounter = removeCounter;
+            this.score = score;
+            this.randomState = randomState;
+        }
+
+        // Rebuilds the board of the step
+        public BoardState getState() {
+            BoardState state = new BoardState(this.rows, this.cols);
+            for (int cell = 0; cell < this.cells.length; cell++) state.setPackedCell(cell, this.cells[cell] & 0xFF);
+            return state;
+        }
+
+        // Important getters
+        public int getRemoveCounter() {return this.removeCounter;}
+        public int getScore() {return this.score;}
+        public long getRandomState() {return this.randomState;}
+    }
+
+    // Instance variables
+    private final int limit; // Number of steps kept on each stack
+    private final Deque<Step> undoSteps; // Positions before the latest actions, newest first
+    private final Deque<Step> redoSteps; // Positions undone, most recently undone first
+
+    // Constructor: Creates an empty history keeping at most the given number of steps
+    public UndoHistory(int limit) {
+        this.limit = limit;
+        this.undoSteps = new ArrayDeque<>();
+        this.redoSteps = new ArrayDeque<>();
+    }
+
+    // Saves the position before a new action. A new action starts a new line of play, so nothing can be redone.
+    public void record(Step before) {
+        this.undoSteps.push(before);
+        if (this.undoSteps.size() > this.limit) this.undoSteps.removeLast();
+        this.redoSteps.clear();
+    }
+
+    // Returns the position before the last action, keeping the current one for redo, or null if there is none
+    public Step undo(Step current) {
+        if (this.undoSteps.isEmpty()) return null;
+        this.redoSteps.push(current);
+        return this.undoSteps.pop();
+    }
+
+    // Returns the position the last undo went back from, keeping the current one for undo, or null if there is none
+    public Step redo(Step current) {
+        if (this.redoSteps.isEmpty()) return null;
+        this.undoSteps.push(current);
+        return this.redoSteps.pop();
+    }
+
+    // Forgets every step, when a new game starts
+    public void clear() {
+        this.undoSteps.clear();
+        this.redoSteps.clear();
+    }
+
+    public boolean canUndo() {return !this.undoSteps.isEmpty();}
+    public boolean canRedo() {return !this.redoSteps.isEmpty();}
+}
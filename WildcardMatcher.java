@@ -0,0 +1,115 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The WildcardMatcher class checks whether the target word can be formed on a board when blank tiles are treated as
+// wildcards, and finds the fewest letters that have to be typed on blank tiles to do so. This lets the solver leave
+// the letter of a blank tile open instead of trying every letter for it: the letter is only fixed when a win needs
+// it. Lines repeat a lot between search states, so the result for each distinct line is cached.
+
+public class WildcardMatcher {
+
+    // Largest number of lines kept in the cache before it is cleared
+    private static final int MAX_CACHED_LINES = 1 << 16;
+
+    // The letters to type on blank tiles to form the target word
+    public static class Resolution {
+        final int[] cells; // Cells of the blank tiles that need a new letter
+        final char[] letters; // Letter to type on each of those cells
+
+        Resolution(int[] cells, char[] letters) {
+            this.cells = cells;
+            this.letters = letters;
+        }
+
+        // Number of letters that have to be typed
+        public int getCost() {return this.cells.length;}
+        public int getCell(int i) {return this.cells[i];}
+        public char getLetter(int i) {return this.letters[i];}
+    }
+
+    // Instance variables
+    private final String targetWord; // The target word of the game
+    private final Map<String, Integer> cache; // Cheapest window of each line seen, encoded as cost * 256 + start
+    private final StringBuilder lineKey; // Reused buffer for building cache keys
+
+    // Constructor: Creates a matcher for the given target word
+    public WildcardMatcher(String targetWord) {
+        this.targetWord = targetWord;
+        this.cache = new HashMap<>();
+        this.lineKey = new StringBuilder();
+    }
+
+    // Finds the fewest letters to type on blank tiles so that the target word appears in a row (left to right) or a
+    // column (top to bottom). Returns null if no assignment of the blank tiles can form the word.
+    public Resolution resolve(BoardState state) {
+        int bestCost = Integer.MAX_VALUE;
+        int bestStart = -1;
+        int bestStride = 0;
+
+        for (int row = 0; row < state.getRows() && bestCost > 0; row++) {
+            int start = state.index(row, 0);
+            int window = this.findCheapestWindow(state, start, 1, state.getCols());
+            if (window != -1 && window >> 8 < bestCost) {
+                bestCost = window >> 8;
+                bestStart = start + (window & 0xFF);
+                bestStride = 1;
+            }
+        }
+        for (int col = 0; col < state.getCols() && bestCost > 0; col++) {
+            int window = this.findCheapestWindow(state, col, state.getCols(), state.getRows());
+            if (window != -1 && window >> 8 < bestCost) {
+                bestCost = window >> 8;
+                bestStart = col + (window & 0xFF) * state.getCols();
+                bestStride = state.getCols();
+            }
+        }
+        if (bestStart == -1) return null;
+
+        // Collect the blank tiles in the winning window whose letter has to change
+        List<Integer> cells = new ArrayList<>();
+        StringBuilder letters = new StringBuilder();
+        for (int i = 0; i < this.targetWord.length(); i++) {
+            int cell = bestStart + i * bestStride;
+            if (state.getLetter(cell) != this.targetWord.charAt(i)) {
+                cells.add(cell);
+                letters.append(this.targetWord.charAt(i));
+            }
+        }
+        return new Resolution(cells.stream().mapToInt(Integer::intValue).toArray(), letters.toString().toCharArray());
+    }
+
+    // Finds the window of a line that needs the fewest typed letters, encoded as cost * 256 + position of the window,
+    // or -1 if no window can form the word
+    private int findCheapestWindow(BoardState state, int start, int stride, int length) {
+        // Blank tiles are written in lower case so that they get their own cache entries
+        this.lineKey.setLength(0);
+        for (int position = 0; position < length; position++) {
+            int cell = start + position * stride;
+            char letter = state.getLetter(cell);
+            if (letter == '\0') this.lineKey.append('.');
+            else this.lineKey.append(state.isBlank(cell) ? Character.toLowerCase(letter) : letter);
+        }
+        String key = this.lineKey.toString();
+        Integer cached = this.cache.get(key);
+        if (cached != null) return cached;
+
+        int best = -1;
+        for (int windowStart = 0; windowStart + this.targetWord.length() <= length; windowStart++) {
+            int cost = 0;
+            for (int i = 0; i < this.targetWord.length() && cost != -1; i++) {
+                char letter = key.charAt(windowStart + i);
+                char wanted = this.targetWord.charAt(i);
+                if (Character.toUpperCase(letter) == wanted) continue;
+                if (Character.isLowerCase(letter)) cost++; // A blank tile can take any other letter
+                else cost = -1; // An empty cell or a different letter on a normal tile
+            }
+            if (cost != -1 && (best == -1 || cost < best >> 8)) best = (cost << 8) | windowStart;
+        }
+
+        if (this.cache.size() >= MAX_CACHED_LINES) this.cache.clear();
+        this.cache.put(key, best);
+        return best;
+    }
+}
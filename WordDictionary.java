@@ -0,0 +1,289 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// The WordDictionary class indexes a large word list (100k+ words) as an Aho-Corasick automaton so that a row or
+// column can be scanned for every dictionary word in a single pass, with one table lookup per letter. The automaton
+// is stored in flat int tables that can be saved to a compact binary file and memory-mapped back, so a compiled
+// dictionary loads instantly and is shared through the page cache instead of being rebuilt on the heap.
+//
+// Compiled layout (big-endian): magic (int), version (int), state count (int), word count (int), the transition
+// table (26 ints per state), the word id ending at each state (-1 if none), the dictionary suffix link of each state
+// (-1 if none), the offsets of each word in the letter block (word count + 1 ints), then the letters of every word.
+//
+// Usage: java WordDictionary <word list> <compiled file>   compiles a word list, one word per line
+
+public class WordDictionary {
+
+    // Format constants
+    public static final int MAGIC = 0x57384443; // "W8DC"
+    public static final int VERSION = 1;
+    public static final String COMPILED_EXTENSION = ".w8d";
+    private static final int ALPHABET_SIZE = 26;
+    private static final int HEADER_SIZE = 16;
+
+    // Receives every dictionary word found while scanning a board
+    public interface WordHandler {
+        // Called with the id of the word, the line it was found in (rows first, then columns) and the position of
+        // its last letter in that line
+        void wordFound(int wordId, int line, int endPosition);
+    }
+
+    // Instance variables
+    private final int stateCount; // Number of states in the automaton (state 0 is the root)
+    private final int wordCount; // Number of words in the dictionary
+    private final IntBuffer transitions; // Next state for each state and letter
+    private final IntBuffer wordIds; // Word ending at each state, or -1
+    private final IntBuffer dictionaryLinks; // Nearest shorter suffix state that ends a word, or -1
+    private final IntBuffer wordOffsets; // Start of each word in the letter block
+    private final ByteBuffer wordLetters; // Letters of every word, back to back
+
+    // Constructor: Wraps the automaton tables, either on the heap or memory-mapped from a compiled file
+    private WordDictionary(int stateCount, int wordCount, IntBuffer transitions, IntBuffer wordIds,
+                           IntBuffer dictionaryLinks, IntBuffer wordOffsets, ByteBuffer wordLetters) {
+        this.stateCount = stateCount;
+        this.wordCount = wordCount;
+        this.transitions = transitions;
+        this.wordIds = wordIds;
+        this.dictionaryLinks = dictionaryLinks;
+        this.wordOffsets = wordOffsets;
+        this.wordLetters = wordLetters;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java WordDictionary <word list> <compiled file>");
+            return;
+        }
+        long startTime = System.nanoTime();
+        WordDictionary dictionary = loadWordList(Paths.get(args[0]));
+        dictionary.save(Paths.get(args[1]));
+        System.out.printf("Compiled %d words into %d states in %.0f ms%n", dictionary.wordCount,
+                dictionary.stateCount, (System.nanoTime() - startTime) / 1e6);
+    }
+
+    // Loads the dictionary at the given path: compiled files are memory-mapped, anything else is read as a word list
+    public static WordDictionary load(Path path) throws IOException {
+        if (path.toString().endsWith(COMPILED_EXTENSION)) return map(path);
+        return loadWordList(path);
+    }
+
+    // Reads a word list (one word per line) and builds its automaton. Words are upper-cased and anything that is
+    // not made only of the letters A-Z is skipped.
+    public static WordDictionary loadWordList(Path path) throws IOException {
+        return build(Files.readAllLines(path, StandardCharsets.UTF_8));
+    }
+
+    // Builds the automaton for the given words
+    public static WordDictionary build(List<String> wordList) {
+        // Keep each valid word once, in the order given
+        Set<String> uniqueWords = new LinkedHashSet<>();
+        for (String line : wordList) {
+            String word = line.trim().toUpperCase(Locale.ROOT);
+            if (!word.isEmpty() && word.chars().allMatch(letter -> letter >= 'A' && letter <= 'Z')) uniqueWords.add(word);
+        }
+        List<String> words = new ArrayList<>(uniqueWords);
+
+        // Build the trie; a transition of 0 means "no child" since nothing points back to the root yet
+        int[] transitions = new int[ALPHABET_SIZE * 1024];
+        int[] wordIds = new int[1024];
+        Arrays.fill(wordIds, -1);
+        int stateCount = 1;
+        for (int wordId = 0; wordId < words.size(); wordId++) {
+            String word = words.get(wordId);
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int slot = state * ALPHABET_SIZE + (word.charAt(i) - 'A');
+                if (transitions[slot] == 0) {
+                    if (stateCount == wordIds.length) {
+                        transitions = Arrays.copyOf(transitions, transitions.length * 2);
+                        int oldLength = wordIds.length;
+                        wordIds = Arrays.copyOf(wordIds, oldLength * 2);
+                        Arrays.fill(wordIds, oldLength, wordIds.length, -1);
+                    }
+                    transitions[slot] = stateCount++;
+                }
+                state = transitions[slot];
+            }
+            wordIds[state] = wordId;
+        }
+
+        // Turn the trie into a complete automaton breadth-first, filling in failure transitions and the links to
+        // the nearest shorter word ending at each state
+        int[] failureLinks = new int[stateCount];
+        int[] dictionaryLinks = new int[stateCount];
+        Arrays.fill(dictionaryLinks, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+            int child = transitions[letter];
+            if (child != 0) queue.add(child); // Children of the root fail back to the root
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int failure = failureLinks[state];
+            dictionaryLinks[state] = wordIds[failure] != -1 ? failure : dictionaryLinks[failure];
+            for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+                int slot = state * ALPHABET_SIZE + letter;
+                int child = transitions[slot];
+                if (child != 0) {
+                    failureLinks[child] = transitions[failure * ALPHABET_SIZE + letter];
+                    queue.add(child);
+                } else transitions[slot] = transitions[failure * ALPHABET_SIZE + letter];
+            }
+        }
+
+        // Store the letters of every word so that matches can be reported
+        int[] wordOffsets = new int[words.size() + 1];
+        StringBuilder letters = new StringBuilder();
+        for (int wordId = 0; wordId < words.size(); wordId++) {
+            wordOffsets[wordId] = letters.length();
+            letters.append(words.get(wordId));
+        }
+        wordOffsets[words.size()] = letters.length();
+
+        return new WordDictionary(stateCount, words.size(),
+                IntBuffer.wrap(Arrays.copyOf(transitions, stateCount * ALPHABET_SIZE)),
+                IntBuffer.wrap(Arrays.copyOf(wordIds, stateCount)), IntBuffer.wrap(dictionaryLinks),
+                IntBuffer.wrap(wordOffsets), ByteBuffer.wrap(letters.toString().getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    // Saves the automaton in its compiled form
+    public void save(Path file) throws IOException {
+        int intCount = this.stateCount * (ALPHABET_SIZE + 2) + this.wordCount + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + intCount * 4 + this.wordLetters.capacity());
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(this.stateCount).putInt(this.wordCount);
+        for (IntBuffer table : new IntBuffer[] {this.transitions, this.wordIds, this.dictionaryLinks, this.wordOffsets}) {
+            for (int i = 0; i < table.capacity(); i++) buffer.putInt(table.get(i));
+        }
+        for (int i = 0; i < this.wordLetters.capacity(); i++) buffer.put(this.wordLetters.get(i));
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    // Memory-maps a compiled dictionary; the tables are read straight from the mapping
+    public static WordDictionary map(Path file) throws IOException {
+        ByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.BIG_ENDIAN);
+        }
+        if (mapping.capacity() < HEADER_SIZE || mapping.getInt(0) != MAGIC || mapping.getInt(4) != VERSION) {
+            throw new IOException(file + " is not a version " + VERSION + " compiled dictionary");
+        }
+        int stateCount = mapping.getInt(8);
+        int wordCount = mapping.getInt(12);
+
+        int position = HEADER_SIZE;
+        IntBuffer transitions = slice(mapping, position, stateCount * ALPHABET_SIZE).asIntBuffer();
+        position += stateCount * ALPHABET_SIZE * 4;
+        IntBuffer wordIds = slice(mapping, position, stateCount).asIntBuffer();
+        position += stateCount * 4;
+        IntBuffer dictionaryLinks = slice(mapping, position, stateCount).asIntBuffer();
+        position += stateCount * 4;
+        IntBuffer wordOffsets = slice(mapping, position, wordCount + 1).asIntBuffer();
+        position += (wordCount + 1) * 4;
+        ByteBuffer wordLetters = mapping.duplicate().position(position).slice();
+
+        return new WordDictionary(stateCount, wordCount, transitions, wordIds, dictionaryLinks, wordOffsets,
+                wordLetters);
+    }
+
+    // Returns the part of a mapping holding the given number of ints
+    private static ByteBuffer slice(ByteBuffer mapping, int position, int intCount) {
+        return mapping.duplicate().position(position).limit(position + intCount * 4).slice();
+    }
+
+    // Scans every row (left to right) and column (top to bottom) of the board once and reports each dictionary word
+    // of at least the given length. Returns the number of words found.
+    public int scanBoard(BoardState state, int minLength, WordHandler handler) {
+        int found = 0;
+        for (int row = 0; row < state.getRows(); row++) {
+            found += this.scanLine(state, row, state.index(row, 0), 1, state.getCols(), minLength, handler);
+        }
+        for (int col = 0; col < state.getCols(); col++) {
+            found += this.scanLine(state, state.getRows() + col, col, state.getCols(), state.getRows(), minLength,
+                    handler);
+        }
+        return found;
+    }
+
+    // Runs one line of the board through the automaton, reporting every word that ends at each position
+    private int scanLine(BoardState state, int line, int start, int stride, int length, int minLength,
+                         WordHandler handler) {
+        int found = 0;
+        int automatonState = 0;
+        for (int position = 0; position < length; position++) {
+            char letter = state.getLetter(start + position * stride);
+
+            // Empty cells break words, so the scan starts again from the root
+            if (letter < 'A' || letter > 'Z') {
+                automatonState = 0;
+                continue;
+            }
+            automatonState = this.transitions.get(automatonState * ALPHABET_SIZE + (letter - 'A'));
+
+            // Report the word ending here and every shorter word that is a suffix of it
+            int match = this.wordIds.get(automatonState) != -1 ? automatonState : this.dictionaryLinks.get(automatonState);
+            while (match != -1) {
+                int wordId = this.wordIds.get(match);
+                if (this.getWordLength(wordId) >= minLength) {
+                    handler.wordFound(wordId, line, position);
+                    found++;
+                }
+                match = this.dictionaryLinks.get(match);
+            }
+        }
+        return found;
+    }
+
+    // Checks whether the given word is in the dictionary
+    public boolean contains(String word) {
+        int state = 0;
+        for (int i = 0; i < word.length(); i++) {
+            char letter = word.charAt(i);
+            if (letter < 'A' || letter > 'Z') return false;
+            state = this.transitions.get(state * ALPHABET_SIZE + (letter - 'A'));
+        }
+        // A full-word walk only lands on a state ending this word if the word itself is in the trie
+        return this.wordIds.get(state) != -1 && this.getWordLength(this.wordIds.get(state)) == word.length();
+    }
+
+    // Finds every word of the given length made only of the given letters
+    public List<String> findWords(int length, String allowedLetters) {
+        List<String> words = new ArrayList<>();
+        for (int wordId = 0; wordId < this.wordCount; wordId++) {
+            if (this.getWordLength(wordId) != length) continue;
+            String word = this.getWord(wordId);
+            if (word.chars().allMatch(letter -> allowedLetters.indexOf(letter) >= 0)) words.add(word);
+        }
+        return words;
+    }
+
+    // Important getters
+    public int getWordCount() {return this.wordCount;}
+    public int getStateCount() {return this.stateCount;}
+    public int getWordLength(int wordId) {return this.wordOffsets.get(wordId + 1) - this.wordOffsets.get(wordId);}
+
+    public String getWord(int wordId) {
+        byte[] letters = new byte[this.getWordLength(wordId)];
+        this.wordLetters.duplicate().position(this.wordOffsets.get(wordId)).get(letters);
+        return new String(letters, StandardCharsets.US_ASCII);
+    }
+}
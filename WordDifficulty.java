@@ -0,0 +1,63 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// The WordDifficulty class reads the word ranking written by WordDifficultyRanker and picks the target words of a
+// difficulty band. The ranking lists words from easiest to hardest, one per line with its solve rate and mean solve
+// length; the ranked words a game can use are split into three equal bands, so choosing a word of the wanted
+// difficulty costs nothing more than choosing any word.
+
+public class WordDifficulty {
+
+    public static final String[] BANDS = {"easy", "medium", "hard"};
+
+    // Returns the candidate words in the configured band, or all candidates when no band is configured or the
+    // ranking cannot be used
+    public static List<String> selectBand(List<String> candidates) {
+        if (GameSettings.WORD_DIFFICULTY == null || candidates.isEmpty()) return candidates;
+        int band = List.of(BANDS).indexOf(GameSettings.WORD_DIFFICULTY.toLowerCase(Locale.ROOT));
+        if (band == -1) {
+            System.err.println("Unknown word difficulty " + GameSettings.WORD_DIFFICULTY + ", using every word");
+            return candidates;
+        }
+
+        List<String> ranked;
+        try {
+            ranked = readRanking(Paths.get(GameSettings.WORD_DIFFICULTY_FILE));
+        } catch (IOException e) {
+            System.err.println("Could not read the word ranking, using every word: " + e.getMessage());
+            return candidates;
+        }
+
+        // Keep the ranked words that can be picked, easiest first
+        Set<String> allowed = new HashSet<>(candidates);
+        List<String> words = new ArrayList<>();
+        for (String word : ranked) {
+            if (allowed.contains(word)) words.add(word);
+        }
+        if (words.size() < BANDS.length) {
+            System.err.println("The word ranking has too few of the target words, using every word");
+            return candidates;
+        }
+        return new ArrayList<>(words.subList(band * words.size() / BANDS.length,
+                (band + 1) * words.size() / BANDS.length));
+    }
+
+    // Reads the words of a ranking file in order, skipping comment lines
+    public static List<String> readRanking(Path file) throws IOException {
+        List<String> words = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            words.add(line.split("\\s+")[0].toUpperCase(Locale.ROOT));
+        }
+        return words;
+    }
+}
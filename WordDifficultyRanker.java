@@ -0,0 +1,94 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// The WordDifficultyRanker class ranks the target words by how hard they are to form. It plays many seeded starting
+// positions, in parallel, and solves each one for every word at once with a MultiTargetSolver. A word's difficulty
+// is the share of positions it could be formed from within GameSettings.RANKER_MAX_STATES states, then the mean number
+// of moves it took. The ranking is written easiest first, ready for WordDifficulty to split into bands:
+//
+//     java WordDifficultyRanker 500 word-difficulty.txt
+//
+// The same seed, board size and word list always give the same ranking.
+
+public class WordDifficultyRanker {
+
+    // Results of one word over all the games
+    private static class WordStats {
+        private final String word;
+        private int solvedGames; // Games in which the word was formed
+        private long totalMoves; // Moves summed over the solved games
+
+        private WordStats(String word) {this.word = word;}
+
+        private double getSolveRate(int games) {return (double) this.solvedGames / games;}
+        private double getMeanMoves() {return this.solvedGames == 0 ? Double.NaN : (double) this.totalMoves / this.solvedGames;}
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: java WordDifficultyRanker <games> <ranking file> [seed]");
+            return;
+        }
+        int games = Integer.parseInt(args[0]);
+        long seed = args.length == 3 ? Long.parseLong(args[2]) : 1;
+
+        List<String> words = getTargetWords();
+        if (words.isEmpty()) {
+            System.err.println("No target words of length " + GameSettings.WORD_LENGTH + " to rank");
+            return;
+        }
+        MultiTargetSolver solver = new MultiTargetSolver(words);
+
+        // Each game has its own seed, so the results do not depend on which thread plays it
+        long startTime = System.nanoTime();
+        List<Map<String, Integer>> results = IntStream.range(0, games).parallel().mapToObj(game -> {
+            Random random = new Random(seed + game);
+            BoardState start = new BoardState(GameSettings.NUMBER_OF_ROWS, GameSettings.NUMBER_OF_COLUMNS);
+            start.placeStartingTiles(random);
+            return solver.solve(start, GameSettings.RANKER_MAX_STATES, random);
+        }).collect(Collectors.toList());
+
+        List<WordStats> ranking = new ArrayList<>();
+        for (String word : solver.getWords()) {
+            WordStats stats = new WordStats(word);
+            for (Map<String, Integer> result : results) {
+                Integer moves = result.get(word);
+                if (moves == null) continue;
+                stats.solvedGames++;
+                stats.totalMoves += moves;
+            }
+            ranking.add(stats);
+        }
+        ranking.sort(Comparator.comparingDouble((WordStats stats) -> -stats.getSolveRate(games))
+                .thenComparingDouble(stats -> stats.solvedGames == 0 ? Double.MAX_VALUE : stats.getMeanMoves())
+                .thenComparing(stats -> stats.word));
+
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8))) {
+            writer.printf("# %d games on a %dx%d board, seed %d, easiest first%n", games, GameSettings.NUMBER_OF_ROWS,
+                    GameSettings.NUMBER_OF_COLUMNS, seed);
+            writer.println("# word solve-rate mean-moves");
+            for (WordStats stats : ranking) {
+                writer.printf("%s %.3f %.2f%n", stats.word, stats.getSolveRate(games), stats.getMeanMoves());
+            }
+        }
+        System.out.printf("Ranked %d words over %d games in %.1f s%n", ranking.size(), games,
+                (System.nanoTime() - startTime) / 1e9);
+    }
+
+    // The words a game can pick: the dictionary's target words when a dictionary is set, otherwise the word bank's
+    static List<String> getTargetWords() throws IOException {
+        if (GameSettings.DICTIONARY_FILE == null) return GameSettings.getWordBankWords();
+        WordDictionary dictionary = WordDictionary.load(Paths.get(GameSettings.DICTIONARY_FILE));
+        return dictionary.findWords(GameSettings.WORD_LENGTH, GameSettings.WORD_LETTERS);
+    }
+}
@@ -0,0 +1,45 @@
+import java.util.SplittableRandom;
+
+// The Zobrist class holds the random keys of the 64-bit Zobrist hash of a board. Every cell has a key for each letter,
+// each lock status other than unlocked and the blank flag, and the hash of a board is the XOR of the keys of the
+// tiles on it (an empty board hashes to 0). Changing one cell changes the hash by XORing out the cell's old key and
+// XORing in its new one, so BoardState and Board keep their hash up to date in time proportional to the cells a
+// move, merge, new tile or tool action touched instead of rescanning the board.
+//
+// The keys come from a fixed seed, so hashes are the same in every run and can be stored.
+
+public class Zobrist {
+
+    private static final int MAX_CELLS = 256; // Cells indexed by one byte, as in replay logs
+    private static final long[] LETTER_KEYS = new long[MAX_CELLS * 32]; // Key of each letter code (1-26) on each cell
+    private static final long[] LOCK_KEYS = new long[MAX_CELLS * 4]; // Key of each lock status on each cell
+    private static final long[] BLANK_KEYS = new long[MAX_CELLS]; // Key of a blank tile on each cell
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5738_5A4F_4252_4953L);
+        for (int cell = 0; cell < MAX_CELLS; cell++) {
+            for (int letter = 1; letter <= 26; letter++) LETTER_KEYS[cell * 32 + letter] = random.nextLong();
+            for (int lock = 1; lock < 4; lock++) LOCK_KEYS[cell * 4 + lock] = random.nextLong(); // Unlocked stays 0
+            BLANK_KEYS[cell] = random.nextLong();
+        }
+    }
+
+    // Key of a packed cell (see BoardState.getPackedCell), 0 for an empty cell
+    public static long cellKey(int cell, int packed) {
+        if ((packed & 0x1F) == 0) return 0;
+        long key = LETTER_KEYS[cell * 32 + (packed & 0x1F)] ^ LOCK_KEYS[cell * 4 + ((packed >> 5) & 0x3)];
+        return (packed & 0x80) != 0 ? key ^ BLANK_KEYS[cell] : key;
+    }
+
+    // Key of a tile with the given letter, lock status and blank flag on a cell
+    public static long tileKey(int cell, char letter, Locks lock, boolean isBlank) {
+        return cellKey(cell, (letter - 'A' + 1) | (lock.ordinal() << 5) | (isBlank ? 0x80 : 0));
+    }
+
+    // Hashes a whole board from scratch
+    public static long hash(BoardState state) {
+        long hash = 0;
+        for (int cell = 0; cell < state.getCellCount(); cell++) hash ^= cellKey(cell, state.getPackedCell(cell));
+        return hash;
+    }
+}
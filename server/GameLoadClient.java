@@ -0,0 +1,170 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The GameLoadClient class is a load generator for the GameServer. It opens many sessions at once, each on its own
+// virtual thread, plays random moves in each one (starting a new game whenever one ends) and times every move from
+// sending the command to receiving the response. It reports how many sessions the server accepted, the move rate
+// and the move latency percentiles. With --ramp it keeps doubling the number of sessions until the server turns
+// clients away or the p99 latency goes over the given limit, and reports the most sessions that stayed within it.
+//
+// Usage: java GameLoadClient [--host H] [--port P] [--sessions N] [--moves M] [--ramp <p99 limit in ms>]
+
+public class GameLoadClient {
+
+    // Largest number of sessions tried when ramping up
+    private static final int MAX_RAMP_SESSIONS = 1 << 16;
+
+    // Result of one load run
+    private static class Result {
+        int sessions; // Number of sessions requested
+        final AtomicInteger accepted = new AtomicInteger(); // Sessions the server served
+        final AtomicInteger rejected = new AtomicInteger(); // Sessions the server turned away as busy
+        final AtomicInteger failed = new AtomicInteger(); // Sessions that broke off with an error
+        long[] latencies; // Latency of every move in nanoseconds, sorted
+        double seconds; // Duration of the run
+
+        // Latency at the given percentile, in milliseconds
+        double percentile(double percent) {
+            if (this.latencies.length == 0) return 0;
+            int index = (int) Math.ceil(percent / 100 * this.latencies.length) - 1;
+            return this.latencies[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d sessions: %d accepted, %d busy, %d failed | %d moves in %.2f s = %.0f moves/s"
+                            + " | latency p50 %.3f ms, p99 %.3f ms, max %.3f ms", this.sessions, this.accepted.get(),
+                    this.rejected.get(), this.failed.get(), this.latencies.length, this.seconds,
+                    this.latencies.length / this.seconds, this.percentile(50), this.percentile(99),
+                    this.percentile(100));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        int port = GameSettings.SERVER_PORT;
+        int sessions = 1000;
+        int moves = 200;
+        double rampLimit = -1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host": host = args[++i]; break;
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--sessions": sessions = Integer.parseInt(args[++i]); break;
+                case "--moves": moves = Integer.parseInt(args[++i]); break;
+                case "--ramp": rampLimit = Double.parseDouble(args[++i]); break;
+                default:
+                    System.err.println("Usage: java GameLoadClient [--host H] [--port P] [--sessions N] [--moves M]"
+                            + " [--ramp <p99 limit in ms>]");
+                    return;
+            }
+        }
+
+        if (rampLimit < 0) {
+            System.out.println(run(host, port, sessions, moves));
+            return;
+        }
+
+        // Double the sessions until the server turns clients away, fails them or gets too slow
+        int supported = 0;
+        for (int count = sessions; count <= MAX_RAMP_SESSIONS; count *= 2) {
+            Result result = run(host, port, count, moves);
+            System.out.println(result);
+            if (result.rejected.get() > 0 || result.failed.get() > 0 || result.percentile(99) > rampLimit) break;
+            supported = count;
+        }
+        System.out.printf("Sessions supported with p99 under %.1f ms: %d%n", rampLimit, supported);
+    }
+
+    // Runs the given number of sessions at once, each playing the given number of moves
+    private static Result run(String host, int port, int sessions, int moves) throws InterruptedException {
+        Result result = new Result();
+        result.sessions = sessions;
+        long[][] sessionLatencies = new long[sessions][];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(sessions);
+
+        for (int session = 0; session < sessions; session++) {
+            int id = session;
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                    sessionLatencies[id] = playSession(host, port, id, moves, result);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        result.seconds = (System.nanoTime() - startTime) / 1e9;
+
+        // Merge the latencies of every session
+        int total = 0;
+        for (long[] latencies : sessionLatencies) total += latencies == null ? 0 : latencies.length;
+        result.latencies = new long[total];
+        int position = 0;
+        for (long[] latencies : sessionLatencies) {
+            if (latencies == null) continue;
+            System.arraycopy(latencies, 0, result.latencies, position, latencies.length);
+            position += latencies.length;
+        }
+        Arrays.sort(result.latencies);
+        return result;
+    }
+
+    // Plays one session and returns the latency of each of its moves
+    private static long[] playSession(String host, int port, int id, int moves, Result result) {
+        long[] latencies = new long[moves];
+        int played = 0;
+        Random random = new Random(id);
+        String[] directions = {"MOVE L\n", "MOVE R\n", "MOVE U\n", "MOVE D\n"};
+
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                     StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            OutputStream out = socket.getOutputStream();
+
+            String response = send(out, in, "NEW " + id + "\n");
+            if (response == null || response.equals("BUSY")) {
+                result.rejected.incrementAndGet();
+                return Arrays.copyOf(latencies, 0);
+            }
+            result.accepted.incrementAndGet();
+
+            while (played < moves) {
+                long startTime = System.nanoTime();
+                response = send(out, in, directions[random.nextInt(directions.length)]);
+                latencies[played++] = System.nanoTime() - startTime;
+
+                if (response == null || response.startsWith("ERROR")) throw new IOException("Server answered " + response);
+                if (!response.startsWith("PLAYING")) send(out, in, "NEW " + random.nextLong() + "\n");
+            }
+            send(out, in, "QUIT\n");
+        } catch (IOException e) {
+            result.failed.incrementAndGet();
+        }
+        return Arrays.copyOf(latencies, played);
+    }
+
+    // Sends one command and waits for its response
+    private static String send(OutputStream out, BufferedReader in, String command) throws IOException {
+        out.write(command.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return in.readLine();
+    }
+}
@@ -0,0 +1,258 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+// The GameServer class hosts many concurrent headless games from one JVM. Each connection is served by its own
+// virtual thread and owns its game session outright, so the move path never takes a shared lock: the only shared
+// state is a few striped counters. The game rules are the BoardState ones, which mirror Board.
+//
+// Backpressure: at most GameSettings.SERVER_MAX_SESSIONS connections are served at once and any more are turned away
+// with "BUSY"; each connection handles one command at a time, so a client that stops reading its responses is held
+// back by TCP flow control instead of growing a queue on the server; idle connections are closed after
+// GameSettings.SERVER_IDLE_TIMEOUT milliseconds so they cannot hold a session slot forever.
+//
+// Protocol: one command per line, one response line per command.
+//   NEW [seed]                 starts a new game                  -> GAME <target word> <score> <board>
+//   MOVE <LEFT|RIGHT|UP|DOWN>  plays a move (L, R, U, D also work) -> <PLAYING|WON|LOST> <score> <board>
+//   LOCK <row> <col> <lock>    sets the lock status of a tile      -> <PLAYING|WON|LOST> <score> <board>
+//   LETTER <row> <col> <A-Z>   sets the letter of a blank tile     -> <PLAYING|WON|LOST> <score> <board>
+//   REMOVE <row> <col>         removes a tile                      -> <PLAYING|WON|LOST> <score> <board>
+//   BOARD                      shows the game                      -> <PLAYING|WON|LOST> <score> <board>
+//   STATS                      shows server totals                 -> STATS <active> <sessions> <moves>
+//   QUIT                       closes the connection               -> BYE
+// Invalid commands are answered with "ERROR <reason>". Boards are written row by row as in BoardState.toString.
+//
+// Usage: java GameServer [port]   (needs Java 21 or newer for virtual threads)
+
+public class GameServer {
+
+    // Game states reported to the client
+    private static final String PLAYING = "PLAYING";
+    private static final String WON = "WON";
+    private static final String LOST = "LOST";
+
+    // Instance variables
+    private final int port; // Port the server listens on
+    private final Semaphore sessionSlots; // Free session slots, used to turn clients away when the server is full
+    private final LongAdder totalSessions; // Number of connections served so far
+    private final LongAdder totalMoves; // Number of moves played across all sessions
+
+    // Constructor: Creates a server for the given port
+    public GameServer(int port) {
+        this.port = port;
+        this.sessionSlots = new Semaphore(GameSettings.SERVER_MAX_SESSIONS);
+        this.totalSessions = new LongAdder();
+        this.totalMoves = new LongAdder();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : GameSettings.SERVER_PORT;
+        new GameServer(port).serve();
+    }
+
+    // Accepts connections until the process is stopped, serving each on its own virtual thread
+    public void serve() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(this.port, GameSettings.SERVER_BACKLOG,
+                InetAddress.getLoopbackAddress())) {
+            System.out.printf("Serving games on %s, up to %d sessions%n", serverSocket.getLocalSocketAddress(),
+                    GameSettings.SERVER_MAX_SESSIONS);
+            while (true) {
+                Socket socket = serverSocket.accept();
+                if (!this.sessionSlots.tryAcquire()) {
+                    this.reject(socket);
+                    continue;
+                }
+                this.totalSessions.increment();
+                Thread.ofVirtual().name("session-" + socket.getPort()).start(() -> {
+                    try {
+                        this.handleConnection(socket);
+                    } finally {
+                        this.sessionSlots.release();
+                    }
+                });
+            }
+        }
+    }
+
+    // Turns a client away because every session slot is taken
+    private void reject(Socket socket) {
+        try (Socket rejected = socket) {
+            rejected.getOutputStream().write("BUSY\n".getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            // The client is being turned away anyway
+        }
+    }
+
+    // Reads commands from one client and answers them until it disconnects
+    private void handleConnection(Socket socket) {
+        Session session = new Session();
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(),
+                     StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(),
+                     StandardCharsets.US_ASCII))) {
+            client.setSoTimeout(GameSettings.SERVER_IDLE_TIMEOUT);
+            client.setTcpNoDelay(true);
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String response = this.handleCommand(session, line);
+                out.write(response);
+                out.write('\n');
+                if (response.equals("BYE")) break;
+
+                // Answer pipelined commands in one write, flushing once the client has nothing more queued
+                if (!in.ready()) out.flush();
+            }
+        } catch (SocketTimeoutException e) {
+            // Idle client, free its slot
+        } catch (IOException e) {
+            // The client disconnected
+        }
+    }
+
+    // Runs a single command against the session and returns the response line
+    private String handleCommand(Session session, String line) {
+        String[] parts = line.trim().split("\\s+");
+        String command = parts[0].toUpperCase(Locale.ROOT);
+        try {
+            switch (command) {
+                case "NEW":
+                    session.start(parts.length > 1 ? Long.parseLong(parts[1]) : new Random().nextLong());
+                    return "GAME " + session.targetWord + " " + session.score + " " + session.state;
+                case "STATS":
+                    return "STATS " + (GameSettings.SERVER_MAX_SESSIONS - this.sessionSlots.availablePermits()) + " "
+                            + this.totalSessions.sum() + " " + this.totalMoves.sum();
+                case "QUIT":
+                    return "BYE";
+                default:
+                    break;
+            }
+
+            if (session.state == null) return "ERROR no game, send NEW first";
+            switch (command) {
+                case "MOVE":
+                    if (!session.status.equals(PLAYING)) return "ERROR game is over";
+                    session.move(parseDirection(parts[1]));
+                    this.totalMoves.increment();
+                    break;
+                case "LOCK":
+                    session.lock(parseCell(session, parts[1], parts[2]), Locks.valueOf(parts[3].toUpperCase(Locale.ROOT)));
+                    break;
+                case "LETTER":
+                    session.changeLetter(parseCell(session, parts[1], parts[2]), parts[3].toUpperCase(Locale.ROOT).charAt(0));
+                    break;
+                case "REMOVE":
+                    session.remove(parseCell(session, parts[1], parts[2]));
+                    break;
+                case "BOARD":
+                    break;
+                default:
+                    return "ERROR unknown command " + command;
+            }
+            return session.status + " " + session.score + " " + session.state;
+        } catch (IllegalArgumentException | IllegalStateException | ArrayIndexOutOfBoundsException e) {
+            return "ERROR " + (e instanceof ArrayIndexOutOfBoundsException ? "missing argument" : e.getMessage());
+        }
+    }
+
+    // Reads a move direction, accepting its full name or first letter
+    private static Directions parseDirection(String text) {
+        switch (text.toUpperCase(Locale.ROOT)) {
+            case "L": case "LEFT": return Directions.LEFT;
+            case "R": case "RIGHT": return Directions.RIGHT;
+            case "U": case "UP": return Directions.UP;
+            case "D": case "DOWN": return Directions.DOWN;
+            default: throw new IllegalArgumentException("invalid direction " + text);
+        }
+    }
+
+    // Reads a row and column into a cell index, checking that they are on the board
+    private static int parseCell(Session session, String rowText, String colText) {
+        int row = Integer.parseInt(rowText);
+        int col = Integer.parseInt(colText);
+        if (row < 0 || row >= session.state.getRows() || col < 0 || col >= session.state.getCols()) {
+            throw new IllegalArgumentException("cell " + row + " " + col + " is off the board");
+        }
+        return session.state.index(row, col);
+    }
+
+    // State of one player's game, only ever touched by the thread serving that player's connection
+    private static class Session {
+        BoardState state; // Tiles on the board
+        Random random; // Random number generator seeded with the game seed
+        String targetWord; // The target word of the game
+        int score; // Score of the player
+        int removeCounter; // Number of removes left
+        String status; // Whether the game is still being played, won or lost
+
+        // Starts a new game from the given seed, the same way Game does
+        void start(long seed) {
+            this.random = new Random(seed);
+            this.targetWord = GameSettings.pickTargetWord(this.random);
+            this.state = new BoardState(GameSettings.NUMBER_OF_ROWS, GameSettings.NUMBER_OF_COLUMNS);
+            this.state.placeStartingTiles(this.random);
+            this.score = 0;
+            this.removeCounter = GameSettings.NUMBER_OF_REMOVES;
+            this.status = PLAYING;
+        }
+
+        // Plays a move the same way Board does: slide, then merge unless the word is formed, then spawn
+        void move(Directions direction) {
+            if (this.state.move(direction, this.targetWord)) this.state.spawnRandomTile(this.random);
+            this.score += GameSettings.POINTS_PER_MOVE;
+            this.updateStatus();
+        }
+
+        // Sets the lock status of a tile
+        void lock(int cell, Locks lock) {
+            this.requireTile(cell);
+            this.state.setLock(cell / this.state.getCols(), cell % this.state.getCols(), lock);
+            this.updateStatus();
+        }
+
+        // Sets the letter of a blank tile
+        void changeLetter(int cell, char letter) {
+            this.requireTile(cell);
+            if (!this.state.isBlank(cell / this.state.getCols(), cell % this.state.getCols())) {
+                throw new IllegalArgumentException("only blank tiles can change their letter");
+            }
+            if (letter < 'A' || letter > 'Z') throw new IllegalArgumentException("invalid letter " + letter);
+            this.state.setLetter(cell / this.state.getCols(), cell % this.state.getCols(), letter);
+            this.updateStatus();
+        }
+
+        // Removes a tile, using up one of the removes
+        void remove(int cell) {
+            this.requireTile(cell);
+            if (this.removeCounter == 0) throw new IllegalStateException("no removes left");
+            this.state.removeTile(cell / this.state.getCols(), cell % this.state.getCols());
+            this.removeCounter--;
+            this.updateStatus();
+        }
+
+        // Checks that a tool is used on a tile of a game that is still being played
+        private void requireTile(int cell) {
+            if (!this.status.equals(PLAYING)) throw new IllegalStateException("game is over");
+            if (this.state.getLetter(cell) == '\0') throw new IllegalArgumentException("no tile on that cell");
+        }
+
+        // Checks whether the game has been won or lost
+        private void updateStatus() {
+            if (this.state.checkForWin(this.targetWord)) this.status = WON;
+            else if (this.state.checkForLoss(this.removeCounter)) this.status = LOST;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// The VectorBatchKernel class applies the game rules to as many boards per instruction as the CPU's widest byte
+// vector holds (16 with SSE, 32 with AVX2, 64 with AVX-512). Each lane of a vector is one board, so the same cell of
+// every board in a group is loaded into one vector and every rule becomes a masked blend instead of a branch:
+// - sliding moves a tile one cell towards the leading edge wherever that cell is empty, repeated once per cell of
+//   the line, which gives the same result as moving each tile to its final cell
+// - merging walks each line from the leading edge and blends the next letter into the lanes where the pair matches
+// - the win check compares every window of every row and column with the word and collects the matching lanes
+//
+// Needs the jdk.incubator.vector module at compile and run time (--add-modules jdk.incubator.vector), so it lives in
+// the "vector" directory, outside the game's sources, and is only compiled for the BoardBatch benchmark:
+//
+//     javac --add-modules jdk.incubator.vector -cp classes -d classes vector/VectorBatchKernel.java
+//
+// BoardBatch only loads this class when it has been compiled and the module is present, and falls back to
+// ScalarBatchKernel otherwise.
+
+public class VectorBatchKernel implements BatchKernel {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final byte LETTER_BITS = 0x1F;
+    private static final byte LOCK_BITS = 0x60;
+    private static final byte FLAG_BITS = (byte) 0xE0; // Lock status and blank flag, kept when a tile merges
+    private static final byte DOUBLE_LOCKED = (byte) (Locks.DOUBLELOCKED.ordinal() << 5);
+
+    // Plays a full player move on every board: slide, then merge and slide again unless the slide formed the word
+    @Override
+    public void move(BoardBatch batch, Directions direction, String targetWord, boolean[] spawnNeeded) {
+        byte[] cells = batch.getCells();
+        int capacity = batch.getCapacity();
+        int[][] lines = batch.getLines(direction);
+        int[] word = ScalarBatchKernel.toLetterCodes(targetWord);
+        ByteVector[] board = new ByteVector[batch.getCellCount()];
+
+        for (int lane = 0; lane < batch.getSize(); lane += SPECIES.length()) {
+            load(cells, capacity, lane, board);
+            slide(board, lines);
+            VectorMask<Byte> isPlaying = findWins(batch, board, word).not();
+            merge(board, lines, isPlaying);
+            slide(board, lines); // Boards that did not merge are already slid, so this leaves them unchanged
+            isPlaying.intoArray(spawnNeeded, lane);
+            store(cells, capacity, lane, board);
+        }
+    }
+
+    // Checks every board for the target word
+    @Override
+    public void checkForWin(BoardBatch batch, String targetWord, boolean[] wins) {
+        int[] word = ScalarBatchKernel.toLetterCodes(targetWord);
+        ByteVector[] board = new ByteVector[batch.getCellCount()];
+        for (int lane = 0; lane < batch.getSize(); lane += SPECIES.length()) {
+            load(batch.getCells(), batch.getCapacity(), lane, board);
+            findWins(batch, board, word).intoArray(wins, lane);
+        }
+    }
+
+    @Override
+    public String getName() {return "vector (" + SPECIES.length() + " boards per instruction)";}
+
+    // Narrower vectors than 128 bits do not pay for the blends
+    @Override
+    public boolean isSupported() {return SPECIES.vectorBitSize() >= 128;}
+
+    // Loads one group of boards, one vector per cell
+    private static void load(byte[] cells, int capacity, int lane, ByteVector[] board) {
+        for (int cell = 0; cell < board.length; cell++) board[cell] = ByteVector.fromArray(SPECIES, cells, cell * capacity + lane);
+    }
+
+    // Stores one group of boards back into the batch
+    private static void store(byte[] cells, int capacity, int lane, ByteVector[] board) {
+        for (int cell = 0; cell < board.length; cell++) board[cell].intoArray(cells, cell * capacity + lane);
+    }
+
+    // Slides every tile that is not double locked as far as possible along its line
+    private static void slide(ByteVector[] board, int[][] lines) {
+        for (int[] line : lines) {
+            for (int pass = 1; pass < line.length; pass++) {
+                for (int position = 0; position < line.length - 1; position++) {
+                    ByteVector current = board[line[position]];
+                    ByteVector next = board[line[position + 1]];
+                    VectorMask<Byte> moves = current.and(LETTER_BITS).eq((byte) 0)
+                            .and(next.and(LETTER_BITS).compare(VectorOperators.NE, (byte) 0))
+                            .andNot(next.and(LOCK_BITS).eq(DOUBLE_LOCKED));
+                    board[line[position]] = current.blend(next, moves);
+                    board[line[position + 1]] = next.blend((byte) 0, moves);
+                }
+            }
+        }
+    }
+
+    // Merges adjacent unlocked tiles with the same letter on the boards that are still playing
+    private static void merge(ByteVector[] board, int[][] lines, VectorMask<Byte> isPlaying) {
+        for (int[] line : lines) {
+            for (int position = 0; position < line.length - 1; position++) {
+                ByteVector current = board[line[position]];
+                ByteVector next = board[line[position + 1]];
+                ByteVector letter = current.and(LETTER_BITS);
+                VectorMask<Byte> merges = letter.compare(VectorOperators.NE, (byte) 0)
+                        .and(letter.eq(next.and(LETTER_BITS)))
+                        .and(current.and(LOCK_BITS).eq((byte) 0))
+                        .and(next.and(LOCK_BITS).eq((byte) 0))
+                        .and(isPlaying);
+
+                // Increment the letter, wrapping around to 'A' after 'Z'
+                ByteVector nextLetter = letter.add((byte) 1).blend((byte) 1, letter.eq((byte) 26));
+                board[line[position]] = current.blend(current.and(FLAG_BITS).or(nextLetter), merges);
+                board[line[position + 1]] = next.blend((byte) 0, merges);
+            }
+        }
+    }
+
+    // Finds the boards holding the target word in a row (left to right) or a column (top to bottom)
+    private static VectorMask<Byte> findWins(BoardBatch batch, ByteVector[] board, int[] word) {
+        VectorMask<Byte> wins = SPECIES.maskAll(false);
+        for (int[][] lines : new int[][][] {batch.getLines(Directions.LEFT), batch.getLines(Directions.UP)}) {
+            for (int[] line : lines) {
+                for (int start = 0; start + word.length <= line.length; start++) {
+                    VectorMask<Byte> matches = wins.not();
+                    for (int i = 0; i < word.length && matches.anyTrue(); i++) {
+                        matches = matches.and(board[line[start + i]].and(LETTER_BITS).eq((byte) word[i]));
+                    }
+                    wins = wins.or(matches);
+                }
+            }
+        }
+        return wins;
+    }
+}